@@ -1,12 +1,18 @@
 package com.xcheng.autobundle.simple;
 
 import android.app.Application;
+import android.os.AsyncTask;
 import android.os.Bundle;
 import android.support.annotation.Nullable;
 import android.util.Log;
 
+import java.lang.reflect.Method;
+import java.util.Collections;
+
 import autobundle.AutoBundle;
 import autobundle.OnBundleListener;
+import autobundle.OnValidateListener;
+import autobundle.OnWarmUpListener;
 
 /**
  * 创建时间：2019/4/11
@@ -17,8 +23,14 @@ public class AutoApp extends Application {
     @Override
     public void onCreate() {
         super.onCreate();
-        AutoBundle.builder().debug(true)
-                .validateEagerly(true)
+        AutoBundle autoBundle = AutoBundle.builder().debug(true)
+                .validateEagerly(AsyncTask.THREAD_POOL_EXECUTOR, new OnValidateListener() {
+                    @Override
+                    public void onValidateFailed(Method method, RuntimeException error) {
+                        Log.e("AutoBundle", "invalid method " + method.getName(), error);
+                    }
+                })
+                .addBundleIndex(new AppBundleIndex())
                 .addOnBundleListener(new OnBundleListener() {
                     @Override
                     public void onBundling(int flag, String key, @Nullable Object value, boolean required) {
@@ -31,6 +43,15 @@ public class AutoApp extends Application {
                     }
                 })
                 .installDefault();
-
+        autoBundle.warmUp(AsyncTask.THREAD_POOL_EXECUTOR,
+                Collections.singletonList(SecondActivity.class),
+                Collections.singletonList(BundleService.class),
+                new OnWarmUpListener() {
+                    @Override
+                    public void onWarmUp(long elapsedMillis, int bindingCount, int methodCount) {
+                        Log.e("AutoBundle", "warm up " + bindingCount + " bindings, "
+                                + methodCount + " methods in " + elapsedMillis + "ms");
+                    }
+                });
     }
 }
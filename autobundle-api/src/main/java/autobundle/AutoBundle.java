@@ -1,27 +1,41 @@
 package autobundle;
 
 import android.app.Activity;
+import android.content.Intent;
 import android.os.Bundle;
 import android.support.annotation.CheckResult;
 import android.support.annotation.NonNull;
 import android.support.annotation.Nullable;
-import android.support.annotation.UiThread;
 import android.util.Log;
 
 import java.lang.reflect.Constructor;
-import java.lang.reflect.InvocationHandler;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.lang.reflect.Proxy;
 import java.util.ArrayList;
-import java.util.LinkedHashMap;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.Queue;
+import java.util.WeakHashMap;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
 
 import autobundle.ParameterHandler.Factory;
 
-import static java.util.Collections.emptyList;
+import static java.util.Collections.emptyMap;
 import static java.util.Collections.unmodifiableList;
+import static java.util.Collections.unmodifiableMap;
 
 /**
  * 创建时间：2019/4/1
@@ -30,13 +44,66 @@ import static java.util.Collections.unmodifiableList;
  */
 public final class AutoBundle {
     static final String TAG = "AutoBundle";
-    private final Map<Class<?>, Constructor<? extends IBinder>> BINDINGS = new LinkedHashMap<>();
+    // Marks classes without binding, ConcurrentHashMap does not accept null values.
+    private static final IBinder NO_BINDING = new IBinder() {
+        @Override
+        public void bind(Object object, Bundle bundle) {
+        }
+
+        @Override
+        public void bind(Object object, Intent intent) {
+        }
+
+        @Override
+        public void save(Object object, Bundle bundle, @Nullable Bundle bound) {
+        }
+    };
+    // Generated binders are stateless, so one instance per target class is shared by all binds
+    // on any thread. Reads never lock, a lookup raced by two threads resolves to the first put.
+    private final ConcurrentMap<Class<?>, IBinder> BINDINGS = new ConcurrentHashMap<>();
+    // Marks services without generated implementation.
+    private static final Object NO_CREATOR = new Object();
+    // Generated service implementations, one per service interface.
+    private final ConcurrentMap<Class<?>, Object> CREATORS = new ConcurrentHashMap<>();
+    // Parsed service methods, each built with the configuration of this instance.
+    // Values are a BundleFactory, or the lock of the thread that is parsing the method.
+    private final ConcurrentMap<Method, Object> bundleFactoryCache = new ConcurrentHashMap<>();
+    // The keys of each cache in insertion order, only kept when the caches are bounded. The oldest
+    // entries are trimmed first.
+    private final Queue<Class<?>> bindingsOrder = new ConcurrentLinkedQueue<>();
+    private final Queue<Class<?>> creatorsOrder = new ConcurrentLinkedQueue<>();
+    private final Queue<Method> bundleFactoryOrder = new ConcurrentLinkedQueue<>();
     private static volatile AutoBundle defaultInstance;
 
     final boolean validateEagerly;
     final boolean debug;
     final List<Factory> factories;
-    final List<OnBundleListener> listeners;
+    final ParameterHandlerCache parameterHandlers;
+    @Nullable
+    final BundleListeners listeners;
+    final Map<Class<?>, IBinder.Factory> indexedBinders;
+    final Map<Class<?>, BundleIndex.ServiceFactory> indexedServices;
+    // Generated implementations put with the built-in types only and do not log.
+    final boolean useGeneratedCreators;
+    @Nullable
+    final Executor validationExecutor;
+    @Nullable
+    final OnValidateListener validationListener;
+    // Bound of each cache, 0 if unbounded.
+    final int maxCacheSize;
+    @Nullable
+    final Metrics metrics;
+    @Nullable
+    final Tracing tracing;
+    @Nullable
+    final BundleSizeMonitor sizeMonitor;
+    @Nullable
+    final SerializationProfiler profiler;
+    // The Bundle or Intent each target was last bound from, only kept when saving changed fields
+    // only. Read when the target is saved, a bind copies nothing. Targets are weakly referenced,
+    // like Activities after onDestroy.
+    @Nullable
+    private final Map<Object, Object> boundStates;
 
     public static AutoBundle getDefault() {
         if (defaultInstance == null) {
@@ -50,123 +117,609 @@ public final class AutoBundle {
     }
 
     private AutoBundle(boolean validateEagerly, boolean debug,
-                       List<Factory> factories, List<OnBundleListener> listeners) {
+                       List<Factory> factories, @Nullable BundleListeners listeners,
+                       Map<Class<?>, IBinder.Factory> indexedBinders,
+                       Map<Class<?>, BundleIndex.ServiceFactory> indexedServices,
+                       boolean useGeneratedCreators,
+                       @Nullable Executor validationExecutor,
+                       @Nullable OnValidateListener validationListener,
+                       int maxCacheSize, @Nullable Metrics metrics, @Nullable Tracing tracing,
+                       @Nullable BundleSizeMonitor sizeMonitor,
+                       @Nullable SerializationProfiler profiler, boolean saveChangedFieldsOnly) {
         this.validateEagerly = validateEagerly;
         this.debug = debug;
         this.listeners = listeners;
         this.factories = factories;
+        this.parameterHandlers = new ParameterHandlerCache(factories, maxCacheSize);
+        this.indexedBinders = indexedBinders;
+        this.indexedServices = indexedServices;
+        this.useGeneratedCreators = useGeneratedCreators;
+        this.validationExecutor = validationExecutor;
+        this.validationListener = validationListener;
+        this.maxCacheSize = maxCacheSize;
+        this.metrics = metrics;
+        this.tracing = tracing;
+        this.sizeMonitor = sizeMonitor;
+        this.profiler = profiler;
+        this.boundStates = saveChangedFieldsOnly
+                ? Collections.synchronizedMap(new WeakHashMap<Object, Object>()) : null;
     }
 
     public static Builder builder() {
         return new Builder();
     }
 
-    @UiThread
     public void bind(@NonNull Activity target) {
-        Bundle bundle = target.getIntent().getExtras();
-        if (bundle == null) {
-            throw new NullPointerException("bundle==null");
+        Intent intent = target.getIntent();
+        if (intent == null) {
+            throw new NullPointerException("intent==null");
         }
-        bind(target, bundle);
+        bind(target, intent);
     }
 
-    @UiThread
-    public void bind(@NonNull Object target, @NonNull Bundle bundle) {
-        Class<?> targetClass = target.getClass();
-        if (debug) Log.d(TAG, "Looking up binding for " + targetClass.getName());
-
-        Constructor<? extends IBinder> constructor = findBindingConstructorForClass(targetClass);
-        if (constructor == null) {
-            return;
+    /**
+     * Binds {@code target} from the extras of {@code intent} without copying them into a new
+     * Bundle first. Like {@link #bind(Object, Bundle)}, primitive fields without a matching extra
+     * keep their value and all other fields are set to null. Bindings generated by an older
+     * autobundle-compiler are bound from {@link Intent#getExtras()}.
+     */
+    public void bind(@NonNull Object target, @NonNull Intent intent) {
+        Metrics metrics = this.metrics;
+        Tracing tracing = this.tracing;
+        long start = metrics != null ? System.nanoTime() : 0;
+        if (tracing != null) Tracing.begin(tracing.bindLabel(target.getClass()));
+        try {
+            IBinder binder = findBinder(target);
+            if (binder == null) {
+                return;
+            }
+            try {
+                binder.bind(target, intent);
+            } catch (AbstractMethodError e) {
+                binder = legacyBinder(target.getClass(), binder);
+                binder.bind(target, intent);
+            }
+            if (boundStates != null) {
+                boundStates.put(target, intent);
+            }
+            if (profiler != null) {
+                profiler.sample(intent, target.getClass().getClassLoader());
+            }
+        } finally {
+            if (tracing != null) Tracing.end();
+        }
+        if (metrics != null) {
+            metrics.recordBind(target.getClass(), System.nanoTime() - start);
         }
+    }
 
-        //noinspection TryWithIdenticalCatches Resolves to API 19+ only type.
+    public void bind(@NonNull Object target, @NonNull Bundle bundle) {
+        Metrics metrics = this.metrics;
+        Tracing tracing = this.tracing;
+        long start = metrics != null ? System.nanoTime() : 0;
+        if (tracing != null) Tracing.begin(tracing.bindLabel(target.getClass()));
         try {
-            IBinder iBinder = constructor.newInstance();
-            iBinder.bind(target, bundle);
-        } catch (IllegalAccessException e) {
-            throw new RuntimeException("Unable to invoke " + constructor, e);
-        } catch (InstantiationException e) {
-            throw new RuntimeException("Unable to invoke " + constructor, e);
-        } catch (InvocationTargetException e) {
-            Throwable cause = e.getCause();
-            if (cause instanceof RuntimeException) {
-                throw (RuntimeException) cause;
+            IBinder binder = findBinder(target);
+            if (binder == null) {
+                return;
             }
-            if (cause instanceof Error) {
-                throw (Error) cause;
+            binder.bind(target, bundle);
+            if (boundStates != null) {
+                boundStates.put(target, bundle);
             }
-            throw new RuntimeException("Unable to create binding instance.", cause);
+            if (profiler != null) {
+                profiler.sample(bundle, target.getClass().getClassLoader());
+            }
+        } finally {
+            if (tracing != null) Tracing.end();
         }
+        if (metrics != null) {
+            metrics.recordBind(target.getClass(), System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Replaces the cached {@code binder} of {@code targetClass}, generated by an older
+     * autobundle-compiler, with a {@link LegacyBinder}. Only the first call of a method missing
+     * from it throws {@link AbstractMethodError}.
+     */
+    private IBinder legacyBinder(Class<?> targetClass, IBinder binder) {
+        Utils.warn(binder.getClass().getName() + " was generated by an older autobundle-compiler.");
+        IBinder legacy = new LegacyBinder(binder);
+        BINDINGS.replace(targetClass, binder, legacy);
+        return legacy;
+    }
+
+    /**
+     * Returns what {@code target} was last bound from, or null to save all fields. The extras of an
+     * Intent are only copied here.
+     */
+    @Nullable
+    private Bundle boundState(Object target) {
+        Object bound = boundStates != null ? boundStates.get(target) : null;
+        if (bound instanceof Intent) {
+            Bundle extras = ((Intent) bound).getExtras();
+            return extras != null ? extras : Bundle.EMPTY;
+        }
+        return (Bundle) bound;
+    }
+
+    private void saveFields(IBinder binder, Object target, Bundle bundle, @Nullable Bundle bound) {
+        try {
+            binder.save(target, bundle, bound);
+        } catch (AbstractMethodError e) {
+            // Throws, older bindings can't save.
+            legacyBinder(target.getClass(), binder).save(target, bundle, bound);
+        }
+    }
+
+    /**
+     * Puts the {@code @Unbox} fields of {@code target} into {@code outState} with the typed put
+     * methods, e.g. in {@code onSaveInstanceState}. With {@link Builder#saveChangedFieldsOnly(boolean)}
+     * primitive and String fields still equal to their value at the last {@code bind} are skipped,
+     * bind such a state with {@link #restore(Object, Bundle)}.
+     */
+    public void save(@NonNull Object target, @NonNull Bundle outState) {
+        IBinder binder = findBinder(target);
+        if (binder == null) {
+            return;
+        }
+        saveFields(binder, target, outState, boundState(target));
+    }
+
+    /**
+     * Binds {@code target} from a state written by {@link #save(Object, Bundle)}, after it was
+     * bound from its Intent or arguments. Fields missing from {@code savedState} keep their value,
+     * so a state with the changed fields only restores all of them.
+     */
+    public void restore(@NonNull Object target, @Nullable Bundle savedState) {
+        if (savedState == null) {
+            return;
+        }
+        IBinder binder = findBinder(target);
+        if (binder == null) {
+            return;
+        }
+        Bundle state = new Bundle();
+        saveFields(binder, target, state, null);
+        state.putAll(savedState);
+        binder.bind(target, state);
+    }
+
+    /**
+     * Returns the sampled serialization costs, the most expensive keys first.
+     *
+     * @throws IllegalStateException if {@link Builder#profileSerialization(int, Executor)} is not
+     *                               enabled
+     */
+    public SerializationProfile serializationProfile() {
+        Utils.checkState(profiler != null,
+                "Serialization is not profiled, see Builder.profileSerialization(int, Executor).");
+        return profiler.snapshot();
+    }
+
+    /**
+     * Returns a snapshot of the statistics collected since this instance was built.
+     *
+     * @throws IllegalStateException if {@link Builder#collectStats(boolean)} is not enabled
+     */
+    public AutoBundleStats stats() {
+        Utils.checkState(metrics != null, "Stats are not collected, see Builder.collectStats(boolean).");
+        return metrics.snapshot();
+    }
+
+    @Nullable
+    private IBinder findBinder(Object target) {
+        Class<?> targetClass = target.getClass();
+        if (debug) Log.d(TAG, "Looking up binding for " + targetClass.getName());
+        return findBinderForClass(targetClass);
     }
 
     @Nullable
     @CheckResult
-    @UiThread
-    private Constructor<? extends IBinder> findBindingConstructorForClass(Class<?> cls) {
-        Constructor<? extends IBinder> bindingCtor = BINDINGS.get(cls);
-        if (bindingCtor != null || BINDINGS.containsKey(cls)) {
+    private IBinder findBinderForClass(Class<?> cls) {
+        IBinder binder = BINDINGS.get(cls);
+        if (binder != null) {
             if (debug) Log.d(TAG, "HIT: Cached in binding map.");
-            return bindingCtor;
+            if (metrics != null) metrics.bindingCacheHits.increment();
+            return binder != NO_BINDING ? binder : null;
         }
+        if (metrics != null) metrics.bindingCacheMisses.increment();
         String clsName = cls.getName();
         if (clsName.startsWith("android.") || clsName.startsWith("java.")
                 || clsName.startsWith("androidx.")) {
             if (debug) Log.d(TAG, "MISS: Reached framework class. Abandoning search.");
             return null;
         }
+        // Only traced on a miss, the label is built once per class.
+        if (tracing != null) Tracing.begin(Tracing.findBindingLabel(cls));
+        try {
+            binder = loadBinderForClass(cls, clsName);
+        } finally {
+            if (tracing != null) Tracing.end();
+        }
+        IBinder existing = BINDINGS.putIfAbsent(cls, binder != null ? binder : NO_BINDING);
+        if (existing != null) {
+            binder = existing != NO_BINDING ? existing : null;
+        } else {
+            trimToSize(BINDINGS, bindingsOrder, cls);
+        }
+        return binder;
+    }
+
+    @Nullable
+    private IBinder loadBinderForClass(Class<?> cls, String clsName) {
+        boolean indexed = !indexedBinders.isEmpty();
+        if (indexed) {
+            IBinder.Factory bindingFactory = indexedBinders.get(cls);
+            if (bindingFactory != null) {
+                if (debug) Log.d(TAG, "HIT: Found binding in index.");
+                return bindingFactory.create();
+            }
+            // Usually a class without binding, but the index of its module may be missing.
+            if (debug) Log.d(TAG, "Not indexed. Trying binding class.");
+        }
         try {
             Class<?> bindingClass = cls.getClassLoader().loadClass(clsName + "_BundleBinding");
             //noinspection unchecked
-            bindingCtor = (Constructor<? extends IBinder>) bindingClass.getConstructor();
+            IBinder binder = (IBinder) newInstance(bindingClass.getConstructor());
             if (debug) Log.d(TAG, "HIT: Loaded binding class and constructor.");
+            if (indexed) {
+                // Once per class, the binder is cached.
+                Utils.warn(clsName + " is missing from the added indexes, its binding was loaded by"
+                        + " name. Add the BundleIndex of its module, or make the class public.");
+            }
+            return binder;
         } catch (ClassNotFoundException e) {
             if (debug) Log.d(TAG, "Not found. Trying superclass " + cls.getSuperclass().getName());
-            bindingCtor = findBindingConstructorForClass(cls.getSuperclass());
+            if (metrics != null) metrics.classLoadFailures.increment();
+            return findBinderForClass(cls.getSuperclass());
         } catch (NoSuchMethodException e) {
             throw new RuntimeException("Unable to find binding constructor for " + clsName, e);
         }
-        BINDINGS.put(cls, bindingCtor);
-        return bindingCtor;
     }
 
-    @SuppressWarnings("unchecked") // Single-interface proxy creation guarded by parameter safety.
+    /**
+     * Drops the cached binders, service implementations and parsed service methods of classes
+     * loaded by {@code classLoader} or one of its descendants, so an unloaded module or plugin can
+     * be garbage collected. Services created before keep working. Classes referenced by an added
+     * {@link BundleIndex} stay reachable as long as this instance.
+     */
+    public void evict(ClassLoader classLoader) {
+        Utils.checkNotNull(classLoader, "classLoader == null");
+        evictClasses(BINDINGS.keySet().iterator(), classLoader);
+        evictClasses(bindingsOrder.iterator(), classLoader);
+        evictClasses(CREATORS.keySet().iterator(), classLoader);
+        evictClasses(creatorsOrder.iterator(), classLoader);
+        evictMethods(bundleFactoryCache.keySet().iterator(), classLoader);
+        evictMethods(bundleFactoryOrder.iterator(), classLoader);
+        parameterHandlers.evict(classLoader);
+        if (metrics != null) {
+            metrics.evict(classLoader);
+        }
+        if (tracing != null) {
+            tracing.evict(classLoader);
+        }
+        if (profiler != null) {
+            profiler.evict(classLoader);
+        }
+        if (boundStates != null) {
+            synchronized (boundStates) {
+                for (Iterator<Object> it = boundStates.keySet().iterator(); it.hasNext(); ) {
+                    if (Utils.isLoadedBy(it.next().getClass(), classLoader)) {
+                        it.remove();
+                    }
+                }
+            }
+        }
+    }
+
+    private static void evictClasses(Iterator<Class<?>> classes, ClassLoader classLoader) {
+        while (classes.hasNext()) {
+            if (Utils.isLoadedBy(classes.next(), classLoader)) {
+                classes.remove();
+            }
+        }
+    }
+
+    private static void evictMethods(Iterator<Method> methods, ClassLoader classLoader) {
+        while (methods.hasNext()) {
+            if (Utils.isLoadedBy(methods.next().getDeclaringClass(), classLoader)) {
+                methods.remove();
+            }
+        }
+    }
+
+    /**
+     * Trims {@code cache} to {@link Builder#maxCacheSize(int)}, see
+     * {@link Utils#trimToSize(ConcurrentMap, Queue, Object, int)}. A method being parsed is only
+     * recorded once parsed, so the lock its callers wait on stays.
+     */
+    private <K> void trimToSize(ConcurrentMap<K, ?> cache, Queue<K> order, K inserted) {
+        Utils.trimToSize(cache, order, inserted, maxCacheSize);
+    }
+
+    /**
+     * Create an implementation of the API endpoints defined by the {@code service} interface. The
+     * implementation generated by autobundle-compiler is preferred, unless custom
+     * {@link Factory factories}, debug logging or any instrumentation such as stats are
+     * configured; otherwise a {@link Proxy} parses the method annotations at runtime.
+     */
     public <T> T create(final Class<T> service) {
         Utils.validateServiceInterface(service);
+        if (tracing != null) Tracing.begin(Tracing.createLabel(service));
+        try {
+            return createService(service);
+        } finally {
+            if (tracing != null) Tracing.end();
+        }
+    }
+
+    @SuppressWarnings("unchecked") // Single-interface proxy creation guarded by parameter safety.
+    private <T> T createService(Class<T> service) {
+        if (useGeneratedCreators) {
+            Object creator = findCreatorForService(service);
+            if (creator != null) {
+                return (T) creator;
+            }
+        }
+        Map<Method, Future<BundleFactory>> validations = emptyMap();
         if (validateEagerly) {
-            eagerlyValidateMethods(service);
+            if (validationExecutor != null) {
+                validations = validateMethodsInBackground(service);
+            } else {
+                eagerlyValidateMethods(service);
+            }
         }
         return (T) Proxy.newProxyInstance(service.getClassLoader(), new Class<?>[]{service},
-                new InvocationHandler() {
-                    private final Object[] emptyArgs = new Object[0];
-
-                    @Override
-                    public Object invoke(Object proxy, Method method, @Nullable Object[] args) throws Throwable {
-                        // If the method is a method from Object then defer to normal invocation.
-                        if (method.getDeclaringClass() == Object.class) {
-                            return method.invoke(this, args);
-                        }
-                        if (Utils.isDefaultMethod(method)) {
-                            throw new UnsupportedOperationException();
-                        }
-                        return BundleFactory.loadBundleFactory(method).invoke(args != null ? args : emptyArgs);
+                new ServiceInvocationHandler(this, service, validations));
+    }
+
+    /**
+     * Puts the arguments of the service {@code method} into {@code sink} the way the implementation
+     * returned by {@link #create} puts them into its Bundle, without listeners or instrumentation.
+     * With a {@link MapSink}, service methods can be tested and benchmarked on a JVM.
+     */
+    public void write(Method method, Object[] args, KeyValueSink sink) {
+        Utils.checkNotNull(sink, "sink == null");
+        loadBundleFactory(method).write(sink, args);
+    }
+
+    /**
+     * Returns the shared instance of the generated {@code _BundleCreator} of {@code service}.
+     */
+    @Nullable
+    private Object findCreatorForService(Class<?> service) {
+        Object creator = CREATORS.get(service);
+        if (creator != null) {
+            return creator != NO_CREATOR ? creator : null;
+        }
+        BundleIndex.ServiceFactory serviceFactory = indexedServices.get(service);
+        if (serviceFactory != null) {
+            creator = serviceFactory.create(listeners);
+            if (debug) Log.d(TAG, "HIT: Found implementation of " + service.getName() + " in index.");
+        } else {
+            try {
+                Class<?> creatorClass = service.getClassLoader().loadClass(service.getName() + "_BundleCreator");
+                creator = newInstance(creatorClass.getConstructor(BundleListeners.class), listeners);
+                if (debug) Log.d(TAG, "HIT: Loaded implementation of " + service.getName());
+            } catch (ClassNotFoundException e) {
+                if (debug) Log.d(TAG, "MISS: No implementation of " + service.getName() + ". Using proxy.");
+                creator = NO_CREATOR;
+            } catch (NoSuchMethodException e) {
+                throw new RuntimeException("Unable to find implementation constructor for " + service.getName(), e);
+            }
+        }
+        Object existing = CREATORS.putIfAbsent(service, creator);
+        if (existing != null) {
+            creator = existing;
+        } else {
+            trimToSize(CREATORS, creatorsOrder, service);
+        }
+        return creator != NO_CREATOR ? creator : null;
+    }
+
+    /**
+     * Returns the parsed {@code method}, parsing it on the first call. Each method is parsed once,
+     * different methods are parsed in parallel: a parsing thread only holds the lock it placed in
+     * the cache for its own method, other callers of that method wait on it.
+     */
+    BundleFactory loadBundleFactory(Method method) {
+        Object lookup = bundleFactoryCache.get(method);
+        if (lookup instanceof BundleFactory) {
+            // Happy path: method has already been parsed.
+            if (metrics != null) metrics.factoryCacheHits.increment();
+            return (BundleFactory) lookup;
+        }
+        if (lookup == null) {
+            Object lock = new Object();
+            synchronized (lock) {
+                lookup = bundleFactoryCache.putIfAbsent(method, lock);
+                if (lookup == null) {
+                    // On successful lock insertion, perform the work and update the cache.
+                    BundleFactory result;
+                    long start = metrics != null ? System.nanoTime() : 0;
+                    try {
+                        result = BundleFactory.parseAnnotations(this, method);
+                    } catch (Throwable e) {
+                        // Remove the lock on failure, unless the method was evicted and another
+                        // thread placed its own. Any other locked threads will retry.
+                        bundleFactoryCache.remove(method, lock);
+                        throw e;
+                    }
+                    if (metrics != null) {
+                        metrics.parseLatency.record(System.nanoTime() - start);
+                        metrics.factoryCacheMisses.increment();
                     }
-                });
+                    bundleFactoryCache.put(method, result);
+                    trimToSize(bundleFactoryCache, bundleFactoryOrder, method);
+                    return result;
+                }
+            }
+        }
+        // Either the initial lookup or the attempt to put our lock in the cache returned someone
+        // else's lock. This means another thread is parsing the method, wait on its lock.
+        synchronized (lookup) {
+            Object result = bundleFactoryCache.get(method);
+            if (result instanceof BundleFactory) {
+                return (BundleFactory) result;
+            }
+        }
+        // The other thread failed its parsing, or the method was evicted, and the entry is now
+        // missing or the lock of yet another thread. Try again, so this thread parses the method,
+        // waits on the new lock or gets the error.
+        return loadBundleFactory(method);
     }
 
     private void eagerlyValidateMethods(Class<?> service) {
         for (Method method : service.getDeclaredMethods()) {
             if (!Utils.isDefaultMethod(method)) {
-                BundleFactory.loadBundleFactory(method);
+                loadBundleFactory(method);
+            }
+        }
+    }
+
+    /**
+     * Submits each method to {@link #validationExecutor} so that they are parsed in parallel.
+     */
+    private Map<Method, Future<BundleFactory>> validateMethodsInBackground(Class<?> service) {
+        Map<Method, Future<BundleFactory>> validations = new HashMap<>();
+        for (final Method method : service.getDeclaredMethods()) {
+            if (Utils.isDefaultMethod(method)) {
+                continue;
+            }
+            FutureTask<BundleFactory> validation = new FutureTask<>(new Callable<BundleFactory>() {
+                @Override
+                public BundleFactory call() {
+                    try {
+                        return loadBundleFactory(method);
+                    } catch (RuntimeException e) {
+                        if (validationListener != null) {
+                            validationListener.onValidateFailed(method, e);
+                        }
+                        throw e;
+                    }
+                }
+            });
+            validations.put(method, validation);
+            try {
+                validationExecutor.execute(validation);
+            } catch (RejectedExecutionException e) {
+                validation.run();
             }
         }
+        return validations;
+    }
+
+    /**
+     * Warms up every target class of the installed {@link BundleIndex indexes}, see
+     * {@link #warmUp(Executor, Collection, Collection, OnWarmUpListener)}.
+     */
+    public void warmUp(Executor executor, @Nullable OnWarmUpListener listener) {
+        warmUp(executor, indexedBinders.keySet(), Collections.<Class<?>>emptyList(), listener);
+    }
+
+    /**
+     * Loads the bindings of {@code targets} and parses the methods of {@code services} on
+     * {@code executor}, so that the first {@link #bind} and {@link #create} calls, usually on the
+     * main thread, hit the caches. Call it from {@code Application.onCreate()}. Entries that fail
+     * to load are skipped and fail again when they are first used.
+     */
+    public void warmUp(Executor executor, Collection<? extends Class<?>> targets,
+                       Collection<? extends Class<?>> services, @Nullable final OnWarmUpListener listener) {
+        Utils.checkNotNull(executor, "executor == null");
+        final List<Class<?>> targetList = new ArrayList<Class<?>>(targets);
+        final List<Class<?>> serviceList = new ArrayList<Class<?>>(services);
+        executor.execute(new Runnable() {
+            @Override
+            public void run() {
+                long start = System.nanoTime();
+                int bindingCount = 0;
+                for (Class<?> target : targetList) {
+                    try {
+                        if (findBinderForClass(target) != null) {
+                            bindingCount++;
+                        }
+                    } catch (RuntimeException e) {
+                        if (debug) Log.w(TAG, "Unable to warm up binding for " + target.getName(), e);
+                    }
+                }
+                int methodCount = 0;
+                for (Class<?> service : serviceList) {
+                    try {
+                        Utils.validateServiceInterface(service);
+                    } catch (IllegalArgumentException e) {
+                        if (debug) Log.w(TAG, "Unable to warm up service " + service.getName(), e);
+                        continue;
+                    }
+                    if (useGeneratedCreators && findCreatorForService(service) != null) {
+                        continue;
+                    }
+                    for (Method method : service.getDeclaredMethods()) {
+                        if (Utils.isDefaultMethod(method)) {
+                            continue;
+                        }
+                        try {
+                            loadBundleFactory(method);
+                            methodCount++;
+                        } catch (RuntimeException e) {
+                            if (debug) Log.w(TAG, "Unable to warm up method " + method, e);
+                        }
+                    }
+                }
+                long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+                if (debug) Log.d(TAG, "Warmed up " + bindingCount + " bindings and "
+                        + methodCount + " methods in " + elapsedMillis + "ms");
+                if (listener != null) {
+                    listener.onWarmUp(elapsedMillis, bindingCount, methodCount);
+                }
+            }
+        });
+    }
+
+    /**
+     * Creates the instance of a generated class found by name, used once per target class or
+     * service when no {@link BundleIndex} is installed.
+     */
+    private static Object newInstance(Constructor<?> constructor, Object... args) {
+        //noinspection TryWithIdenticalCatches Resolves to API 19+ only type.
+        try {
+            return constructor.newInstance(args);
+        } catch (IllegalAccessException e) {
+            throw new RuntimeException("Unable to invoke " + constructor, e);
+        } catch (InstantiationException e) {
+            throw new RuntimeException("Unable to invoke " + constructor, e);
+        } catch (InvocationTargetException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new RuntimeException("Unable to create binding instance.", cause);
+        }
     }
 
     public static final class Builder {
         private boolean validateEagerly;
         private boolean debug;
-        private List<OnBundleListener> listeners;
+        private List<OnBundleListener> bundlingListeners;
+        private List<OnBundleListener> completedListeners;
+        private List<OnBundleBatchListener> batchListeners;
         private List<Factory> factories;
+        private List<BundleIndex> indexes;
+        private Executor validationExecutor;
+        private OnValidateListener validationListener;
+        private int maxCacheSize;
+        private boolean collectStats;
+        private boolean trace;
+        private Map<Integer, BundleSizeBudget> sizeBudgets;
+        private BundleSizeBudget defaultSizeBudget;
+        private List<OnBundleSizeListener> sizeListeners;
+        private int profileSampleInterval;
+        private Executor profileExecutor;
+        private boolean saveChangedFieldsOnly;
 
         private Builder() {
         }
@@ -185,15 +738,60 @@ public final class AutoBundle {
          */
         public Builder validateEagerly(boolean validateEagerly) {
             this.validateEagerly = validateEagerly;
+            this.validationExecutor = null;
+            this.validationListener = null;
+            return this;
+        }
+
+        /**
+         * Like {@link #validateEagerly(boolean)}, but {@link #create} validates the methods in
+         * parallel on {@code executor} and returns right away. A call of a method that is still
+         * being validated waits for that method only. A validation error is thrown by the calls of
+         * the method and reported to {@code listener}.
+         */
+        public Builder validateEagerly(Executor executor, @Nullable OnValidateListener listener) {
+            Utils.checkNotNull(executor, "executor == null");
+            this.validateEagerly = true;
+            this.validationExecutor = executor;
+            this.validationListener = listener;
             return this;
         }
 
         public Builder addOnBundleListener(OnBundleListener listener) {
+            return addOnBundleListener(listener, OnBundleListener.ALL);
+        }
+
+        /**
+         * Add a listener that is only called for {@code callbacks}, a combination of
+         * {@link OnBundleListener#ON_BUNDLING} and {@link OnBundleListener#ON_COMPLETED}. A listener
+         * that only needs {@code onCompleted} keeps service methods from passing every parameter.
+         */
+        public Builder addOnBundleListener(OnBundleListener listener, int callbacks) {
+            Utils.checkNotNull(listener, "listener=null");
+            if ((callbacks & OnBundleListener.ON_BUNDLING) != 0) {
+                if (bundlingListeners == null) {
+                    bundlingListeners = new ArrayList<>();
+                }
+                bundlingListeners.add(listener);
+            }
+            if ((callbacks & OnBundleListener.ON_COMPLETED) != 0) {
+                if (completedListeners == null) {
+                    completedListeners = new ArrayList<>();
+                }
+                completedListeners.add(listener);
+            }
+            return this;
+        }
+
+        /**
+         * Add a listener called once per Bundle with all keys and values of the service method.
+         */
+        public Builder addOnBundleBatchListener(OnBundleBatchListener listener) {
             Utils.checkNotNull(listener, "listener=null");
-            if (listeners == null) {
-                listeners = new ArrayList<>();
+            if (batchListeners == null) {
+                batchListeners = new ArrayList<>();
             }
-            listeners.add(listener);
+            batchListeners.add(listener);
             return this;
         }
 
@@ -209,6 +807,119 @@ public final class AutoBundle {
             return this;
         }
 
+        /**
+         * Add an index generated by autobundle-compiler. Once any index is added, binders are looked
+         * up in the indexes first. Bindings of classes missing from them are still loaded by name,
+         * with a warning, so the index of every module with bound fields should be added.
+         */
+        public Builder addBundleIndex(BundleIndex index) {
+            Utils.checkNotNull(index, "index == null");
+            if (indexes == null) {
+                indexes = new ArrayList<>();
+            }
+            indexes.add(index);
+            return this;
+        }
+
+        /**
+         * Bound each cache of binders, service implementations, parsed service methods and
+         * parameter handlers to {@code maxCacheSize} entries, for apps that load many classes through short lived class
+         * loaders. The oldest entries are trimmed first. Unbounded by default, see also
+         * {@link AutoBundle#evict(ClassLoader)}.
+         */
+        public Builder maxCacheSize(int maxCacheSize) {
+            if (maxCacheSize <= 0) {
+                throw new IllegalArgumentException("maxCacheSize <= 0: " + maxCacheSize);
+            }
+            this.maxCacheSize = maxCacheSize;
+            return this;
+        }
+
+        /**
+         * Collect cache hit and miss counts and bind, invoke and parse latencies, see
+         * {@link AutoBundle#stats()}. Counters are striped and histograms have fixed buckets, so
+         * collecting is cheap enough to stay enabled in release builds. Services are then
+         * implemented by a {@link Proxy} to time each method.
+         */
+        public Builder collectStats(boolean collectStats) {
+            this.collectStats = collectStats;
+            return this;
+        }
+
+        /**
+         * Emit {@link android.os.Trace} sections for bind, binder lookup, create, parse and
+         * invoke, labeled with the target class or service method, so they show up in systrace
+         * and Perfetto. Ignored below API 18. Services are then implemented by a {@link Proxy}
+         * to trace each method.
+         */
+        public Builder trace(boolean trace) {
+            this.trace = trace;
+            return this;
+        }
+
+        /**
+         * Measure the Bundles of service methods annotated with {@code @BundleFlag(bundleFlag)}
+         * against {@code budget}, replacing the previous budget of the flag.
+         */
+        public Builder bundleSizeBudget(int bundleFlag, BundleSizeBudget budget) {
+            Utils.checkNotNull(budget, "budget == null");
+            if (sizeBudgets == null) {
+                sizeBudgets = new HashMap<>();
+            }
+            sizeBudgets.put(bundleFlag, budget);
+            return this;
+        }
+
+        /**
+         * Measure the Bundles of service methods without a budget for their flag, including
+         * methods without {@code @BundleFlag}, against {@code budget}.
+         */
+        public Builder defaultBundleSizeBudget(BundleSizeBudget budget) {
+            this.defaultSizeBudget = Utils.checkNotNull(budget, "budget == null");
+            return this;
+        }
+
+        /**
+         * Add a listener for the parceled size of the Bundles of service methods, total and per
+         * key. Without a budget, every Bundle is measured on the calling thread.
+         */
+        public Builder addOnBundleSizeListener(OnBundleSizeListener listener) {
+            Utils.checkNotNull(listener, "listener=null");
+            if (sizeListeners == null) {
+                sizeListeners = new ArrayList<>();
+            }
+            sizeListeners.add(listener);
+            return this;
+        }
+
+        /**
+         * Profile the serialization cost of one of every {@code sampleInterval} Bundles created by
+         * service methods or bound to targets. Each value of a sampled Bundle is written to a
+         * Parcel and read back on {@code executor}, see {@link AutoBundle#serializationProfile()}.
+         * Meant for debug builds and canaries, Serializable values are usually the worst.
+         */
+        public Builder profileSerialization(int sampleInterval, Executor executor) {
+            Utils.checkNotNull(executor, "executor == null");
+            if (sampleInterval <= 0) {
+                throw new IllegalArgumentException("sampleInterval <= 0: " + sampleInterval);
+            }
+            this.profileSampleInterval = sampleInterval;
+            this.profileExecutor = executor;
+            return this;
+        }
+
+        /**
+         * Let {@link AutoBundle#save(Object, Bundle)} skip primitive and String fields that did
+         * not change since the target was bound, so saved states only hold what the user changed.
+         * A bind only keeps a reference to its Bundle or Intent until the target is garbage
+         * collected, the fields are compared with it when saving. Such states must be bound with
+         * {@link AutoBundle#restore(Object, Bundle)}.
+         */
+        public Builder saveChangedFieldsOnly(boolean saveChangedFieldsOnly) {
+            this.saveChangedFieldsOnly = saveChangedFieldsOnly;
+            return this;
+        }
+
         /**
          * Installs the default AutoBundle returned by {@link AutoBundle#getDefault()} using this builders' values. Must be
          * done only once before the first usage of the default AutoBundle.
@@ -231,11 +942,12 @@ public final class AutoBundle {
          * Builds an AutoBundle based on the current configuration.
          */
         public AutoBundle build() {
-            List<OnBundleListener> listeners = this.listeners;
-            if (listeners == null) {
-                listeners = emptyList();
-            } else {
-                listeners = unmodifiableList(new ArrayList<>(listeners));
+            BundleListeners listeners = null;
+            if (bundlingListeners != null || completedListeners != null || batchListeners != null) {
+                listeners = new BundleListeners(
+                        bundlingListeners != null ? bundlingListeners : Collections.<OnBundleListener>emptyList(),
+                        completedListeners != null ? completedListeners : Collections.<OnBundleListener>emptyList(),
+                        batchListeners != null ? batchListeners : Collections.<OnBundleBatchListener>emptyList());
             }
 
             // Make a defensive copy of the factories.
@@ -245,7 +957,36 @@ public final class AutoBundle {
                 factories.addAll(this.factories);
             }
             factories.add(BestGuessHandlerFactory.INSTANCE);
-            return new AutoBundle(validateEagerly, debug, unmodifiableList(factories), listeners);
+
+            // Aggregate the indexes of all modules into a single lookup map.
+            Map<Class<?>, IBinder.Factory> indexedBinders = emptyMap();
+            Map<Class<?>, BundleIndex.ServiceFactory> indexedServices = emptyMap();
+            if (indexes != null) {
+                indexedBinders = new HashMap<>();
+                indexedServices = new HashMap<>();
+                for (BundleIndex index : indexes) {
+                    index.loadInto(indexedBinders);
+                    index.loadServicesInto(indexedServices);
+                }
+                indexedBinders = unmodifiableMap(indexedBinders);
+                indexedServices = unmodifiableMap(indexedServices);
+            }
+            BundleSizeMonitor sizeMonitor = null;
+            if (sizeBudgets != null || defaultSizeBudget != null || sizeListeners != null) {
+                sizeMonitor = new BundleSizeMonitor(
+                        sizeBudgets != null ? new HashMap<>(sizeBudgets) : Collections.<Integer, BundleSizeBudget>emptyMap(),
+                        defaultSizeBudget,
+                        sizeListeners != null ? sizeListeners : Collections.<OnBundleSizeListener>emptyList());
+            }
+            SerializationProfiler profiler = profileExecutor != null
+                    ? new SerializationProfiler(profileSampleInterval, profileExecutor) : null;
+            // Instrumentation hooks into the parsed service methods.
+            boolean instrumented = collectStats || trace || sizeMonitor != null || profiler != null;
+            boolean useGeneratedCreators = this.factories == null && !debug && !instrumented;
+            return new AutoBundle(validateEagerly, debug, unmodifiableList(factories), listeners,
+                    indexedBinders, indexedServices, useGeneratedCreators, validationExecutor,
+                    validationListener, maxCacheSize, collectStats ? new Metrics() : null,
+                    Tracing.create(trace), sizeMonitor, profiler, saveChangedFieldsOnly);
         }
     }
 }
@@ -0,0 +1,157 @@
+package autobundle;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+
+/**
+ * A snapshot of the statistics of an {@link AutoBundle}, see
+ * {@link AutoBundle.Builder#collectStats(boolean)} and {@link AutoBundle#stats()}. Counters are
+ * totals since the instance was built.
+ */
+public final class AutoBundleStats {
+    private final long bindingCacheHits;
+    private final long bindingCacheMisses;
+    private final long classLoadFailures;
+    private final long factoryCacheHits;
+    private final long factoryCacheMisses;
+    private final Latency parseLatency;
+    private final Map<Class<?>, Latency> bindLatencies;
+    private final Map<Method, Latency> invokeLatencies;
+
+    AutoBundleStats(long bindingCacheHits, long bindingCacheMisses, long classLoadFailures,
+                    long factoryCacheHits, long factoryCacheMisses, Latency parseLatency,
+                    Map<Class<?>, Latency> bindLatencies, Map<Method, Latency> invokeLatencies) {
+        this.bindingCacheHits = bindingCacheHits;
+        this.bindingCacheMisses = bindingCacheMisses;
+        this.classLoadFailures = classLoadFailures;
+        this.factoryCacheHits = factoryCacheHits;
+        this.factoryCacheMisses = factoryCacheMisses;
+        this.parseLatency = parseLatency;
+        this.bindLatencies = bindLatencies;
+        this.invokeLatencies = invokeLatencies;
+    }
+
+    /**
+     * Binder lookups of a class, including superclasses, served from the cache.
+     */
+    public long getBindingCacheHits() {
+        return bindingCacheHits;
+    }
+
+    /**
+     * Binder lookups of a class, including superclasses, that had to find the binder.
+     */
+    public long getBindingCacheMisses() {
+        return bindingCacheMisses;
+    }
+
+    /**
+     * Classes of the superclass walk that have no {@code _BundleBinding} class to load.
+     */
+    public long getClassLoadFailures() {
+        return classLoadFailures;
+    }
+
+    /**
+     * Lookups of a parsed service method served from the cache.
+     */
+    public long getFactoryCacheHits() {
+        return factoryCacheHits;
+    }
+
+    /**
+     * Lookups of a service method that parsed it.
+     */
+    public long getFactoryCacheMisses() {
+        return factoryCacheMisses;
+    }
+
+    /**
+     * Time spent parsing each service method.
+     */
+    public Latency getParseLatency() {
+        return parseLatency;
+    }
+
+    /**
+     * Time of {@code bind} per target class.
+     */
+    public Map<Class<?>, Latency> getBindLatencies() {
+        return bindLatencies;
+    }
+
+    /**
+     * Time of creating the Bundle per service method, without parsing.
+     */
+    public Map<Method, Latency> getInvokeLatencies() {
+        return invokeLatencies;
+    }
+
+    @Override
+    public String toString() {
+        return "AutoBundleStats{bindingCacheHits=" + bindingCacheHits
+                + ", bindingCacheMisses=" + bindingCacheMisses
+                + ", classLoadFailures=" + classLoadFailures
+                + ", factoryCacheHits=" + factoryCacheHits
+                + ", factoryCacheMisses=" + factoryCacheMisses
+                + ", parseLatency=" + parseLatency
+                + ", bindLatencies=" + bindLatencies
+                + ", invokeLatencies=" + invokeLatencies
+                + '}';
+    }
+
+    /**
+     * Durations counted in power-of-two buckets of nanoseconds, so percentiles are upper bounds
+     * within a factor of two.
+     */
+    public static final class Latency {
+        private final long count;
+        private final long totalNanos;
+        private final long[] bucketCounts;
+
+        Latency(long count, long totalNanos, long[] bucketCounts) {
+            this.count = count;
+            this.totalNanos = totalNanos;
+            this.bucketCounts = bucketCounts;
+        }
+
+        public long getCount() {
+            return count;
+        }
+
+        public long getTotalNanos() {
+            return totalNanos;
+        }
+
+        public long getMeanNanos() {
+            return count != 0 ? totalNanos / count : 0;
+        }
+
+        /**
+         * Returns the upper bound of the bucket holding the {@code percentile} (0-100) duration.
+         */
+        public long getPercentileNanos(double percentile) {
+            if (count == 0) {
+                return 0;
+            }
+            long rank = (long) Math.ceil(count * Math.min(Math.max(percentile, 0), 100) / 100);
+            long seen = 0;
+            for (int i = 0; i < bucketCounts.length; i++) {
+                seen += bucketCounts[i];
+                if (seen >= rank && seen != 0) {
+                    return i == 0 ? 0 : 1L << i;
+                }
+            }
+            return 1L << (bucketCounts.length - 1);
+        }
+
+        @Override
+        public String toString() {
+            return "Latency{count=" + count
+                    + ", meanNanos=" + getMeanNanos()
+                    + ", p50Nanos=" + getPercentileNanos(50)
+                    + ", p99Nanos=" + getPercentileNanos(99)
+                    + '}';
+        }
+    }
+}
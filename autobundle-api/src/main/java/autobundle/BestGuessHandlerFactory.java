@@ -1,6 +1,5 @@
 package autobundle;
 
-import android.os.Bundle;
 import android.os.Parcelable;
 import android.support.annotation.Nullable;
 import android.util.SparseArray;
@@ -17,6 +16,71 @@ import java.util.ArrayList;
 final class BestGuessHandlerFactory extends ParameterHandler.Factory {
     static final BestGuessHandlerFactory INSTANCE = new BestGuessHandlerFactory();
 
+    // Handlers are stateless, one instance serves every parameter of that type.
+    private static final ParameterHandler<Parcelable[]> PARCELABLE_ARRAY = new ParameterHandler<Parcelable[]>() {
+        @Override
+        public void apply(KeyValueSink sink, String key, @Nullable Parcelable[] value, boolean required) {
+            Utils.checkRequiredValue(key, value, required);
+            sink.putParcelableArray(key, value);
+        }
+    };
+
+    private static final ParameterHandler<CharSequence[]> CHAR_SEQUENCE_ARRAY = new ParameterHandler<CharSequence[]>() {
+        @Override
+        public void apply(KeyValueSink sink, String key, @Nullable CharSequence[] value, boolean required) {
+            Utils.checkRequiredValue(key, value, required);
+            sink.putCharSequenceArray(key, value);
+        }
+    };
+
+    private static final ParameterHandler<CharSequence> CHAR_SEQUENCE = new ParameterHandler<CharSequence>() {
+        @Override
+        public void apply(KeyValueSink sink, String key, @Nullable CharSequence value, boolean required) {
+            Utils.checkRequiredValue(key, value, required);
+            sink.putCharSequence(key, value);
+        }
+    };
+
+    private static final ParameterHandler<Parcelable> PARCELABLE = new ParameterHandler<Parcelable>() {
+        @Override
+        public void apply(KeyValueSink sink, String key, @Nullable Parcelable value, boolean required) {
+            Utils.checkRequiredValue(key, value, required);
+            sink.putParcelable(key, value);
+        }
+    };
+
+    private static final ParameterHandler<ArrayList<? extends Parcelable>> PARCELABLE_ARRAY_LIST = new ParameterHandler<ArrayList<? extends Parcelable>>() {
+        @Override
+        public void apply(KeyValueSink sink, String key, @Nullable ArrayList<? extends Parcelable> value, boolean required) {
+            Utils.checkRequiredValue(key, value, required);
+            sink.putParcelableArrayList(key, value);
+        }
+    };
+
+    private static final ParameterHandler<ArrayList<CharSequence>> CHAR_SEQUENCE_ARRAY_LIST = new ParameterHandler<ArrayList<CharSequence>>() {
+        @Override
+        public void apply(KeyValueSink sink, String key, @Nullable ArrayList<CharSequence> value, boolean required) {
+            Utils.checkRequiredValue(key, value, required);
+            sink.putCharSequenceArrayList(key, value);
+        }
+    };
+
+    private static final ParameterHandler<SparseArray<? extends Parcelable>> SPARSE_PARCELABLE_ARRAY = new ParameterHandler<SparseArray<? extends Parcelable>>() {
+        @Override
+        public void apply(KeyValueSink sink, String key, @Nullable SparseArray<? extends Parcelable> value, boolean required) {
+            Utils.checkRequiredValue(key, value, required);
+            sink.putSparseParcelableArray(key, value);
+        }
+    };
+
+    private static final ParameterHandler<Serializable> SERIALIZABLE = new ParameterHandler<Serializable>() {
+        @Override
+        public void apply(KeyValueSink sink, String key, @Nullable Serializable value, boolean required) {
+            Utils.checkRequiredValue(key, value, required);
+            sink.putSerializable(key, value);
+        }
+    };
+
     @Nullable
     @Override
     public ParameterHandler<?> get(Type type, Annotation[] parameterAnnotations, Annotation[] methodAnnotations) {
@@ -26,48 +90,24 @@ final class BestGuessHandlerFactory extends ParameterHandler.Factory {
                 Class<?> elementClass = clazz.getComponentType();
                 assert elementClass != null;
                 if (Parcelable.class.isAssignableFrom(elementClass)) {
-                    return new ParameterHandler<Parcelable[]>() {
-                        @Override
-                        public void apply(Bundle bundle, String key, @Nullable Parcelable[] value, boolean required) {
-                            Utils.checkRequiredValue(key, value, required);
-                            bundle.putParcelableArray(key, value);
-                        }
-                    };
+                    return PARCELABLE_ARRAY;
                 } else if (CharSequence.class.isAssignableFrom(elementClass)) {
-                    return new ParameterHandler<CharSequence[]>() {
-                        @Override
-                        public void apply(Bundle bundle, String key, @Nullable CharSequence[] value, boolean required) {
-                            Utils.checkRequiredValue(key, value, required);
-                            bundle.putCharSequenceArray(key, value);
-                        }
-                    };
+                    return CHAR_SEQUENCE_ARRAY;
                 } else {
                     Class<?> outElementClass = getOutComponentType(clazz);
                     //任意类型的数组都是Serializable 的子类,所以需要检测元素是否可以序列化
                     if (Serializable.class.isAssignableFrom(outElementClass)
                             //基础类型
                             || outElementClass.isPrimitive()) {
-                        return getSerializable();
+                        return SERIALIZABLE;
                     }
                 }
             } else if (CharSequence.class.isAssignableFrom(clazz)) {
-                return new ParameterHandler<CharSequence>() {
-                    @Override
-                    public void apply(Bundle bundle, String key, @Nullable CharSequence value, boolean required) {
-                        Utils.checkRequiredValue(key, value, required);
-                        bundle.putCharSequence(key, value);
-                    }
-                };
+                return CHAR_SEQUENCE;
             } else if (Parcelable.class.isAssignableFrom(clazz)) {
-                return new ParameterHandler<Parcelable>() {
-                    @Override
-                    public void apply(Bundle bundle, String key, @Nullable Parcelable value, boolean required) {
-                        Utils.checkRequiredValue(key, value, required);
-                        bundle.putParcelable(key, value);
-                    }
-                };
+                return PARCELABLE;
             } else if (Serializable.class.isAssignableFrom(clazz)) {
-                return getSerializable();
+                return SERIALIZABLE;
             }
 
         } else if (type instanceof ParameterizedType) {
@@ -76,31 +116,13 @@ final class BestGuessHandlerFactory extends ParameterHandler.Factory {
             Class<?> elementClass = getRawType(elementType);
             if (rawType == ArrayList.class) {
                 if (Parcelable.class.isAssignableFrom(elementClass)) {
-                    return new ParameterHandler<ArrayList<? extends Parcelable>>() {
-                        @Override
-                        public void apply(Bundle bundle, String key, @Nullable ArrayList<? extends Parcelable> value, boolean required) {
-                            Utils.checkRequiredValue(key, value, required);
-                            bundle.putParcelableArrayList(key, value);
-                        }
-                    };
+                    return PARCELABLE_ARRAY_LIST;
                 } else if (CharSequence.class.isAssignableFrom(elementClass)) {
-                    return new ParameterHandler<ArrayList<CharSequence>>() {
-                        @Override
-                        public void apply(Bundle bundle, String key, @Nullable ArrayList<CharSequence> value, boolean required) {
-                            Utils.checkRequiredValue(key, value, required);
-                            bundle.putCharSequenceArrayList(key, value);
-                        }
-                    };
+                    return CHAR_SEQUENCE_ARRAY_LIST;
                 }
             } else if (rawType == SparseArray.class) {
                 if (Parcelable.class.isAssignableFrom(elementClass)) {
-                    return new ParameterHandler<SparseArray<? extends Parcelable>>() {
-                        @Override
-                        public void apply(Bundle bundle, String key, @Nullable SparseArray<? extends Parcelable> value, boolean required) {
-                            Utils.checkRequiredValue(key, value, required);
-                            bundle.putSparseParcelableArray(key, value);
-                        }
-                    };
+                    return SPARSE_PARCELABLE_ARRAY;
                 }
             }
         }
@@ -109,24 +131,14 @@ final class BestGuessHandlerFactory extends ParameterHandler.Factory {
         if (rawType.isArray()) {
             Class<?> outElementClass = getOutComponentType(rawType);
             if (Serializable.class.isAssignableFrom(outElementClass)) {
-                return getSerializable();
+                return SERIALIZABLE;
             }
         } else if (Serializable.class.isAssignableFrom(rawType)) {
-            return getSerializable();
+            return SERIALIZABLE;
         }
         return null;
     }
 
-    private static ParameterHandler<Serializable> getSerializable() {
-        return new ParameterHandler<Serializable>() {
-            @Override
-            public void apply(Bundle bundle, String key, @Nullable Serializable value, boolean required) {
-                Utils.checkRequiredValue(key, value, required);
-                bundle.putSerializable(key, value);
-            }
-        };
-    }
-
     /**
      * 获取最外层数组类型 如 String[][] 获取String
      */
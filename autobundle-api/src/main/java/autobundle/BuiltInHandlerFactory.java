@@ -1,6 +1,5 @@
 package autobundle;
 
-import android.os.Bundle;
 import android.support.annotation.Nullable;
 
 import java.lang.annotation.Annotation;
@@ -15,151 +14,238 @@ import java.util.ArrayList;
 final class BuiltInHandlerFactory extends ParameterHandler.Factory {
     static final BuiltInHandlerFactory INSTANCE = new BuiltInHandlerFactory();
 
+    // Handlers are stateless, one instance serves every parameter of that type.
+    static final ParameterHandler.OfInt INT = new ParameterHandler.OfInt() {
+        @Override
+        public void applyInt(KeyValueSink sink, String key, int value) {
+            sink.putInt(key, value);
+        }
+
+        @Override
+        public void apply(KeyValueSink sink, String key, Integer value, boolean required) {
+            applyInt(sink, key, value);
+        }
+    };
+    static final ParameterHandler.OfLong LONG = new ParameterHandler.OfLong() {
+        @Override
+        public void applyLong(KeyValueSink sink, String key, long value) {
+            sink.putLong(key, value);
+        }
+
+        @Override
+        public void apply(KeyValueSink sink, String key, Long value, boolean required) {
+            applyLong(sink, key, value);
+        }
+    };
+    static final ParameterHandler.OfDouble DOUBLE = new ParameterHandler.OfDouble() {
+        @Override
+        public void applyDouble(KeyValueSink sink, String key, double value) {
+            sink.putDouble(key, value);
+        }
+
+        @Override
+        public void apply(KeyValueSink sink, String key, Double value, boolean required) {
+            applyDouble(sink, key, value);
+        }
+    };
+    static final ParameterHandler.OfFloat FLOAT = new ParameterHandler.OfFloat() {
+        @Override
+        public void applyFloat(KeyValueSink sink, String key, float value) {
+            sink.putFloat(key, value);
+        }
+
+        @Override
+        public void apply(KeyValueSink sink, String key, Float value, boolean required) {
+            applyFloat(sink, key, value);
+        }
+    };
+    static final ParameterHandler.OfByte BYTE = new ParameterHandler.OfByte() {
+        @Override
+        public void applyByte(KeyValueSink sink, String key, byte value) {
+            sink.putByte(key, value);
+        }
+
+        @Override
+        public void apply(KeyValueSink sink, String key, Byte value, boolean required) {
+            applyByte(sink, key, value);
+        }
+    };
+    static final ParameterHandler.OfShort SHORT = new ParameterHandler.OfShort() {
+        @Override
+        public void applyShort(KeyValueSink sink, String key, short value) {
+            sink.putShort(key, value);
+        }
+
+        @Override
+        public void apply(KeyValueSink sink, String key, Short value, boolean required) {
+            applyShort(sink, key, value);
+        }
+    };
+    static final ParameterHandler.OfChar CHAR = new ParameterHandler.OfChar() {
+        @Override
+        public void applyChar(KeyValueSink sink, String key, char value) {
+            sink.putChar(key, value);
+        }
+
+        @Override
+        public void apply(KeyValueSink sink, String key, Character value, boolean required) {
+            applyChar(sink, key, value);
+        }
+    };
+    static final ParameterHandler.OfBoolean BOOLEAN = new ParameterHandler.OfBoolean() {
+        @Override
+        public void applyBoolean(KeyValueSink sink, String key, boolean value) {
+            sink.putBoolean(key, value);
+        }
+
+        @Override
+        public void apply(KeyValueSink sink, String key, Boolean value, boolean required) {
+            applyBoolean(sink, key, value);
+        }
+    };
+
+    private static final ParameterHandler<boolean[]> BOOLEAN_ARRAY = new ParameterHandler<boolean[]>() {
+        @Override
+        public void apply(KeyValueSink sink, String key, @Nullable boolean[] value, boolean required) {
+            Utils.checkRequiredValue(key, value, required);
+            sink.putBooleanArray(key, value);
+        }
+    };
+
+    private static final ParameterHandler<byte[]> BYTE_ARRAY = new ParameterHandler<byte[]>() {
+        @Override
+        public void apply(KeyValueSink sink, String key, @Nullable byte[] value, boolean required) {
+            Utils.checkRequiredValue(key, value, required);
+            sink.putByteArray(key, value);
+        }
+    };
+
+    private static final ParameterHandler<char[]> CHAR_ARRAY = new ParameterHandler<char[]>() {
+        @Override
+        public void apply(KeyValueSink sink, String key, @Nullable char[] value, boolean required) {
+            Utils.checkRequiredValue(key, value, required);
+            sink.putCharArray(key, value);
+        }
+    };
+
+    private static final ParameterHandler<double[]> DOUBLE_ARRAY = new ParameterHandler<double[]>() {
+        @Override
+        public void apply(KeyValueSink sink, String key, @Nullable double[] value, boolean required) {
+            Utils.checkRequiredValue(key, value, required);
+            sink.putDoubleArray(key, value);
+        }
+    };
+
+    private static final ParameterHandler<float[]> FLOAT_ARRAY = new ParameterHandler<float[]>() {
+        @Override
+        public void apply(KeyValueSink sink, String key, @Nullable float[] value, boolean required) {
+            Utils.checkRequiredValue(key, value, required);
+            sink.putFloatArray(key, value);
+        }
+    };
+
+    private static final ParameterHandler<int[]> INT_ARRAY = new ParameterHandler<int[]>() {
+        @Override
+        public void apply(KeyValueSink sink, String key, @Nullable int[] value, boolean required) {
+            Utils.checkRequiredValue(key, value, required);
+            sink.putIntArray(key, value);
+        }
+    };
+
+    private static final ParameterHandler<long[]> LONG_ARRAY = new ParameterHandler<long[]>() {
+        @Override
+        public void apply(KeyValueSink sink, String key, @Nullable long[] value, boolean required) {
+            Utils.checkRequiredValue(key, value, required);
+            sink.putLongArray(key, value);
+        }
+    };
+
+    private static final ParameterHandler<short[]> SHORT_ARRAY = new ParameterHandler<short[]>() {
+        @Override
+        public void apply(KeyValueSink sink, String key, @Nullable short[] value, boolean required) {
+            Utils.checkRequiredValue(key, value, required);
+            sink.putShortArray(key, value);
+        }
+    };
+
+    private static final ParameterHandler<String> STRING = new ParameterHandler<String>() {
+        @Override
+        public void apply(KeyValueSink sink, String key, @Nullable String value, boolean required) {
+            Utils.checkRequiredValue(key, value, required);
+            sink.putString(key, value);
+        }
+    };
+
+    private static final ParameterHandler<String[]> STRING_ARRAY = new ParameterHandler<String[]>() {
+        @Override
+        public void apply(KeyValueSink sink, String key, @Nullable String[] value, boolean required) {
+            Utils.checkRequiredValue(key, value, required);
+            sink.putStringArray(key, value);
+        }
+    };
+
+    private static final ParameterHandler<ArrayList<String>> STRING_ARRAY_LIST = new ParameterHandler<ArrayList<String>>() {
+        @Override
+        public void apply(KeyValueSink sink, String key, @Nullable ArrayList<String> value, boolean required) {
+            Utils.checkRequiredValue(key, value, required);
+            sink.putStringArrayList(key, value);
+        }
+    };
+
+    private static final ParameterHandler<ArrayList<Integer>> INTEGER_ARRAY_LIST = new ParameterHandler<ArrayList<Integer>>() {
+        @Override
+        public void apply(KeyValueSink sink, String key, @Nullable ArrayList<Integer> value, boolean required) {
+            Utils.checkRequiredValue(key, value, required);
+            sink.putIntegerArrayList(key, value);
+        }
+    };
+
     @Nullable
     @Override
     public ParameterHandler<?> get(Type type, Annotation[] parameterAnnotations, Annotation[] methodAnnotations) {
         //基础数据类型
         if (type == int.class) {
-            return new ParameterHandler<Integer>() {
-                @Override
-                public void apply(Bundle bundle, String key, Integer value, boolean required) {
-                    bundle.putInt(key, value);
-                }
-            };
+            return INT;
         } else if (type == long.class) {
-            return new ParameterHandler<Long>() {
-                @Override
-                public void apply(Bundle bundle, String key, Long value, boolean required) {
-                    bundle.putLong(key, value);
-                }
-            };
+            return LONG;
         } else if (type == double.class) {
-            return new ParameterHandler<Double>() {
-                @Override
-                public void apply(Bundle bundle, String key, Double value, boolean required) {
-                    bundle.putDouble(key, value);
-                }
-            };
+            return DOUBLE;
         } else if (type == float.class) {
-            return new ParameterHandler<Float>() {
-                @Override
-                public void apply(Bundle bundle, String key, Float value, boolean required) {
-                    bundle.putFloat(key, value);
-                }
-            };
+            return FLOAT;
         } else if (type == byte.class) {
-            return new ParameterHandler<Byte>() {
-                @Override
-                public void apply(Bundle bundle, String key, Byte value, boolean required) {
-                    bundle.putByte(key, value);
-                }
-            };
-        } else if (type == Short.class) {
-            return new ParameterHandler<Short>() {
-                @Override
-                public void apply(Bundle bundle, String key, Short value, boolean required) {
-                    bundle.putShort(key, value);
-                }
-            };
+            return BYTE;
+        } else if (type == short.class) {
+            // Boxed Short is Serializable like the other wrappers.
+            return SHORT;
         } else if (type == char.class) {
-            return new ParameterHandler<Character>() {
-                @Override
-                public void apply(Bundle bundle, String key, Character value, boolean required) {
-                    bundle.putChar(key, value);
-                }
-            };
+            return CHAR;
         } else if (type == boolean.class) {
-            return new ParameterHandler<Boolean>() {
-                @Override
-                public void apply(Bundle bundle, String key, Boolean value, boolean required) {
-                    bundle.putBoolean(key, value);
-                }
-            };
+            return BOOLEAN;
         }
 
         //基础数据类型数组
         if (type == boolean[].class) {
-            return new ParameterHandler<boolean[]>() {
-                @Override
-                public void apply(Bundle bundle, String key, @Nullable boolean[] value, boolean required) {
-                    Utils.checkRequiredValue(key, value, required);
-                    bundle.putBooleanArray(key, value);
-                }
-            };
+            return BOOLEAN_ARRAY;
         } else if (type == byte[].class) {
-            return new ParameterHandler<byte[]>() {
-                @Override
-                public void apply(Bundle bundle, String key, @Nullable byte[] value, boolean required) {
-                    Utils.checkRequiredValue(key, value, required);
-                    bundle.putByteArray(key, value);
-                }
-            };
+            return BYTE_ARRAY;
         } else if (type == char[].class) {
-            return new ParameterHandler<char[]>() {
-                @Override
-                public void apply(Bundle bundle, String key, @Nullable char[] value, boolean required) {
-                    Utils.checkRequiredValue(key, value, required);
-                    bundle.putCharArray(key, value);
-                }
-            };
+            return CHAR_ARRAY;
         } else if (type == double[].class) {
-            return new ParameterHandler<double[]>() {
-                @Override
-                public void apply(Bundle bundle, String key, @Nullable double[] value, boolean required) {
-                    Utils.checkRequiredValue(key, value, required);
-                    bundle.putDoubleArray(key, value);
-                }
-            };
+            return DOUBLE_ARRAY;
         } else if (type == float[].class) {
-            return new ParameterHandler<float[]>() {
-                @Override
-                public void apply(Bundle bundle, String key, @Nullable float[] value, boolean required) {
-                    Utils.checkRequiredValue(key, value, required);
-                    bundle.putFloatArray(key, value);
-                }
-            };
+            return FLOAT_ARRAY;
         } else if (type == int[].class) {
-            return new ParameterHandler<int[]>() {
-                @Override
-                public void apply(Bundle bundle, String key, @Nullable int[] value, boolean required) {
-                    Utils.checkRequiredValue(key, value, required);
-                    bundle.putIntArray(key, value);
-                }
-            };
+            return INT_ARRAY;
         } else if (type == long[].class) {
-            return new ParameterHandler<long[]>() {
-                @Override
-                public void apply(Bundle bundle, String key, @Nullable long[] value, boolean required) {
-                    Utils.checkRequiredValue(key, value, required);
-                    bundle.putLongArray(key, value);
-                }
-            };
+            return LONG_ARRAY;
         } else if (type == short[].class) {
-            return new ParameterHandler<short[]>() {
-                @Override
-                public void apply(Bundle bundle, String key, @Nullable short[] value, boolean required) {
-                    Utils.checkRequiredValue(key, value, required);
-                    bundle.putShortArray(key, value);
-                }
-            };
+            return SHORT_ARRAY;
         }
         //String数据类型和数组
         if (type == String.class) {
-            return new ParameterHandler<String>() {
-                @Override
-                public void apply(Bundle bundle, String key, @Nullable String value, boolean required) {
-                    Utils.checkRequiredValue(key, value, required);
-                    bundle.putString(key, value);
-                }
-            };
+            return STRING;
         } else if (type == String[].class) {
-            return new ParameterHandler<String[]>() {
-                @Override
-                public void apply(Bundle bundle, String key, @Nullable String[] value, boolean required) {
-                    Utils.checkRequiredValue(key, value, required);
-                    bundle.putStringArray(key, value);
-                }
-            };
+            return STRING_ARRAY;
         }
         
         if (type instanceof ParameterizedType) {
@@ -170,21 +256,9 @@ final class BuiltInHandlerFactory extends ParameterHandler.Factory {
             //而 Parcelable 和 CharSequence 可以由子类实现，具有一定的不确定性，Bundle写入Parcel是否会奔溃
             if (rawType == ArrayList.class) {
                 if (elementType == String.class) {
-                    return new ParameterHandler<ArrayList<String>>() {
-                        @Override
-                        public void apply(Bundle bundle, String key, @Nullable ArrayList<String> value, boolean required) {
-                            Utils.checkRequiredValue(key, value, required);
-                            bundle.putStringArrayList(key, value);
-                        }
-                    };
+                    return STRING_ARRAY_LIST;
                 } else if (elementType == Integer.class) {
-                    return new ParameterHandler<ArrayList<Integer>>() {
-                        @Override
-                        public void apply(Bundle bundle, String key, @Nullable ArrayList<Integer> value, boolean required) {
-                            Utils.checkRequiredValue(key, value, required);
-                            bundle.putIntegerArrayList(key, value);
-                        }
-                    };
+                    return INTEGER_ARRAY_LIST;
                 }
             }
         }
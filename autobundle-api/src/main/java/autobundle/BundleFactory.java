@@ -8,11 +8,9 @@ import android.util.Log;
 import java.lang.annotation.Annotation;
 import java.lang.reflect.Method;
 import java.lang.reflect.Type;
-import java.util.List;
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.Arrays;
+import java.util.Comparator;
 
-import autobundle.ParameterHandler.Factory;
 import autobundle.annotation.Box;
 import autobundle.annotation.BundleFlag;
 import autobundle.annotation.Required;
@@ -26,76 +24,231 @@ import static autobundle.Utils.parameterError;
  */
 final class BundleFactory {
 
-    private static final Map<Method, BundleFactory> bundleFactoryCache = new ConcurrentHashMap<>();
-
-    static BundleFactory loadBundleFactory(Method method) {
-        BundleFactory result = bundleFactoryCache.get(method);
-        if (result != null) return result;
-        synchronized (bundleFactoryCache) {
-            result = bundleFactoryCache.get(method);
-            if (result == null) {
-                result = BundleFactory.parseAnnotations(method);
-                bundleFactoryCache.put(method, result);
-            }
-        }
-        return result;
-    }
-
-    private static BundleFactory parseAnnotations(Method method) {
+    static BundleFactory parseAnnotations(AutoBundle autoBundle, Method method) {
         Type returnType = method.getGenericReturnType();
         if (returnType != Bundle.class) {
             throw Utils.methodError(method, "Service methods must return Bundle.");
         }
-        return new Builder(method).build();
+        if (autoBundle.tracing == null) {
+            return new Builder(autoBundle, method).build();
+        }
+        Tracing.begin(Tracing.parseLabel(method));
+        try {
+            return new Builder(autoBundle, method).build();
+        } finally {
+            Tracing.end();
+        }
     }
 
+    // Kinds of handlers, primitive ones are applied without going through apply(Object).
+    private static final int KIND_OBJECT = 0;
+    private static final int KIND_BOOLEAN = 1;
+    private static final int KIND_BYTE = 2;
+    private static final int KIND_SHORT = 3;
+    private static final int KIND_CHAR = 4;
+    private static final int KIND_INT = 5;
+    private static final int KIND_LONG = 6;
+    private static final int KIND_FLOAT = 7;
+    private static final int KIND_DOUBLE = 8;
+    // One sink per thread for all service methods, a call only points it at its new Bundle.
+    private static final ThreadLocal<BundleSink> SINKS = new ThreadLocal<BundleSink>() {
+        @Override
+        protected BundleSink initialValue() {
+            return new BundleSink();
+        }
+    };
+
     private final ParameterHandler<?>[] parameterHandlers;
+    private final int[] handlerKinds;
+    // Parameter indexes by the hash of their key, so puts append to the Bundle's ArrayMap.
+    private final int[] putOrder;
+    // Passed to the listeners.
+    private final String[] keys;
+    private final boolean[] required;
     private final Method method;
     private final int bundleFlag;
     private final KeyRequired[] keyRequires;
+    // Configuration of the AutoBundle that created this factory.
+    @Nullable
+    private final BundleListeners listeners;
+    private final boolean debug;
+    @Nullable
+    private final BundleSizeMonitor sizeMonitor;
+    @Nullable
+    private final SerializationProfiler profiler;
+    // Built once, only when the AutoBundle traces.
+    @Nullable
+    private final String traceLabel;
 
 
-    private BundleFactory(Method method, ParameterHandler<?>[] parameterHandlers, KeyRequired[] keyRequires, int bundleFlag) {
+    private BundleFactory(AutoBundle autoBundle, Method method, ParameterHandler<?>[] parameterHandlers,
+                          KeyRequired[] keyRequires, int bundleFlag) {
+        this.listeners = autoBundle.listeners;
+        this.debug = autoBundle.debug;
+        this.sizeMonitor = autoBundle.sizeMonitor;
+        this.profiler = autoBundle.profiler;
+        this.traceLabel = autoBundle.tracing != null ? Tracing.invokeLabel(method) : null;
         this.method = method;
         this.parameterHandlers = parameterHandlers;
+        this.handlerKinds = new int[parameterHandlers.length];
+        for (int p = 0; p < parameterHandlers.length; p++) {
+            handlerKinds[p] = kindOf(parameterHandlers[p]);
+        }
         this.bundleFlag = bundleFlag;
         this.keyRequires = keyRequires;
+        this.putOrder = putOrder(keyRequires);
+        this.keys = new String[keyRequires.length];
+        this.required = new boolean[keyRequires.length];
+        for (int p = 0; p < keyRequires.length; p++) {
+            keys[p] = keyRequires[p].key;
+            required[p] = keyRequires[p].required;
+        }
+    }
+
+    /**
+     * ArrayMap keeps its keys sorted by hash code and shifts the arrays for every key put before
+     * the last one. The sort is stable, so the last of duplicate keys still wins.
+     */
+    private static int[] putOrder(final KeyRequired[] keyRequires) {
+        Integer[] order = new Integer[keyRequires.length];
+        for (int p = 0; p < order.length; p++) {
+            order[p] = p;
+        }
+        Arrays.sort(order, new Comparator<Integer>() {
+            @Override
+            public int compare(Integer p1, Integer p2) {
+                int h1 = keyRequires[p1].key.hashCode();
+                int h2 = keyRequires[p2].key.hashCode();
+                return h1 < h2 ? -1 : (h1 == h2 ? 0 : 1);
+            }
+        });
+        int[] result = new int[order.length];
+        for (int p = 0; p < order.length; p++) {
+            result[p] = order[p];
+        }
+        return result;
     }
 
     Bundle invoke(Object[] args) {
-        @SuppressWarnings("unchecked") // It is an error to invoke a method with the wrong arg types.
-                ParameterHandler<Object>[] handlers = (ParameterHandler<Object>[]) parameterHandlers;
+        String traceLabel = this.traceLabel;
+        if (traceLabel == null) {
+            return createBundle(args);
+        }
+        Tracing.begin(traceLabel);
+        try {
+            return createBundle(args);
+        } finally {
+            Tracing.end();
+        }
+    }
+
+    private Bundle createBundle(Object[] args) {
+        int argumentCount = args.length;
+        Bundle bundle = new Bundle(argumentCount);
+        BundleSink sink = SINKS.get();
+        if (sink.bundle != null) {
+            // A call made while putting the arguments of another, e.g. by a custom handler.
+            sink = new BundleSink();
+        }
+        sink.bundle = bundle;
+        try {
+            write(sink, args);
+        } finally {
+            sink.bundle = null;
+        }
+        if (listeners != null) {
+            listeners.dispatch(bundleFlag, keys, required, args, bundle);
+        }
+        if (sizeMonitor != null) {
+            sizeMonitor.check(method, bundleFlag, keys, bundle);
+        }
+        if (profiler != null) {
+            profiler.sample(bundle, method.getDeclaringClass().getClassLoader());
+        }
+        if (debug) {
+            for (int p = 0; p < argumentCount; p++) {
+                printInvoke(p, keyRequires[p], args[p]);
+            }
+        }
+        return bundle;
+    }
+
+    /**
+     * Puts {@code args} into {@code sink} with the parameter handlers, without listeners or
+     * instrumentation.
+     */
+    void write(KeyValueSink sink, Object[] args) {
+        ParameterHandler<?>[] handlers = parameterHandlers;
         int argumentCount = args.length;
         if (argumentCount != handlers.length) {
             throw new IllegalArgumentException("Argument count (" + argumentCount
                     + ") doesn't match expected count (" + handlers.length + ")");
         }
-        Bundle bundle = new Bundle();
-        for (int p = 0; p < argumentCount; p++) {
-            ParameterHandler<Object> handler = handlers[p];
-            KeyRequired keyRequired = keyRequires[p];
-            handler.apply(bundle, keyRequired.key, args[p], keyRequired.required);
-            for (OnBundleListener listener : AutoBundle.getDefault().listeners) {
-                listener.onBundling(bundleFlag, keyRequired.key, args[p], keyRequired.required);
-            }
-            printInvoke(p, keyRequired, args[p]);
+        for (int i = 0; i < argumentCount; i++) {
+            int p = putOrder[i];
+            apply(handlers[p], handlerKinds[p], sink, keyRequires[p], args[p]);
         }
-        for (OnBundleListener listener : AutoBundle.getDefault().listeners) {
-            listener.onCompleted(bundleFlag, bundle);
+    }
+
+    private static int kindOf(ParameterHandler<?> handler) {
+        if (handler instanceof ParameterHandler.OfBoolean) return KIND_BOOLEAN;
+        if (handler instanceof ParameterHandler.OfByte) return KIND_BYTE;
+        if (handler instanceof ParameterHandler.OfShort) return KIND_SHORT;
+        if (handler instanceof ParameterHandler.OfChar) return KIND_CHAR;
+        if (handler instanceof ParameterHandler.OfInt) return KIND_INT;
+        if (handler instanceof ParameterHandler.OfLong) return KIND_LONG;
+        if (handler instanceof ParameterHandler.OfFloat) return KIND_FLOAT;
+        if (handler instanceof ParameterHandler.OfDouble) return KIND_DOUBLE;
+        return KIND_OBJECT;
+    }
+
+    /**
+     * Primitive arguments of a service method can never be null, they are unboxed here once and
+     * put with the specialized handler.
+     */
+    @SuppressWarnings("unchecked") // It is an error to invoke a method with the wrong arg types.
+    private static void apply(ParameterHandler<?> handler, int kind, KeyValueSink sink,
+                              KeyRequired keyRequired, @Nullable Object arg) {
+        String key = keyRequired.key;
+        switch (kind) {
+            case KIND_BOOLEAN:
+                ((ParameterHandler.OfBoolean) handler).applyBoolean(sink, key, (Boolean) arg);
+                break;
+            case KIND_BYTE:
+                ((ParameterHandler.OfByte) handler).applyByte(sink, key, (Byte) arg);
+                break;
+            case KIND_SHORT:
+                ((ParameterHandler.OfShort) handler).applyShort(sink, key, (Short) arg);
+                break;
+            case KIND_CHAR:
+                ((ParameterHandler.OfChar) handler).applyChar(sink, key, (Character) arg);
+                break;
+            case KIND_INT:
+                ((ParameterHandler.OfInt) handler).applyInt(sink, key, (Integer) arg);
+                break;
+            case KIND_LONG:
+                ((ParameterHandler.OfLong) handler).applyLong(sink, key, (Long) arg);
+                break;
+            case KIND_FLOAT:
+                ((ParameterHandler.OfFloat) handler).applyFloat(sink, key, (Float) arg);
+                break;
+            case KIND_DOUBLE:
+                ((ParameterHandler.OfDouble) handler).applyDouble(sink, key, (Double) arg);
+                break;
+            default:
+                ((ParameterHandler<Object>) handler).apply(sink, key, arg, keyRequired.required);
+                break;
         }
-        return bundle;
     }
 
     private void printInvoke(int p, KeyRequired keyRequired, Object arg) {
-        if (AutoBundle.getDefault().debug) {
-            Log.d(AutoBundle.TAG, "Bundling key: \"" + keyRequired.key + "\", value: " + arg + ", required: " + keyRequired.required
-                    + " \n in parameter #" + (p + 1)
-                    + " for method "
-                    + method.getDeclaringClass().getSimpleName()
-                    + "."
-                    + method.getName()
-            );
-        }
+        Log.d(AutoBundle.TAG, "Bundling key: \"" + keyRequired.key + "\", value: " + arg + ", required: " + keyRequired.required
+                + " \n in parameter #" + (p + 1)
+                + " for method "
+                + method.getDeclaringClass().getSimpleName()
+                + "."
+                + method.getName()
+        );
     }
 
     /**
@@ -104,6 +257,7 @@ final class BundleFactory {
      * and reuse it. Builders cannot be reused.
      */
     static final class Builder {
+        final AutoBundle autoBundle;
         final Method method;
         final Annotation[] methodAnnotations;
         final Annotation[][] parameterAnnotationsArray;
@@ -112,7 +266,8 @@ final class BundleFactory {
         int bundleFlag = Integer.MIN_VALUE;// by default
         KeyRequired[] keyRequires;
 
-        Builder(Method method) {
+        Builder(AutoBundle autoBundle, Method method) {
+            this.autoBundle = autoBundle;
             this.method = method;
             this.methodAnnotations = method.getAnnotations();
             this.parameterTypes = method.getGenericParameterTypes();
@@ -131,7 +286,7 @@ final class BundleFactory {
             for (int p = 0; p < parameterCount; p++) {
                 parameterHandlers[p] = parseParameter(p, parameterTypes[p], parameterAnnotationsArray[p]);
             }
-            return new BundleFactory(method, parameterHandlers, keyRequires, bundleFlag);
+            return new BundleFactory(autoBundle, method, parameterHandlers, keyRequires, bundleFlag);
         }
 
         @NonNull
@@ -141,17 +296,10 @@ final class BundleFactory {
             if (boxAnnotation == null) {
                 throw parameterError(method, p, "@%s annotation not found.", Box.class.getSimpleName());
             }
-            boolean required = required(annotations);
+            boolean required = required(parameterType, annotations);
             keyRequires[p] = new KeyRequired(boxAnnotation.value(), required);
             printParseParameter(p, boxAnnotation, required);
-            ParameterHandler<?> result = null;
-            List<Factory> factories = AutoBundle.getDefault().factories;
-            for (Factory factory : factories) {
-                result = factory.get(parameterType, annotations, methodAnnotations);
-                if (result != null) {
-                    break;
-                }
-            }
+            ParameterHandler<?> result = autoBundle.parameterHandlers.get(parameterType, annotations, methodAnnotations);
             if (result == null) {
                 throw parameterError(method, p, "'" + Utils.typeToString(parameterType)
                         + "' doesn't support.");
@@ -162,7 +310,7 @@ final class BundleFactory {
 
         private void printParseParameter(int p, Box boxAnnotation, boolean required) {
             // annotation.getClass -->class com.sun.proxy.$Proxy 动态代理
-            if (AutoBundle.getDefault().debug) {
+            if (autoBundle.debug) {
                 String boxString = "@" + Box.class.getSimpleName() + "(value= \"" + boxAnnotation.value() + "\" )";
                 Log.d(AutoBundle.TAG, "Parse " + boxString + ", required:" + required
                         + " \n in parameter #" + (p + 1)
@@ -174,7 +322,14 @@ final class BundleFactory {
             }
         }
 
-        private static boolean required(@Nullable Annotation[] annotations) {
+        /**
+         * Returns true for a {@link Required @Required} parameter that can be null. The generated
+         * service implementations follow the same rule, primitives are never required.
+         */
+        private static boolean required(Type parameterType, @Nullable Annotation[] annotations) {
+            if (parameterType instanceof Class<?> && ((Class<?>) parameterType).isPrimitive()) {
+                return false;
+            }
             if (annotations != null) {
                 for (Annotation annotation : annotations) {
                     if (annotation instanceof Required) {
@@ -0,0 +1,42 @@
+package autobundle;
+
+import android.support.annotation.Nullable;
+
+import java.util.Map;
+
+/**
+ * An index of the binders generated for one module. autobundle-compiler writes an implementation
+ * when the {@code autoBundleIndex} annotation processor option is set, e.g.
+ * <pre>{@code
+ * javaCompileOptions {
+ *     annotationProcessorOptions {
+ *         arguments = [autoBundleIndex: 'com.example.MyBundleIndex']
+ *     }
+ * }
+ * }</pre>
+ * Add the index of every module with {@link autobundle.annotation.Unbox @Unbox} fields to
+ * {@link AutoBundle.Builder#addBundleIndex(BundleIndex)}, lookups are then served from the indexes
+ * and only load {@code _BundleBinding} classes by name for classes missing from them. Generated service
+ * implementations are also found through the indexes before falling back to their name.
+ */
+public abstract class BundleIndex {
+
+    /**
+     * Puts a {@link IBinder.Factory} for every target class of this module into {@code binders}.
+     */
+    public abstract void loadInto(Map<Class<?>, IBinder.Factory> binders);
+
+    /**
+     * Puts a {@link ServiceFactory} for every service interface of this module whose
+     * implementation was generated into {@code services}.
+     */
+    public void loadServicesInto(Map<Class<?>, ServiceFactory> services) {
+    }
+
+    /**
+     * Creates the generated implementation of a service interface without reflection.
+     */
+    public interface ServiceFactory {
+        Object create(@Nullable BundleListeners listeners);
+    }
+}
@@ -0,0 +1,61 @@
+package autobundle;
+
+import android.os.Bundle;
+import android.support.annotation.Nullable;
+
+import java.util.List;
+
+/**
+ * The listeners of an {@link AutoBundle}, grouped by the callbacks they asked for so a Bundle only
+ * pays for the callbacks that are actually used. Only created when at least one listener is
+ * added. Public for generated service implementations.
+ */
+public final class BundleListeners {
+    private static final OnBundleListener[] EMPTY_LISTENERS = new OnBundleListener[0];
+    private static final OnBundleBatchListener[] EMPTY_BATCH_LISTENERS = new OnBundleBatchListener[0];
+
+    private final OnBundleListener[] bundlingListeners;
+    private final OnBundleListener[] completedListeners;
+    private final OnBundleBatchListener[] batchListeners;
+
+    BundleListeners(List<OnBundleListener> bundlingListeners,
+                    List<OnBundleListener> completedListeners,
+                    List<OnBundleBatchListener> batchListeners) {
+        this.bundlingListeners = bundlingListeners.toArray(EMPTY_LISTENERS);
+        this.completedListeners = completedListeners.toArray(EMPTY_LISTENERS);
+        this.batchListeners = batchListeners.toArray(EMPTY_BATCH_LISTENERS);
+    }
+
+    /**
+     * Returns true if a listener reads the values, otherwise {@link #dispatch} takes null values and
+     * callers do not need to collect or box them.
+     */
+    public boolean needsValues() {
+        return bundlingListeners.length != 0 || batchListeners.length != 0;
+    }
+
+    /**
+     * Calls the listeners for a Bundle created by a service method.
+     *
+     * @param keys     the keys of the parameters, in parameter order
+     * @param required whether each parameter is {@link autobundle.annotation.Required @Required},
+     *                 always false for primitive parameters
+     * @param values   the arguments in parameter order, may be null if {@link #needsValues()} is false
+     */
+    public void dispatch(int flag, String[] keys, boolean[] required, @Nullable Object[] values,
+                         Bundle bundle) {
+        if (bundlingListeners.length != 0) {
+            for (int p = 0; p < keys.length; p++) {
+                for (OnBundleListener listener : bundlingListeners) {
+                    listener.onBundling(flag, keys[p], values[p], required[p]);
+                }
+            }
+        }
+        for (OnBundleListener listener : completedListeners) {
+            listener.onCompleted(flag, bundle);
+        }
+        for (OnBundleBatchListener listener : batchListeners) {
+            listener.onBundled(flag, keys, values, bundle);
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package autobundle;
+
+import android.os.Bundle;
+import android.support.annotation.Nullable;
+
+/**
+ * A {@link ParameterHandler} that puts into the Bundle of the service method itself, as every
+ * handler did before {@link KeyValueSink}. A custom handler written for a Bundle only needs to
+ * extend this class instead of implementing {@link ParameterHandler}.
+ * <p>
+ * The Bundle is only available to service calls, {@link AutoBundle#write(java.lang.reflect.Method,
+ * Object[], KeyValueSink)} with any other sink throws {@link UnsupportedOperationException}.
+ */
+public abstract class BundleParameterHandler<T> implements ParameterHandler<T> {
+
+    public abstract void apply(Bundle bundle, String key, @Nullable T value, boolean required);
+
+    @Override
+    public final void apply(KeyValueSink sink, String key, @Nullable T value, boolean required) {
+        if (!(sink instanceof BundleSink)) {
+            throw new UnsupportedOperationException(getClass().getName()
+                    + " puts into a Bundle and can't write to " + sink.getClass().getName());
+        }
+        apply(((BundleSink) sink).bundle, key, value, required);
+    }
+}
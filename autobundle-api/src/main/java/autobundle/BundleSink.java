@@ -0,0 +1,159 @@
+package autobundle;
+
+import android.os.Bundle;
+import android.os.Parcelable;
+import android.support.annotation.Nullable;
+import android.util.SparseArray;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+
+/**
+ * Writes to the Bundle created by a service method. Reused by the calls on one thread, see
+ * {@link BundleFactory}.
+ */
+final class BundleSink implements KeyValueSink {
+    // The Bundle of the call in progress, null between calls.
+    @Nullable
+    Bundle bundle;
+
+    @Override
+    public void putBoolean(String key, boolean value) {
+        bundle.putBoolean(key, value);
+    }
+
+    @Override
+    public void putByte(String key, byte value) {
+        bundle.putByte(key, value);
+    }
+
+    @Override
+    public void putShort(String key, short value) {
+        bundle.putShort(key, value);
+    }
+
+    @Override
+    public void putChar(String key, char value) {
+        bundle.putChar(key, value);
+    }
+
+    @Override
+    public void putInt(String key, int value) {
+        bundle.putInt(key, value);
+    }
+
+    @Override
+    public void putLong(String key, long value) {
+        bundle.putLong(key, value);
+    }
+
+    @Override
+    public void putFloat(String key, float value) {
+        bundle.putFloat(key, value);
+    }
+
+    @Override
+    public void putDouble(String key, double value) {
+        bundle.putDouble(key, value);
+    }
+
+    @Override
+    public void putString(String key, @Nullable String value) {
+        bundle.putString(key, value);
+    }
+
+    @Override
+    public void putCharSequence(String key, @Nullable CharSequence value) {
+        bundle.putCharSequence(key, value);
+    }
+
+    @Override
+    public void putParcelable(String key, @Nullable Parcelable value) {
+        bundle.putParcelable(key, value);
+    }
+
+    @Override
+    public void putSerializable(String key, @Nullable Serializable value) {
+        bundle.putSerializable(key, value);
+    }
+
+    @Override
+    public void putBooleanArray(String key, @Nullable boolean[] value) {
+        bundle.putBooleanArray(key, value);
+    }
+
+    @Override
+    public void putByteArray(String key, @Nullable byte[] value) {
+        bundle.putByteArray(key, value);
+    }
+
+    @Override
+    public void putShortArray(String key, @Nullable short[] value) {
+        bundle.putShortArray(key, value);
+    }
+
+    @Override
+    public void putCharArray(String key, @Nullable char[] value) {
+        bundle.putCharArray(key, value);
+    }
+
+    @Override
+    public void putIntArray(String key, @Nullable int[] value) {
+        bundle.putIntArray(key, value);
+    }
+
+    @Override
+    public void putLongArray(String key, @Nullable long[] value) {
+        bundle.putLongArray(key, value);
+    }
+
+    @Override
+    public void putFloatArray(String key, @Nullable float[] value) {
+        bundle.putFloatArray(key, value);
+    }
+
+    @Override
+    public void putDoubleArray(String key, @Nullable double[] value) {
+        bundle.putDoubleArray(key, value);
+    }
+
+    @Override
+    public void putStringArray(String key, @Nullable String[] value) {
+        bundle.putStringArray(key, value);
+    }
+
+    @Override
+    public void putCharSequenceArray(String key, @Nullable CharSequence[] value) {
+        bundle.putCharSequenceArray(key, value);
+    }
+
+    @Override
+    public void putParcelableArray(String key, @Nullable Parcelable[] value) {
+        bundle.putParcelableArray(key, value);
+    }
+
+    @Override
+    public void putStringArrayList(String key, @Nullable ArrayList<String> value) {
+        bundle.putStringArrayList(key, value);
+    }
+
+    @Override
+    public void putIntegerArrayList(String key, @Nullable ArrayList<Integer> value) {
+        bundle.putIntegerArrayList(key, value);
+    }
+
+    @Override
+    public void putCharSequenceArrayList(String key, @Nullable ArrayList<CharSequence> value) {
+        bundle.putCharSequenceArrayList(key, value);
+    }
+
+    @Override
+    public void putParcelableArrayList(String key, @Nullable ArrayList<? extends Parcelable> value) {
+        bundle.putParcelableArrayList(key, value);
+    }
+
+    @Override
+    public void putSparseParcelableArray(String key, @Nullable SparseArray<? extends Parcelable> value) {
+        bundle.putSparseParcelableArray(key, value);
+    }
+}
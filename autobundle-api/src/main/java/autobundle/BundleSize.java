@@ -0,0 +1,98 @@
+package autobundle;
+
+import android.support.annotation.Nullable;
+
+import java.lang.reflect.Method;
+
+/**
+ * The parceled size of a Bundle created by a service method, reported to
+ * {@link OnBundleSizeListener}.
+ */
+public final class BundleSize {
+    private final Method method;
+    private final int flag;
+    private final int totalBytes;
+    private final String[] keys;
+    private final int[] keyBytes;
+    @Nullable
+    private final BundleSizeBudget budget;
+
+    BundleSize(Method method, int flag, int totalBytes, String[] keys, int[] keyBytes,
+               @Nullable BundleSizeBudget budget) {
+        this.method = method;
+        this.flag = flag;
+        this.totalBytes = totalBytes;
+        this.keys = keys;
+        this.keyBytes = keyBytes;
+        this.budget = budget;
+    }
+
+    public Method getMethod() {
+        return method;
+    }
+
+    /**
+     * The {@link autobundle.annotation.BundleFlag} value of the method, or
+     * {@code Integer.MIN_VALUE} without one.
+     */
+    public int getFlag() {
+        return flag;
+    }
+
+    /**
+     * The size of the whole Bundle as written to a Parcel, including keys added by listeners.
+     */
+    public int getTotalBytes() {
+        return totalBytes;
+    }
+
+    /**
+     * The {@link autobundle.annotation.Box @Box} keys of the method, in parameter order.
+     */
+    public String[] getKeys() {
+        return keys.clone();
+    }
+
+    /**
+     * Returns the parceled size of the key and value of {@code key}, or -1 if it is not a key of
+     * the method.
+     */
+    public int getBytes(String key) {
+        for (int p = keys.length - 1; p >= 0; p--) {
+            if (keys[p].equals(key)) {
+                return keyBytes[p];
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Returns the budget the Bundle was measured against, or null if no budget applies.
+     */
+    @Nullable
+    public BundleSizeBudget getBudget() {
+        return budget;
+    }
+
+    public boolean isOverBudget() {
+        return budget != null && totalBytes > budget.maxBytes;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder()
+                .append(method.getDeclaringClass().getSimpleName()).append('.').append(method.getName())
+                .append(": ").append(totalBytes).append(" bytes");
+        if (budget != null) {
+            builder.append(" (budget ").append(budget.maxBytes).append(')');
+        }
+        builder.append(" {");
+        for (int p = 0; p < keys.length; p++) {
+            if (p != 0) {
+                builder.append(", ");
+            }
+            builder.append(keys[p]).append('=').append(keyBytes[p]);
+        }
+        return builder.append('}').toString();
+    }
+}
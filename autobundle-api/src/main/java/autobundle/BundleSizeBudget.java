@@ -0,0 +1,68 @@
+package autobundle;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A limit of the parceled size of the Bundles created by service methods, see
+ * {@link AutoBundle.Builder#bundleSizeBudget(int, BundleSizeBudget)}. Binder transactions fail
+ * with {@code TransactionTooLargeException} above about 1MB, shared by all transactions in flight
+ * of the process, so a budget well below that catches large arguments before they ship.
+ */
+public final class BundleSizeBudget {
+    static final int WARN = 0;
+    static final int THROW = 1;
+    static final int SAMPLE = 2;
+
+    final int maxBytes;
+    final int action;
+    final int sampleInterval;
+    final Executor executor;
+    private final AtomicInteger sampleCount = new AtomicInteger();
+
+    private BundleSizeBudget(int maxBytes, int action, int sampleInterval, Executor executor) {
+        if (maxBytes <= 0) {
+            throw new IllegalArgumentException("maxBytes <= 0: " + maxBytes);
+        }
+        this.maxBytes = maxBytes;
+        this.action = action;
+        this.sampleInterval = sampleInterval;
+        this.executor = executor;
+    }
+
+    /**
+     * Measures every Bundle and logs a warning when one exceeds {@code maxBytes}.
+     */
+    public static BundleSizeBudget warn(int maxBytes) {
+        return new BundleSizeBudget(maxBytes, WARN, 1, null);
+    }
+
+    /**
+     * Measures every Bundle and throws an {@link IllegalStateException} from the service method
+     * when one exceeds {@code maxBytes}, for debug builds and tests.
+     */
+    public static BundleSizeBudget throwIfExceeded(int maxBytes) {
+        return new BundleSizeBudget(maxBytes, THROW, 1, null);
+    }
+
+    /**
+     * Measures one of every {@code sampleInterval} Bundles on {@code executor} and logs a warning
+     * when one exceeds {@code maxBytes}. The calling thread only makes a shallow copy of the
+     * sampled Bundle, which makes this cheap enough for release builds.
+     */
+    public static BundleSizeBudget sample(int maxBytes, int sampleInterval, Executor executor) {
+        Utils.checkNotNull(executor, "executor == null");
+        if (sampleInterval <= 0) {
+            throw new IllegalArgumentException("sampleInterval <= 0: " + sampleInterval);
+        }
+        return new BundleSizeBudget(maxBytes, SAMPLE, sampleInterval, executor);
+    }
+
+    public int getMaxBytes() {
+        return maxBytes;
+    }
+
+    boolean sampleNext() {
+        return (sampleCount.getAndIncrement() & Integer.MAX_VALUE) % sampleInterval == 0;
+    }
+}
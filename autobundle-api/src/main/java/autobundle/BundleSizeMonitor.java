@@ -0,0 +1,108 @@
+package autobundle;
+
+import android.os.Bundle;
+import android.os.Parcel;
+import android.support.annotation.Nullable;
+import android.util.Log;
+
+import java.lang.reflect.Method;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Measures the Bundles created by service methods against the {@link BundleSizeBudget budgets} of
+ * an {@link AutoBundle}, only created when a budget or {@link OnBundleSizeListener} is added.
+ */
+final class BundleSizeMonitor {
+    private static final OnBundleSizeListener[] EMPTY_LISTENERS = new OnBundleSizeListener[0];
+
+    private final Map<Integer, BundleSizeBudget> budgets;
+    @Nullable
+    private final BundleSizeBudget defaultBudget;
+    private final OnBundleSizeListener[] listeners;
+
+    BundleSizeMonitor(Map<Integer, BundleSizeBudget> budgets, @Nullable BundleSizeBudget defaultBudget,
+                      List<OnBundleSizeListener> listeners) {
+        this.budgets = budgets;
+        this.defaultBudget = defaultBudget;
+        this.listeners = listeners.toArray(EMPTY_LISTENERS);
+    }
+
+    void check(final Method method, final int flag, final String[] keys, Bundle bundle) {
+        BundleSizeBudget budget = budgets.get(flag);
+        if (budget == null) {
+            budget = defaultBudget;
+        }
+        if (budget == null) {
+            if (listeners.length != 0) {
+                measure(method, flag, keys, bundle, null);
+            }
+            return;
+        }
+        if (budget.action != BundleSizeBudget.SAMPLE) {
+            measure(method, flag, keys, bundle, budget);
+            return;
+        }
+        if (!budget.sampleNext()) {
+            return;
+        }
+        // The caller may modify or send the Bundle while it is measured.
+        final Bundle copy = new Bundle(bundle);
+        final BundleSizeBudget sampled = budget;
+        budget.executor.execute(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    measure(method, flag, keys, copy, sampled);
+                } catch (RuntimeException e) {
+                    Log.w(AutoBundle.TAG, "Unable to measure the Bundle of " + method, e);
+                }
+            }
+        });
+    }
+
+    private void measure(Method method, int flag, String[] keys, Bundle bundle,
+                         @Nullable BundleSizeBudget budget) {
+        BundleSize size = new BundleSize(method, flag, totalBytes(bundle), keys,
+                keyBytes(keys, bundle), budget);
+        for (OnBundleSizeListener listener : listeners) {
+            listener.onBundleSize(size);
+        }
+        if (!size.isOverBudget()) {
+            return;
+        }
+        if (budget.action == BundleSizeBudget.THROW) {
+            throw new IllegalStateException("Bundle over budget, " + size);
+        }
+        Log.w(AutoBundle.TAG, "Bundle over budget, " + size);
+    }
+
+    private static int totalBytes(Bundle bundle) {
+        Parcel parcel = Parcel.obtain();
+        try {
+            bundle.writeToParcel(parcel, 0);
+            return parcel.dataSize();
+        } finally {
+            parcel.recycle();
+        }
+    }
+
+    /**
+     * Writes each entry the way Bundle writes its map, so the sizes add up to about the total.
+     */
+    private static int[] keyBytes(String[] keys, Bundle bundle) {
+        int[] keyBytes = new int[keys.length];
+        Parcel parcel = Parcel.obtain();
+        try {
+            for (int p = 0; p < keys.length; p++) {
+                int start = parcel.dataPosition();
+                parcel.writeString(keys[p]);
+                parcel.writeValue(bundle.get(keys[p]));
+                keyBytes[p] = parcel.dataPosition() - start;
+            }
+        } finally {
+            parcel.recycle();
+        }
+        return keyBytes;
+    }
+}
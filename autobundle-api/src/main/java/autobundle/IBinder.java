@@ -1,12 +1,36 @@
 package autobundle;
 
+import android.content.Intent;
 import android.os.Bundle;
-import android.support.annotation.UiThread;
+import android.support.annotation.Nullable;
 
 /**
- * An binder contract that will unbind views when called.
+ * An binder contract that will unbind views when called. Generated binders hold no state, one
+ * instance per target class is cached and shared by every bind, from any thread.
  */
 public interface IBinder {
-    @UiThread
     void bind(Object object, Bundle bundle);
-}
\ No newline at end of file
+
+    /**
+     * Same as {@link #bind(Object, Bundle)} with the extras of {@code intent}, read with the typed
+     * Intent getters instead of a copy of the extras made by {@link Intent#getExtras()}. Bindings
+     * generated by an older autobundle-compiler lack this method; {@link AutoBundle} then binds
+     * them with {@link #bind(Object, Bundle)} and the copy.
+     */
+    void bind(Object object, Intent intent);
+
+    /**
+     * Puts the fields of {@code object} into {@code bundle} with the typed put methods. If
+     * {@code bound} is not null, primitive and String fields still equal to their value in
+     * {@code bound} are skipped. Bindings generated by an older autobundle-compiler lack this
+     * method and can't be saved until they are generated again.
+     */
+    void save(Object object, Bundle bundle, @Nullable Bundle bound);
+
+    /**
+     * Creates the shared instance of a generated binder without reflection, see {@link BundleIndex}.
+     */
+    interface Factory {
+        IBinder create();
+    }
+}
@@ -0,0 +1,72 @@
+package autobundle;
+
+import android.os.Parcelable;
+import android.support.annotation.Nullable;
+import android.util.SparseArray;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+
+/**
+ * The destination of the values put by {@link ParameterHandler parameter handlers}, with the typed
+ * put methods of {@link android.os.Bundle}. Service methods write to a Bundle, {@link MapSink}
+ * keeps the values in a Map so the handlers and service methods can be tested and benchmarked on
+ * a JVM without Android.
+ */
+public interface KeyValueSink {
+    void putBoolean(String key, boolean value);
+
+    void putByte(String key, byte value);
+
+    void putShort(String key, short value);
+
+    void putChar(String key, char value);
+
+    void putInt(String key, int value);
+
+    void putLong(String key, long value);
+
+    void putFloat(String key, float value);
+
+    void putDouble(String key, double value);
+
+    void putString(String key, @Nullable String value);
+
+    void putCharSequence(String key, @Nullable CharSequence value);
+
+    void putParcelable(String key, @Nullable Parcelable value);
+
+    void putSerializable(String key, @Nullable Serializable value);
+
+    void putBooleanArray(String key, @Nullable boolean[] value);
+
+    void putByteArray(String key, @Nullable byte[] value);
+
+    void putShortArray(String key, @Nullable short[] value);
+
+    void putCharArray(String key, @Nullable char[] value);
+
+    void putIntArray(String key, @Nullable int[] value);
+
+    void putLongArray(String key, @Nullable long[] value);
+
+    void putFloatArray(String key, @Nullable float[] value);
+
+    void putDoubleArray(String key, @Nullable double[] value);
+
+    void putStringArray(String key, @Nullable String[] value);
+
+    void putCharSequenceArray(String key, @Nullable CharSequence[] value);
+
+    void putParcelableArray(String key, @Nullable Parcelable[] value);
+
+    void putStringArrayList(String key, @Nullable ArrayList<String> value);
+
+    void putIntegerArrayList(String key, @Nullable ArrayList<Integer> value);
+
+    void putCharSequenceArrayList(String key, @Nullable ArrayList<CharSequence> value);
+
+    void putParcelableArrayList(String key, @Nullable ArrayList<? extends Parcelable> value);
+
+    void putSparseParcelableArray(String key, @Nullable SparseArray<? extends Parcelable> value);
+}
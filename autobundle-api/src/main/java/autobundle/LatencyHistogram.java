@@ -0,0 +1,34 @@
+package autobundle;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Counts durations in fixed power-of-two buckets: bucket {@code i} holds durations below
+ * {@code 2^i} nanoseconds. Recording is one bucket increment plus a striped sum, no allocation.
+ */
+final class LatencyHistogram {
+    // 2^40 ns is about 18 minutes, longer durations go to the last bucket.
+    static final int BUCKET_COUNT = 41;
+
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKET_COUNT);
+    private final StripedCounter totalNanos = new StripedCounter();
+
+    void record(long nanos) {
+        if (nanos < 0) {
+            nanos = 0;
+        }
+        int bucket = 64 - Long.numberOfLeadingZeros(nanos);
+        buckets.getAndIncrement(bucket < BUCKET_COUNT ? bucket : BUCKET_COUNT - 1);
+        totalNanos.add(nanos);
+    }
+
+    AutoBundleStats.Latency snapshot() {
+        long[] counts = new long[BUCKET_COUNT];
+        long count = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            counts[i] = buckets.get(i);
+            count += counts[i];
+        }
+        return new AutoBundleStats.Latency(count, totalNanos.sum(), counts);
+    }
+}
@@ -0,0 +1,36 @@
+package autobundle;
+
+import android.content.Intent;
+import android.os.Bundle;
+import android.support.annotation.Nullable;
+
+/**
+ * Wraps a binding generated by an older autobundle-compiler, which implements
+ * {@link IBinder#bind(Object, Bundle)} only. Intents are bound from a copy of their extras, as
+ * before {@link IBinder#bind(Object, Intent)} was generated.
+ */
+final class LegacyBinder implements IBinder {
+    private final IBinder delegate;
+
+    LegacyBinder(IBinder delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public void bind(Object object, Bundle bundle) {
+        delegate.bind(object, bundle);
+    }
+
+    @Override
+    public void bind(Object object, Intent intent) {
+        Bundle extras = intent.getExtras();
+        delegate.bind(object, extras != null ? extras : Bundle.EMPTY);
+    }
+
+    @Override
+    public void save(Object object, Bundle bundle, @Nullable Bundle bound) {
+        throw new UnsupportedOperationException(delegate.getClass().getName()
+                + " was generated by an older autobundle-compiler without save. Rebuild "
+                + object.getClass().getName() + " with the autobundle-compiler of this version.");
+    }
+}
@@ -0,0 +1,175 @@
+package autobundle;
+
+import android.os.Parcelable;
+import android.support.annotation.Nullable;
+import android.util.SparseArray;
+
+import java.io.Serializable;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Keeps the put values in a Map, in put order. Like a Bundle, a later put of a key replaces the
+ * value. Used to test and benchmark service methods and parameter handlers on a JVM, see
+ * {@link AutoBundle#write(Method, Object[], KeyValueSink)}.
+ */
+public final class MapSink implements KeyValueSink {
+    private final Map<String, Object> values;
+
+    public MapSink() {
+        this(new LinkedHashMap<String, Object>());
+    }
+
+    /**
+     * Puts the values into {@code values}, which may be reused across calls after clearing it.
+     */
+    public MapSink(Map<String, Object> values) {
+        this.values = Utils.checkNotNull(values, "values == null");
+    }
+
+    public Map<String, Object> asMap() {
+        return values;
+    }
+
+    @Override
+    public void putBoolean(String key, boolean value) {
+        values.put(key, value);
+    }
+
+    @Override
+    public void putByte(String key, byte value) {
+        values.put(key, value);
+    }
+
+    @Override
+    public void putShort(String key, short value) {
+        values.put(key, value);
+    }
+
+    @Override
+    public void putChar(String key, char value) {
+        values.put(key, value);
+    }
+
+    @Override
+    public void putInt(String key, int value) {
+        values.put(key, value);
+    }
+
+    @Override
+    public void putLong(String key, long value) {
+        values.put(key, value);
+    }
+
+    @Override
+    public void putFloat(String key, float value) {
+        values.put(key, value);
+    }
+
+    @Override
+    public void putDouble(String key, double value) {
+        values.put(key, value);
+    }
+
+    @Override
+    public void putString(String key, @Nullable String value) {
+        values.put(key, value);
+    }
+
+    @Override
+    public void putCharSequence(String key, @Nullable CharSequence value) {
+        values.put(key, value);
+    }
+
+    @Override
+    public void putParcelable(String key, @Nullable Parcelable value) {
+        values.put(key, value);
+    }
+
+    @Override
+    public void putSerializable(String key, @Nullable Serializable value) {
+        values.put(key, value);
+    }
+
+    @Override
+    public void putBooleanArray(String key, @Nullable boolean[] value) {
+        values.put(key, value);
+    }
+
+    @Override
+    public void putByteArray(String key, @Nullable byte[] value) {
+        values.put(key, value);
+    }
+
+    @Override
+    public void putShortArray(String key, @Nullable short[] value) {
+        values.put(key, value);
+    }
+
+    @Override
+    public void putCharArray(String key, @Nullable char[] value) {
+        values.put(key, value);
+    }
+
+    @Override
+    public void putIntArray(String key, @Nullable int[] value) {
+        values.put(key, value);
+    }
+
+    @Override
+    public void putLongArray(String key, @Nullable long[] value) {
+        values.put(key, value);
+    }
+
+    @Override
+    public void putFloatArray(String key, @Nullable float[] value) {
+        values.put(key, value);
+    }
+
+    @Override
+    public void putDoubleArray(String key, @Nullable double[] value) {
+        values.put(key, value);
+    }
+
+    @Override
+    public void putStringArray(String key, @Nullable String[] value) {
+        values.put(key, value);
+    }
+
+    @Override
+    public void putCharSequenceArray(String key, @Nullable CharSequence[] value) {
+        values.put(key, value);
+    }
+
+    @Override
+    public void putParcelableArray(String key, @Nullable Parcelable[] value) {
+        values.put(key, value);
+    }
+
+    @Override
+    public void putStringArrayList(String key, @Nullable ArrayList<String> value) {
+        values.put(key, value);
+    }
+
+    @Override
+    public void putIntegerArrayList(String key, @Nullable ArrayList<Integer> value) {
+        values.put(key, value);
+    }
+
+    @Override
+    public void putCharSequenceArrayList(String key, @Nullable ArrayList<CharSequence> value) {
+        values.put(key, value);
+    }
+
+    @Override
+    public void putParcelableArrayList(String key, @Nullable ArrayList<? extends Parcelable> value) {
+        values.put(key, value);
+    }
+
+    @Override
+    public void putSparseParcelableArray(String key, @Nullable SparseArray<? extends Parcelable> value) {
+        values.put(key, value);
+    }
+}
@@ -0,0 +1,75 @@
+package autobundle;
+
+import java.lang.reflect.Method;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import static java.util.Collections.unmodifiableMap;
+
+/**
+ * The live statistics of an {@link AutoBundle}, only created when
+ * {@link AutoBundle.Builder#collectStats(boolean)} is enabled.
+ */
+final class Metrics {
+    final StripedCounter bindingCacheHits = new StripedCounter();
+    final StripedCounter bindingCacheMisses = new StripedCounter();
+    final StripedCounter classLoadFailures = new StripedCounter();
+    final StripedCounter factoryCacheHits = new StripedCounter();
+    final StripedCounter factoryCacheMisses = new StripedCounter();
+    final LatencyHistogram parseLatency = new LatencyHistogram();
+    private final ConcurrentMap<Class<?>, LatencyHistogram> bindLatencies = new ConcurrentHashMap<>();
+    private final ConcurrentMap<Method, LatencyHistogram> invokeLatencies = new ConcurrentHashMap<>();
+
+    void recordBind(Class<?> targetClass, long nanos) {
+        histogram(bindLatencies, targetClass).record(nanos);
+    }
+
+    /**
+     * Returns the histogram of a service method, looked up once per method by the proxy.
+     */
+    LatencyHistogram invokeLatency(Method method) {
+        return histogram(invokeLatencies, method);
+    }
+
+    private static <K> LatencyHistogram histogram(ConcurrentMap<K, LatencyHistogram> histograms, K key) {
+        LatencyHistogram histogram = histograms.get(key);
+        if (histogram == null) {
+            histogram = new LatencyHistogram();
+            LatencyHistogram existing = histograms.putIfAbsent(key, histogram);
+            if (existing != null) {
+                histogram = existing;
+            }
+        }
+        return histogram;
+    }
+
+    void evict(ClassLoader classLoader) {
+        for (Iterator<Class<?>> it = bindLatencies.keySet().iterator(); it.hasNext(); ) {
+            if (Utils.isLoadedBy(it.next(), classLoader)) {
+                it.remove();
+            }
+        }
+        for (Iterator<Method> it = invokeLatencies.keySet().iterator(); it.hasNext(); ) {
+            if (Utils.isLoadedBy(it.next().getDeclaringClass(), classLoader)) {
+                it.remove();
+            }
+        }
+    }
+
+    AutoBundleStats snapshot() {
+        Map<Class<?>, AutoBundleStats.Latency> binds = new HashMap<>();
+        for (Map.Entry<Class<?>, LatencyHistogram> entry : bindLatencies.entrySet()) {
+            binds.put(entry.getKey(), entry.getValue().snapshot());
+        }
+        Map<Method, AutoBundleStats.Latency> invokes = new HashMap<>();
+        for (Map.Entry<Method, LatencyHistogram> entry : invokeLatencies.entrySet()) {
+            invokes.put(entry.getKey(), entry.getValue().snapshot());
+        }
+        return new AutoBundleStats(bindingCacheHits.sum(), bindingCacheMisses.sum(),
+                classLoadFailures.sum(), factoryCacheHits.sum(), factoryCacheMisses.sum(),
+                parseLatency.snapshot(), unmodifiableMap(binds), unmodifiableMap(invokes));
+    }
+}
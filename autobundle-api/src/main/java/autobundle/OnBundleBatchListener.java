@@ -0,0 +1,19 @@
+package autobundle;
+
+import android.os.Bundle;
+
+/**
+ * Receives every Bundle created by a service method in a single callback, instead of one
+ * {@link OnBundleListener#onBundling} call per parameter.
+ */
+public interface OnBundleBatchListener {
+
+    /**
+     * Called after all parameters were put into {@code bundle}. {@code keys} and {@code values} are
+     * in parameter order. {@code keys} is the same array for every call of the service method, so
+     * it must not be modified. {@code values} holds the arguments of this call only, primitives
+     * boxed: it is the argument array of the proxy call, or the array the generated implementation
+     * filled for it. It is not reused by later calls and may be kept, but must not be modified.
+     */
+    void onBundled(int flag, String[] keys, Object[] values, Bundle bundle);
+}
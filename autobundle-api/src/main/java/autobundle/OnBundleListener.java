@@ -9,6 +9,13 @@ import android.support.annotation.Nullable;
  * 功能描述：
  */
 public interface OnBundleListener {
+    /**
+     * Callbacks of {@link AutoBundle.Builder#addOnBundleListener(OnBundleListener, int)}, a
+     * listener is not called for callbacks it did not ask for.
+     */
+    int ON_BUNDLING = 1;
+    int ON_COMPLETED = 1 << 1;
+    int ALL = ON_BUNDLING | ON_COMPLETED;
 
     void onBundling(int flag, String key, @Nullable Object value, boolean required);
 
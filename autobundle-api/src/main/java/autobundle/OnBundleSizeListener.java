@@ -0,0 +1,14 @@
+package autobundle;
+
+/**
+ * Receives the measured size of Bundles created by service methods, see
+ * {@link AutoBundle.Builder#addOnBundleSizeListener(OnBundleSizeListener)}.
+ */
+public interface OnBundleSizeListener {
+
+    /**
+     * Called on the thread of the service method, or on the executor of a
+     * {@link BundleSizeBudget#sample sampling} budget, before a budget is enforced.
+     */
+    void onBundleSize(BundleSize size);
+}
@@ -0,0 +1,15 @@
+package autobundle;
+
+import java.lang.reflect.Method;
+
+/**
+ * Reports service methods that fail background validation, see
+ * {@link AutoBundle.Builder#validateEagerly(java.util.concurrent.Executor, OnValidateListener)}.
+ */
+public interface OnValidateListener {
+
+    /**
+     * Called on the validation executor. The same error is thrown by every call of {@code method}.
+     */
+    void onValidateFailed(Method method, RuntimeException error);
+}
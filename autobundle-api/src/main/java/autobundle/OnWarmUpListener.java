@@ -0,0 +1,14 @@
+package autobundle;
+
+/**
+ * Reports the result of {@link AutoBundle#warmUp}, called on the thread of the warm-up executor.
+ */
+public interface OnWarmUpListener {
+
+    /**
+     * @param elapsedMillis time spent loading bindings and parsing service methods
+     * @param bindingCount  number of target classes whose binding was loaded
+     * @param methodCount   number of service methods whose {@link BundleFactory} was built
+     */
+    void onWarmUp(long elapsedMillis, int bindingCount, int methodCount);
+}
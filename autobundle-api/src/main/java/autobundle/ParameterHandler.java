@@ -1,6 +1,5 @@
 package autobundle;
 
-import android.os.Bundle;
 import android.support.annotation.Nullable;
 
 import java.lang.annotation.Annotation;
@@ -10,10 +9,76 @@ import java.lang.reflect.Type;
 /**
  * 创建时间：2019/4/11
  * 编写人： chengxin
- * 功能描述：call bundle.putXXX() method in{@link #apply(Bundle, String, Object, boolean)}
+ * 功能描述：call sink.putXXX() method in{@link #apply(KeyValueSink, String, Object, boolean)}
+ * Handlers written for {@code apply(Bundle, String, Object, boolean)} extend
+ * {@link BundleParameterHandler} instead.
  */
 public interface ParameterHandler<T> {
-    void apply(Bundle bundle, String key, @Nullable T value, boolean required);
+    void apply(KeyValueSink sink, String key, @Nullable T value, boolean required);
+
+    /**
+     * A {@link ParameterHandler} of {@code boolean} parameters. Service methods call
+     * {@link #applyBoolean(KeyValueSink, String, boolean)} with the unboxed argument.
+     */
+    interface OfBoolean extends ParameterHandler<Boolean> {
+        void applyBoolean(KeyValueSink sink, String key, boolean value);
+    }
+
+    /**
+     * A {@link ParameterHandler} of {@code byte} parameters. Service methods call
+     * {@link #applyByte(KeyValueSink, String, byte)} with the unboxed argument.
+     */
+    interface OfByte extends ParameterHandler<Byte> {
+        void applyByte(KeyValueSink sink, String key, byte value);
+    }
+
+    /**
+     * A {@link ParameterHandler} of {@code short} parameters. Service methods call
+     * {@link #applyShort(KeyValueSink, String, short)} with the unboxed argument.
+     */
+    interface OfShort extends ParameterHandler<Short> {
+        void applyShort(KeyValueSink sink, String key, short value);
+    }
+
+    /**
+     * A {@link ParameterHandler} of {@code char} parameters. Service methods call
+     * {@link #applyChar(KeyValueSink, String, char)} with the unboxed argument.
+     */
+    interface OfChar extends ParameterHandler<Character> {
+        void applyChar(KeyValueSink sink, String key, char value);
+    }
+
+    /**
+     * A {@link ParameterHandler} of {@code int} parameters. Service methods call
+     * {@link #applyInt(KeyValueSink, String, int)} with the unboxed argument.
+     */
+    interface OfInt extends ParameterHandler<Integer> {
+        void applyInt(KeyValueSink sink, String key, int value);
+    }
+
+    /**
+     * A {@link ParameterHandler} of {@code long} parameters. Service methods call
+     * {@link #applyLong(KeyValueSink, String, long)} with the unboxed argument.
+     */
+    interface OfLong extends ParameterHandler<Long> {
+        void applyLong(KeyValueSink sink, String key, long value);
+    }
+
+    /**
+     * A {@link ParameterHandler} of {@code float} parameters. Service methods call
+     * {@link #applyFloat(KeyValueSink, String, float)} with the unboxed argument.
+     */
+    interface OfFloat extends ParameterHandler<Float> {
+        void applyFloat(KeyValueSink sink, String key, float value);
+    }
+
+    /**
+     * A {@link ParameterHandler} of {@code double} parameters. Service methods call
+     * {@link #applyDouble(KeyValueSink, String, double)} with the unboxed argument.
+     */
+    interface OfDouble extends ParameterHandler<Double> {
+        void applyDouble(KeyValueSink sink, String key, double value);
+    }
 
     /**
      * Creates {@link ParameterHandler} instances based on a type and target usage.
@@ -23,7 +88,9 @@ public interface ParameterHandler<T> {
         /**
          * Returns a {@link ParameterHandler} for applying {@code type} to an Bundle value, or null if
          * {@code type} cannot be handled by this factory. This is used to create parameterHandler for types
-         * specified by {@link autobundle.annotation.Box @Box} values.
+         * specified by {@link autobundle.annotation.Box @Box} values. The result is shared by all
+         * parameters with the same type and annotations, not counting {@code @Box} and
+         * {@link autobundle.annotation.BundleFlag @BundleFlag}, so it must not depend on their values.
          */
         @Nullable
         public abstract ParameterHandler<?> get(Type type, Annotation[] parameterAnnotations, Annotation[] methodAnnotations);
@@ -0,0 +1,168 @@
+package autobundle;
+
+import android.support.annotation.Nullable;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+
+import autobundle.annotation.Box;
+import autobundle.annotation.BundleFlag;
+
+/**
+ * Resolves the {@link ParameterHandler} of a parameter once per parameter type, instead of asking
+ * every {@link ParameterHandler.Factory} for every parameter of every method. The built-in
+ * factories only look at the type; once custom factories are added the key also includes the
+ * annotations, except {@link Box @Box} and {@link BundleFlag @BundleFlag} whose values only name
+ * the key and flag of a parameter.
+ */
+final class ParameterHandlerCache {
+    private static final Annotation[] EMPTY_ANNOTATIONS = new Annotation[0];
+
+    private final List<ParameterHandler.Factory> factories;
+    private final boolean keyByAnnotations;
+    private final ConcurrentMap<Object, ParameterHandler<?>> handlers = new ConcurrentHashMap<>();
+    // Keys of handlers, oldest first, only recorded if bounded.
+    private final Queue<Object> order = new ConcurrentLinkedQueue<>();
+    // See AutoBundle.Builder#maxCacheSize(int), 0 if unbounded.
+    private final int maxSize;
+
+    ParameterHandlerCache(List<ParameterHandler.Factory> factories, int maxSize) {
+        this.factories = factories;
+        this.maxSize = maxSize;
+        boolean keyByAnnotations = false;
+        for (ParameterHandler.Factory factory : factories) {
+            if (factory != BuiltInHandlerFactory.INSTANCE && factory != BestGuessHandlerFactory.INSTANCE) {
+                keyByAnnotations = true;
+            }
+        }
+        this.keyByAnnotations = keyByAnnotations;
+    }
+
+    /**
+     * Returns the handler of the first factory that supports {@code type}, or null if none does.
+     */
+    @Nullable
+    ParameterHandler<?> get(Type type, @Nullable Annotation[] parameterAnnotations, Annotation[] methodAnnotations) {
+        Object key = keyByAnnotations
+                ? new Key(type, relevant(parameterAnnotations), relevant(methodAnnotations))
+                : type;
+        ParameterHandler<?> handler = handlers.get(key);
+        if (handler != null) {
+            return handler;
+        }
+        for (ParameterHandler.Factory factory : factories) {
+            handler = factory.get(type, parameterAnnotations, methodAnnotations);
+            if (handler != null) {
+                break;
+            }
+        }
+        if (handler == null) {
+            return null;
+        }
+        ParameterHandler<?> existing = handlers.putIfAbsent(key, handler);
+        if (existing != null) {
+            return existing;
+        }
+        Utils.trimToSize(handlers, order, key, maxSize);
+        return handler;
+    }
+
+    /**
+     * Drops the handlers of types that refer to classes loaded by {@code classLoader}.
+     */
+    void evict(ClassLoader classLoader) {
+        evict(handlers.keySet().iterator(), classLoader);
+        evict(order.iterator(), classLoader);
+    }
+
+    private static void evict(Iterator<Object> keys, ClassLoader classLoader) {
+        while (keys.hasNext()) {
+            Object key = keys.next();
+            boolean loaded = key instanceof Key
+                    ? ((Key) key).isLoadedBy(classLoader)
+                    : Utils.isLoadedBy((Type) key, classLoader);
+            if (loaded) {
+                keys.remove();
+            }
+        }
+    }
+
+    @Nullable
+    private static Annotation[] relevant(@Nullable Annotation[] annotations) {
+        if (annotations == null) {
+            return null;
+        }
+        List<Annotation> result = null;
+        for (int i = 0; i < annotations.length; i++) {
+            Annotation annotation = annotations[i];
+            if (annotation instanceof Box || annotation instanceof BundleFlag) {
+                if (result == null) {
+                    result = new ArrayList<>(Arrays.asList(annotations).subList(0, i));
+                }
+            } else if (result != null) {
+                result.add(annotation);
+            }
+        }
+        if (result == null) {
+            return annotations;
+        }
+        return result.isEmpty() ? EMPTY_ANNOTATIONS : result.toArray(new Annotation[result.size()]);
+    }
+
+    private static final class Key {
+        private final Type type;
+        @Nullable
+        private final Annotation[] parameterAnnotations;
+        @Nullable
+        private final Annotation[] methodAnnotations;
+        private final int hashCode;
+
+        Key(Type type, @Nullable Annotation[] parameterAnnotations, @Nullable Annotation[] methodAnnotations) {
+            this.type = type;
+            this.parameterAnnotations = parameterAnnotations;
+            this.methodAnnotations = methodAnnotations;
+            this.hashCode = 31 * (31 * type.hashCode() + Arrays.hashCode(parameterAnnotations))
+                    + Arrays.hashCode(methodAnnotations);
+        }
+
+        boolean isLoadedBy(ClassLoader classLoader) {
+            return Utils.isLoadedBy(type, classLoader)
+                    || isLoadedBy(parameterAnnotations, classLoader)
+                    || isLoadedBy(methodAnnotations, classLoader);
+        }
+
+        private static boolean isLoadedBy(@Nullable Annotation[] annotations, ClassLoader classLoader) {
+            if (annotations != null) {
+                for (Annotation annotation : annotations) {
+                    if (Utils.isLoadedBy(annotation.annotationType(), classLoader)) {
+                        return true;
+                    }
+                }
+            }
+            return false;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key)) return false;
+            Key other = (Key) o;
+            return type.equals(other.type)
+                    && Arrays.equals(parameterAnnotations, other.parameterAnnotations)
+                    && Arrays.equals(methodAnnotations, other.methodAnnotations);
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package autobundle;
+
+import java.util.List;
+
+/**
+ * A snapshot of the sampled marshal and unmarshal times of Bundle values, per key and value type,
+ * see {@link AutoBundle.Builder#profileSerialization(int, java.util.concurrent.Executor)}.
+ */
+public final class SerializationProfile {
+    private final List<Entry> entries;
+
+    SerializationProfile(List<Entry> entries) {
+        this.entries = entries;
+    }
+
+    /**
+     * Returns every profiled key and type, the most expensive first.
+     */
+    public List<Entry> getEntries() {
+        return entries;
+    }
+
+    /**
+     * Returns the {@code limit} most expensive keys and types, usually the parameters to move to
+     * a faster encoding such as Parcelable.
+     */
+    public List<Entry> getWorstOffenders(int limit) {
+        return entries.subList(0, Math.min(Math.max(limit, 0), entries.size()));
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder("SerializationProfile{");
+        for (Entry entry : getWorstOffenders(10)) {
+            builder.append("\n  ").append(entry);
+        }
+        return builder.append('}').toString();
+    }
+
+    public static final class Entry {
+        private final String key;
+        private final Class<?> type;
+        private final long totalBytes;
+        private final AutoBundleStats.Latency marshalLatency;
+        private final AutoBundleStats.Latency unmarshalLatency;
+
+        Entry(String key, Class<?> type, long totalBytes, AutoBundleStats.Latency marshalLatency,
+              AutoBundleStats.Latency unmarshalLatency) {
+            this.key = key;
+            this.type = type;
+            this.totalBytes = totalBytes;
+            this.marshalLatency = marshalLatency;
+            this.unmarshalLatency = unmarshalLatency;
+        }
+
+        public String getKey() {
+            return key;
+        }
+
+        /**
+         * The class of the sampled values.
+         */
+        public Class<?> getType() {
+            return type;
+        }
+
+        public long getSampleCount() {
+            return marshalLatency.getCount();
+        }
+
+        public long getMeanBytes() {
+            long count = getSampleCount();
+            return count != 0 ? totalBytes / count : 0;
+        }
+
+        /**
+         * Time of writing the value to a Parcel, as done when the Bundle is sent.
+         */
+        public AutoBundleStats.Latency getMarshalLatency() {
+            return marshalLatency;
+        }
+
+        /**
+         * Time of reading the value from a Parcel, as done by the first get of the received Bundle.
+         */
+        public AutoBundleStats.Latency getUnmarshalLatency() {
+            return unmarshalLatency;
+        }
+
+        /**
+         * The sum of all sampled marshal and unmarshal times, the order of {@link #getEntries()}.
+         */
+        public long getTotalNanos() {
+            return marshalLatency.getTotalNanos() + unmarshalLatency.getTotalNanos();
+        }
+
+        @Override
+        public String toString() {
+            return key + " (" + type.getName() + "): samples=" + getSampleCount()
+                    + ", meanBytes=" + getMeanBytes()
+                    + ", meanMarshalNanos=" + marshalLatency.getMeanNanos()
+                    + ", meanUnmarshalNanos=" + unmarshalLatency.getMeanNanos();
+        }
+    }
+}
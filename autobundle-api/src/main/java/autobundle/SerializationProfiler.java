@@ -0,0 +1,176 @@
+package autobundle;
+
+import android.content.Intent;
+import android.os.Bundle;
+import android.os.Parcel;
+import android.support.annotation.Nullable;
+import android.util.Log;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Samples the Bundles created by service methods and bound to targets, and times writing each
+ * value to a Parcel and reading it back on an executor. Only created when
+ * {@link AutoBundle.Builder#profileSerialization(int, Executor)} is enabled.
+ */
+final class SerializationProfiler {
+    private final int sampleInterval;
+    private final Executor executor;
+    private final AtomicInteger sampleCount = new AtomicInteger();
+    private final ConcurrentMap<KeyType, Samples> samples = new ConcurrentHashMap<>();
+
+    SerializationProfiler(int sampleInterval, Executor executor) {
+        this.sampleInterval = sampleInterval;
+        this.executor = executor;
+    }
+
+    /**
+     * Samples a Bundle created by a service method or passed to bind.
+     */
+    void sample(Bundle bundle, @Nullable ClassLoader classLoader) {
+        if (sampleNext()) {
+            // The caller may modify or send the Bundle while it is profiled.
+            profileLater(new Bundle(bundle), classLoader);
+        }
+    }
+
+    /**
+     * Samples the extras of an Intent passed to bind.
+     */
+    void sample(Intent intent, @Nullable ClassLoader classLoader) {
+        if (sampleNext()) {
+            Bundle extras = intent.getExtras();
+            if (extras != null) {
+                profileLater(extras, classLoader);
+            }
+        }
+    }
+
+    private boolean sampleNext() {
+        return (sampleCount.getAndIncrement() & Integer.MAX_VALUE) % sampleInterval == 0;
+    }
+
+    private void profileLater(final Bundle bundle, @Nullable final ClassLoader classLoader) {
+        executor.execute(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    profile(bundle, classLoader);
+                } catch (RuntimeException e) {
+                    Log.w(AutoBundle.TAG, "Unable to profile Bundle", e);
+                }
+            }
+        });
+    }
+
+    private void profile(Bundle bundle, @Nullable ClassLoader classLoader) {
+        if (classLoader != null) {
+            bundle.setClassLoader(classLoader);
+        }
+        Parcel parcel = Parcel.obtain();
+        try {
+            for (String key : bundle.keySet()) {
+                Object value = bundle.get(key);
+                if (value == null) {
+                    continue;
+                }
+                parcel.setDataPosition(0);
+                parcel.setDataSize(0);
+                long start = System.nanoTime();
+                parcel.writeValue(value);
+                long marshalled = System.nanoTime();
+                int bytes = parcel.dataSize();
+                parcel.setDataPosition(0);
+                parcel.readValue(value.getClass().getClassLoader());
+                long unmarshalled = System.nanoTime();
+                samplesOf(key, value.getClass()).record(bytes, marshalled - start, unmarshalled - marshalled);
+            }
+        } finally {
+            parcel.recycle();
+        }
+    }
+
+    private Samples samplesOf(String key, Class<?> type) {
+        KeyType keyType = new KeyType(key, type);
+        Samples result = samples.get(keyType);
+        if (result == null) {
+            result = new Samples();
+            Samples existing = samples.putIfAbsent(keyType, result);
+            if (existing != null) {
+                result = existing;
+            }
+        }
+        return result;
+    }
+
+    void evict(ClassLoader classLoader) {
+        for (Iterator<KeyType> it = samples.keySet().iterator(); it.hasNext(); ) {
+            if (Utils.isLoadedBy(it.next().type, classLoader)) {
+                it.remove();
+            }
+        }
+    }
+
+    SerializationProfile snapshot() {
+        List<SerializationProfile.Entry> entries = new ArrayList<>();
+        for (Map.Entry<KeyType, Samples> entry : samples.entrySet()) {
+            Samples value = entry.getValue();
+            entries.add(new SerializationProfile.Entry(entry.getKey().key, entry.getKey().type,
+                    value.totalBytes.sum(), value.marshal.snapshot(), value.unmarshal.snapshot()));
+        }
+        Collections.sort(entries, new Comparator<SerializationProfile.Entry>() {
+            @Override
+            public int compare(SerializationProfile.Entry e1, SerializationProfile.Entry e2) {
+                long n1 = e1.getTotalNanos();
+                long n2 = e2.getTotalNanos();
+                return n1 > n2 ? -1 : (n1 == n2 ? 0 : 1);
+            }
+        });
+        return new SerializationProfile(Collections.unmodifiableList(entries));
+    }
+
+    private static final class Samples {
+        final StripedCounter totalBytes = new StripedCounter();
+        final LatencyHistogram marshal = new LatencyHistogram();
+        final LatencyHistogram unmarshal = new LatencyHistogram();
+
+        void record(int bytes, long marshalNanos, long unmarshalNanos) {
+            totalBytes.add(bytes);
+            marshal.record(marshalNanos);
+            unmarshal.record(unmarshalNanos);
+        }
+    }
+
+    private static final class KeyType {
+        final String key;
+        final Class<?> type;
+
+        KeyType(String key, Class<?> type) {
+            this.key = key;
+            this.type = type;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof KeyType)) {
+                return false;
+            }
+            KeyType other = (KeyType) o;
+            return key.equals(other.key) && type == other.type;
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * key.hashCode() + type.hashCode();
+        }
+    }
+}
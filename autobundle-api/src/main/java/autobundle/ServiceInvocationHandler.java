@@ -0,0 +1,130 @@
+package autobundle;
+
+import android.support.annotation.Nullable;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+
+/**
+ * Dispatches the calls of a {@link AutoBundle#create created} service to the {@link BundleFactory}
+ * of each method. The methods of the service are classified once when the proxy is created, a
+ * call then only looks up its {@link MethodEntry}. Methods validated in the background are awaited
+ * individually.
+ */
+final class ServiceInvocationHandler implements InvocationHandler {
+    private static final int OBJECT_METHOD = 0;
+    private static final int DEFAULT_METHOD = 1;
+    private static final int SERVICE_METHOD = 2;
+
+    private final Object[] emptyArgs = new Object[0];
+    private final AutoBundle autoBundle;
+    // Every method of the service and of Object, never modified after construction, so it is read
+    // without locking. Keyed by equality: ART passes a new Method instance on every call.
+    private final Map<Method, MethodEntry> entries;
+
+    ServiceInvocationHandler(AutoBundle autoBundle, Class<?> service,
+                             Map<Method, Future<BundleFactory>> validations) {
+        this.autoBundle = autoBundle;
+        Map<Method, MethodEntry> entries = new HashMap<>();
+        for (Method method : Object.class.getMethods()) {
+            entries.put(method, new MethodEntry(method, OBJECT_METHOD, null, null));
+        }
+        for (Method method : service.getMethods()) {
+            int kind = Utils.isDefaultMethod(method) ? DEFAULT_METHOD : SERVICE_METHOD;
+            entries.put(method, new MethodEntry(method, kind, validations.get(method),
+                    invokeLatency(kind, method)));
+        }
+        this.entries = entries;
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, @Nullable Object[] args) throws Throwable {
+        MethodEntry entry = entries.get(method);
+        if (entry == null) {
+            entry = unknownEntry(method);
+        }
+        switch (entry.kind) {
+            case SERVICE_METHOD:
+                BundleFactory bundleFactory = entry.bundleFactory;
+                if (bundleFactory == null) {
+                    bundleFactory = loadBundleFactory(entry);
+                    entry.bundleFactory = bundleFactory;
+                }
+                LatencyHistogram invokeLatency = entry.invokeLatency;
+                if (invokeLatency == null) {
+                    return bundleFactory.invoke(args != null ? args : emptyArgs);
+                }
+                long start = System.nanoTime();
+                Object bundle = bundleFactory.invoke(args != null ? args : emptyArgs);
+                invokeLatency.record(System.nanoTime() - start);
+                return bundle;
+            case DEFAULT_METHOD:
+                return Utils.invokeDefaultMethod(method, proxy, args != null ? args : emptyArgs);
+            default:
+                // If the method is a method from Object then defer to normal invocation.
+                return method.invoke(this, args);
+        }
+    }
+
+    // Not a method of the service, e.g. from a different class loader. Its bundle factory is still
+    // cached by the AutoBundle.
+    private MethodEntry unknownEntry(Method method) {
+        int kind = method.getDeclaringClass() == Object.class ? OBJECT_METHOD
+                : Utils.isDefaultMethod(method) ? DEFAULT_METHOD : SERVICE_METHOD;
+        return new MethodEntry(method, kind, null, invokeLatency(kind, method));
+    }
+
+    @Nullable
+    private LatencyHistogram invokeLatency(int kind, Method method) {
+        Metrics metrics = autoBundle.metrics;
+        return metrics != null && kind == SERVICE_METHOD ? metrics.invokeLatency(method) : null;
+    }
+
+    private BundleFactory loadBundleFactory(MethodEntry entry) {
+        Future<BundleFactory> validation = entry.validation;
+        if (validation == null) {
+            return autoBundle.loadBundleFactory(entry.method);
+        }
+        try {
+            // Only waits while this method is still being validated.
+            return validation.get();
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new RuntimeException("Unable to validate method.", cause);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return autoBundle.loadBundleFactory(entry.method);
+        }
+    }
+
+    private static final class MethodEntry {
+        final Method method;
+        final int kind;
+        @Nullable
+        final Future<BundleFactory> validation;
+        // Only set when the AutoBundle collects stats.
+        @Nullable
+        final LatencyHistogram invokeLatency;
+        // Resolved on the first call, racing threads resolve the same cached instance.
+        @Nullable
+        volatile BundleFactory bundleFactory;
+
+        MethodEntry(Method method, int kind, @Nullable Future<BundleFactory> validation,
+                    @Nullable LatencyHistogram invokeLatency) {
+            this.method = method;
+            this.kind = kind;
+            this.validation = validation;
+            this.invokeLatency = invokeLatency;
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package autobundle;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A counter incremented from many threads without contending on one memory location. Each thread
+ * adds to one of several cells, padded to their own cache line, and {@link #sum()} adds the cells
+ * up. Reads are not atomic with concurrent increments, which is fine for statistics.
+ */
+final class StripedCounter {
+    // Longs per cell, 8 longs fill a 64 byte cache line.
+    private static final int PADDING = 8;
+    private static final int STRIPES = stripes();
+
+    private final AtomicLongArray cells = new AtomicLongArray(STRIPES * PADDING);
+
+    private static int stripes() {
+        int processors = Runtime.getRuntime().availableProcessors();
+        int stripes = 1;
+        while (stripes < processors * 2 && stripes < 64) {
+            stripes <<= 1;
+        }
+        return stripes;
+    }
+
+    void increment() {
+        add(1);
+    }
+
+    void add(long delta) {
+        cells.getAndAdd(cellIndex(), delta);
+    }
+
+    long sum() {
+        long sum = 0;
+        for (int i = 0; i < STRIPES; i++) {
+            sum += cells.get(i * PADDING);
+        }
+        return sum;
+    }
+
+    private static int cellIndex() {
+        long id = Thread.currentThread().getId();
+        int hash = (int) (id ^ (id >>> 32)) * 0x9E3779B9;
+        return ((hash ^ (hash >>> 16)) & (STRIPES - 1)) * PADDING;
+    }
+}
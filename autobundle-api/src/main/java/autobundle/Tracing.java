@@ -0,0 +1,78 @@
+package autobundle;
+
+import android.annotation.TargetApi;
+import android.os.Trace;
+import android.support.annotation.Nullable;
+
+import java.lang.reflect.Method;
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Emits {@link Trace} sections, only created when {@link AutoBundle.Builder#trace(boolean)} is
+ * enabled on API 18+. Labels are built once per class or method, so a traced call does not
+ * allocate.
+ */
+@TargetApi(18)
+final class Tracing {
+    // Longer section names are rejected by Trace.beginSection().
+    private static final int MAX_LABEL_LENGTH = 127;
+
+    private final ConcurrentMap<Class<?>, String> bindLabels = new ConcurrentHashMap<>();
+
+    @Nullable
+    static Tracing create(boolean enabled) {
+        return enabled && Utils.SDK_INT >= 18 ? new Tracing() : null;
+    }
+
+    String bindLabel(Class<?> targetClass) {
+        String label = bindLabels.get(targetClass);
+        if (label == null) {
+            label = label("AutoBundle.bind ", targetClass.getName());
+            bindLabels.putIfAbsent(targetClass, label);
+        }
+        return label;
+    }
+
+    static String findBindingLabel(Class<?> cls) {
+        return label("AutoBundle.findBinding ", cls.getName());
+    }
+
+    static String createLabel(Class<?> service) {
+        return label("AutoBundle.create ", service.getName());
+    }
+
+    static String parseLabel(Method method) {
+        return label("AutoBundle.parse ", methodName(method));
+    }
+
+    static String invokeLabel(Method method) {
+        return label("AutoBundle.invoke ", methodName(method));
+    }
+
+    private static String methodName(Method method) {
+        return method.getDeclaringClass().getSimpleName() + "." + method.getName();
+    }
+
+    private static String label(String prefix, String name) {
+        String label = prefix + name;
+        return label.length() <= MAX_LABEL_LENGTH ? label : label.substring(0, MAX_LABEL_LENGTH);
+    }
+
+    static void begin(String label) {
+        Trace.beginSection(label);
+    }
+
+    static void end() {
+        Trace.endSection();
+    }
+
+    void evict(ClassLoader classLoader) {
+        for (Iterator<Class<?>> it = bindLabels.keySet().iterator(); it.hasNext(); ) {
+            if (Utils.isLoadedBy(it.next(), classLoader)) {
+                it.remove();
+            }
+        }
+    }
+}
@@ -1,10 +1,15 @@
 package autobundle;
 
+import android.annotation.TargetApi;
 import android.os.Build;
 import android.support.annotation.Nullable;
+import android.util.Log;
 
 import java.lang.annotation.Annotation;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodHandles.Lookup;
 import java.lang.reflect.Array;
+import java.lang.reflect.Constructor;
 import java.lang.reflect.GenericArrayType;
 import java.lang.reflect.GenericDeclaration;
 import java.lang.reflect.Method;
@@ -14,6 +19,8 @@ import java.lang.reflect.TypeVariable;
 import java.lang.reflect.WildcardType;
 import java.util.Arrays;
 import java.util.NoSuchElementException;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentMap;
 
 /**
  * 创建时间：2019/4/9
@@ -23,6 +30,11 @@ import java.util.NoSuchElementException;
 class Utils {
 
     private static final Type[] EMPTY_TYPE_ARRAY = new Type[0];
+    // True on Android. Elsewhere, e.g. the benchmarks and tests run against android-all on a JVM,
+    // Build can't be read: its static initializer calls native SystemProperties.
+    static final boolean ANDROID = "Dalvik".equals(System.getProperty("java.vm.name"));
+    // Build.VERSION.SDK_INT, or 0 off Android.
+    static final int SDK_INT = ANDROID ? Build.VERSION.SDK_INT : 0;
 
     private Utils() {
         // No instances.
@@ -42,6 +54,15 @@ class Utils {
         return object;
     }
 
+    // Log is native off Android too.
+    static void warn(String message) {
+        if (ANDROID) {
+            Log.w(AutoBundle.TAG, message);
+        } else {
+            System.err.println(AutoBundle.TAG + ": " + message);
+        }
+    }
+
     static void checkState(final boolean expression, String message) {
         if (!expression) {
             throw new IllegalStateException(message);
@@ -72,12 +93,145 @@ class Utils {
     }
 
     static boolean isDefaultMethod(Method method) {
-        if (Build.VERSION.SDK_INT < 24) {
+        // Off Android the JVM runs Java 8 or later.
+        if (ANDROID && SDK_INT < 24) {
             return false;
         }
         return method.isDefault();
     }
 
+    @Nullable
+    private static volatile Constructor<Lookup> lookupConstructor;
+    // MethodHandles.privateLookupIn, on JVMs since Java 9 only.
+    @Nullable
+    private static final Method PRIVATE_LOOKUP_IN = ANDROID ? null : privateLookupIn();
+
+    /**
+     * Calls the default implementation of {@code method} on {@code proxy}. Method handles can only
+     * call a default method through a trusted {@link Lookup}, which is not available before API 26.
+     */
+    @TargetApi(26)
+    @Nullable
+    static Object invokeDefaultMethod(Method method, Object proxy, Object[] args) throws Throwable {
+        if (ANDROID && SDK_INT < 26) {
+            throw new UnsupportedOperationException(
+                    "Calling default methods on API 24 and 25 is not supported");
+        }
+        Class<?> declaringClass = method.getDeclaringClass();
+        return lookup(declaringClass)
+                .unreflectSpecial(method, declaringClass)
+                .bindTo(proxy)
+                .invokeWithArguments(args);
+    }
+
+    /**
+     * Returns a {@link Lookup} with private access to {@code declaringClass}. Java 9 and later
+     * refuse to make the trusted constructor accessible, there privateLookupIn gives that access.
+     */
+    @TargetApi(26)
+    private static Lookup lookup(Class<?> declaringClass) throws ReflectiveOperationException {
+        if (PRIVATE_LOOKUP_IN != null) {
+            return (Lookup) PRIVATE_LOOKUP_IN.invoke(null, declaringClass, MethodHandles.lookup());
+        }
+        Constructor<Lookup> constructor = lookupConstructor;
+        if (constructor == null) {
+            constructor = Lookup.class.getDeclaredConstructor(Class.class, int.class);
+            constructor.setAccessible(true);
+            lookupConstructor = constructor;
+        }
+        return constructor.newInstance(declaringClass, -1 /* trusted */);
+    }
+
+    @TargetApi(26)
+    @Nullable
+    private static Method privateLookupIn() {
+        try {
+            return MethodHandles.class.getMethod("privateLookupIn", Class.class, Lookup.class);
+        } catch (NoSuchMethodException e) {
+            // Java 8.
+            return null;
+        }
+    }
+
+    /**
+     * Records {@code inserted} as the newest key of {@code cache}, then removes the oldest entries
+     * until {@code cache} fits {@code maxSize}, if positive. The inserted entry, which its caller is
+     * about to return, is never removed. Evicted entries are simply resolved again.
+     */
+    static <K> void trimToSize(ConcurrentMap<K, ?> cache, Queue<K> order, K inserted, int maxSize) {
+        if (maxSize <= 0) {
+            return;
+        }
+        order.add(inserted);
+        // Each key is looked at once, keys of entries put but not yet recorded can't be trimmed.
+        for (int i = order.size(); i > 0 && cache.size() > maxSize; i--) {
+            K oldest = order.poll();
+            if (oldest == null) {
+                return;
+            }
+            if (oldest.equals(inserted)) {
+                order.add(oldest);
+            } else {
+                cache.remove(oldest);
+            }
+        }
+    }
+
+    /**
+     * Returns true if {@code type} or one of its type arguments, bounds or components is a class
+     * loaded by {@code classLoader} or one of its descendants.
+     */
+    static boolean isLoadedBy(Type type, ClassLoader classLoader) {
+        if (type instanceof Class<?>) {
+            Class<?> cls = (Class<?>) type;
+            while (cls.isArray()) {
+                cls = cls.getComponentType();
+            }
+            for (ClassLoader loader = cls.getClassLoader(); loader != null; loader = loader.getParent()) {
+                if (loader == classLoader) {
+                    return true;
+                }
+            }
+            return false;
+        }
+        if (type instanceof ParameterizedType) {
+            ParameterizedType parameterizedType = (ParameterizedType) type;
+            Type ownerType = parameterizedType.getOwnerType();
+            if (isLoadedBy(parameterizedType.getRawType(), classLoader)
+                    || ownerType != null && isLoadedBy(ownerType, classLoader)) {
+                return true;
+            }
+            return isLoadedBy(parameterizedType.getActualTypeArguments(), classLoader);
+        }
+        if (type instanceof GenericArrayType) {
+            return isLoadedBy(((GenericArrayType) type).getGenericComponentType(), classLoader);
+        }
+        if (type instanceof WildcardType) {
+            WildcardType wildcardType = (WildcardType) type;
+            return isLoadedBy(wildcardType.getUpperBounds(), classLoader)
+                    || isLoadedBy(wildcardType.getLowerBounds(), classLoader);
+        }
+        if (type instanceof TypeVariable) {
+            GenericDeclaration declaration = ((TypeVariable<?>) type).getGenericDeclaration();
+            if (declaration instanceof Class<?>) {
+                return isLoadedBy((Class<?>) declaration, classLoader);
+            }
+            if (declaration instanceof Method) {
+                return isLoadedBy(((Method) declaration).getDeclaringClass(), classLoader);
+            }
+        }
+        return false;
+    }
+
+    private static boolean isLoadedBy(Type[] types, ClassLoader classLoader) {
+        for (Type type : types) {
+            if (isLoadedBy(type, classLoader)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     static Class<?> getRawType(Type type) {
         checkNotNull(type, "type == null");
 
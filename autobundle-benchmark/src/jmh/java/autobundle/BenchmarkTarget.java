@@ -0,0 +1,35 @@
+package autobundle;
+
+import java.util.ArrayList;
+
+import autobundle.annotation.Required;
+import autobundle.annotation.Unbox;
+
+/**
+ * A target of the generated {@code BenchmarkTarget_BundleBinding}.
+ */
+public class BenchmarkTarget {
+    @Required
+    @Unbox("name")
+    String name;
+    @Unbox("int")
+    int intValue;
+    @Unbox("long")
+    long longValue;
+    @Unbox("boolean")
+    boolean booleanValue;
+    @Unbox("double")
+    double doubleValue;
+    @Unbox("stringArray")
+    String[] stringArray;
+    @Unbox("stringArrayList")
+    ArrayList<String> stringArrayList;
+    @Unbox("serializable")
+    Long serializable;
+
+    /**
+     * Has no binding of its own, so it is bound by the binding of its superclass.
+     */
+    public static class Child extends BenchmarkTarget {
+    }
+}
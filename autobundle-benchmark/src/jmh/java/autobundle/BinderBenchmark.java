@@ -0,0 +1,84 @@
+package autobundle;
+
+import android.content.Intent;
+import android.os.Bundle;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+
+/**
+ * Binds a target with the generated binding, directly and through {@link AutoBundle#bind} from a
+ * Bundle and from an Intent.
+ */
+@State(Scope.Benchmark)
+public class BinderBenchmark {
+    private AutoBundle autoBundle;
+    private IBinder binding;
+    private Bundle bundle;
+    private Intent intent;
+
+    @Setup
+    public void setUp() {
+        autoBundle = AutoBundle.builder().build();
+        binding = new BenchmarkTarget_BundleBinding();
+        bundle = new Bundle();
+        bundle.putString("name", "name");
+        bundle.putInt("int", 42);
+        bundle.putLong("long", 42L);
+        bundle.putBoolean("boolean", true);
+        bundle.putDouble("double", 4.2);
+        bundle.putStringArray("stringArray", new String[]{"a", "b"});
+        bundle.putStringArrayList("stringArrayList", new ArrayList<>(Arrays.asList("a", "b")));
+        bundle.putSerializable("serializable", 42L);
+        intent = new Intent().putExtras(bundle);
+    }
+
+    /**
+     * The AutoBundle and its caches are shared, each thread binds its own targets.
+     */
+    @State(Scope.Thread)
+    public static class Targets {
+        final BenchmarkTarget target = new BenchmarkTarget();
+        final BenchmarkTarget child = new BenchmarkTarget.Child();
+    }
+
+    @Benchmark
+    public BenchmarkTarget generatedBinding(Targets targets) {
+        binding.bind(targets.target, bundle);
+        return targets.target;
+    }
+
+    @Benchmark
+    public BenchmarkTarget bindBundle(Targets targets) {
+        autoBundle.bind(targets.target, bundle);
+        return targets.target;
+    }
+
+    @Benchmark
+    public BenchmarkTarget bindIntent(Targets targets) {
+        autoBundle.bind(targets.target, intent);
+        return targets.target;
+    }
+
+    /**
+     * The binding of the superclass, found once by walking up and then cached for the subclass.
+     */
+    @Benchmark
+    public BenchmarkTarget bindSubclass(Targets targets) {
+        autoBundle.bind(targets.child, bundle);
+        return targets.child;
+    }
+
+    @Benchmark
+    @Threads(8)
+    public BenchmarkTarget bindBundleContended(Targets targets) {
+        autoBundle.bind(targets.target, bundle);
+        return targets.target;
+    }
+}
@@ -0,0 +1,62 @@
+package autobundle;
+
+import android.os.Bundle;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+
+import java.lang.reflect.Method;
+
+/**
+ * Looks up cached binders and parsed service methods, from one thread and from many.
+ */
+@State(Scope.Benchmark)
+public class CacheLookupBenchmark {
+    /**
+     * Has no binding, so a bind only looks up the cached miss.
+     */
+    public static class Unbound {
+    }
+
+    private AutoBundle autoBundle;
+    private Bundle bundle;
+    private Unbound unbound;
+    private Method method;
+
+    @Setup
+    public void setUp() throws NoSuchMethodException {
+        autoBundle = AutoBundle.builder().build();
+        bundle = new Bundle();
+        unbound = new Unbound();
+        method = LargeService.class.getMethod("method000", String.class, int.class);
+        autoBundle.bind(unbound, bundle);
+        autoBundle.loadBundleFactory(method);
+    }
+
+    @Benchmark
+    public Object binderCacheHit() {
+        autoBundle.bind(unbound, bundle);
+        return unbound;
+    }
+
+    @Benchmark
+    @Threads(8)
+    public Object binderCacheHitContended() {
+        autoBundle.bind(unbound, bundle);
+        return unbound;
+    }
+
+    @Benchmark
+    public BundleFactory factoryCacheHit() {
+        return autoBundle.loadBundleFactory(method);
+    }
+
+    @Benchmark
+    @Threads(8)
+    public BundleFactory factoryCacheHitContended() {
+        return autoBundle.loadBundleFactory(method);
+    }
+}
@@ -0,0 +1,83 @@
+package autobundle;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Parses the 500 methods of {@link LargeService} from 8 threads into a new cache, with the lock of
+ * each method that {@link AutoBundle#loadBundleFactory(Method)} holds, and with the single lock on
+ * the whole cache it held before. Each thread starts at a different method, so threads mostly
+ * parse different methods and at times wait for the same one.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class ColdParseBenchmark {
+    private static final AtomicInteger NEXT_THREAD = new AtomicInteger();
+
+    private final Method[] methods = LargeService.class.getDeclaredMethods();
+    private AutoBundle autoBundle;
+    private Map<Method, BundleFactory> globalLockCache;
+
+    /**
+     * The first method each thread parses.
+     */
+    @State(Scope.Thread)
+    public static class Start {
+        final int offset = NEXT_THREAD.getAndIncrement() * 64;
+    }
+
+    @Setup(Level.Iteration)
+    public void newAutoBundle() {
+        autoBundle = AutoBundle.builder().build();
+        globalLockCache = new ConcurrentHashMap<>();
+    }
+
+    @Benchmark
+    @Threads(8)
+    public AutoBundle perMethodLock(Start start) {
+        for (int i = 0; i < methods.length; i++) {
+            autoBundle.loadBundleFactory(methods[(start.offset + i) % methods.length]);
+        }
+        return autoBundle;
+    }
+
+    @Benchmark
+    @Threads(8)
+    public Map<Method, BundleFactory> globalLock(Start start) {
+        for (int i = 0; i < methods.length; i++) {
+            loadWithGlobalLock(methods[(start.offset + i) % methods.length]);
+        }
+        return globalLockCache;
+    }
+
+    /**
+     * The lookup of {@link AutoBundle#loadBundleFactory(Method)} before methods were parsed in
+     * parallel.
+     */
+    private BundleFactory loadWithGlobalLock(Method method) {
+        BundleFactory result = globalLockCache.get(method);
+        if (result != null) return result;
+        synchronized (globalLockCache) {
+            result = globalLockCache.get(method);
+            if (result == null) {
+                result = BundleFactory.parseAnnotations(autoBundle, method);
+                globalLockCache.put(method, result);
+            }
+        }
+        return result;
+    }
+}
@@ -0,0 +1,90 @@
+package autobundle;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Method;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+
+import autobundle.annotation.Box;
+
+/**
+ * Resolves the {@link ParameterHandler} of a parameter type through the factories, and through
+ * the {@link ParameterHandlerCache} with and without custom factories.
+ */
+@State(Scope.Benchmark)
+public class HandlerResolutionBenchmark {
+
+    interface Types {
+        void types(@Box("int") int i, @Box("string") String s,
+                   @Box("list") ArrayList<String> list, @Box("date") Date date);
+    }
+
+    @Param({"int", "string", "list", "date"})
+    public String type;
+
+    private Type parameterType;
+    private Annotation[] parameterAnnotations;
+    private final Annotation[] methodAnnotations = new Annotation[0];
+    private List<ParameterHandler.Factory> factories;
+    private ParameterHandlerCache builtInCache;
+    private ParameterHandlerCache customCache;
+
+    @Setup
+    public void setUp() throws NoSuchMethodException {
+        Method method = Types.class.getDeclaredMethod("types",
+                int.class, String.class, ArrayList.class, Date.class);
+        int index = Arrays.asList("int", "string", "list", "date").indexOf(type);
+        parameterType = method.getGenericParameterTypes()[index];
+        parameterAnnotations = method.getParameterAnnotations()[index];
+
+        factories = Arrays.<ParameterHandler.Factory>asList(
+                BuiltInHandlerFactory.INSTANCE, BestGuessHandlerFactory.INSTANCE);
+        builtInCache = new ParameterHandlerCache(factories, 0);
+        // A custom factory makes the cache key include the annotations.
+        customCache = new ParameterHandlerCache(Arrays.asList(BuiltInHandlerFactory.INSTANCE,
+                new ParameterHandler.Factory() {
+                    @Override
+                    public ParameterHandler<?> get(Type type, Annotation[] parameterAnnotations,
+                                                   Annotation[] methodAnnotations) {
+                        return null;
+                    }
+                }, BestGuessHandlerFactory.INSTANCE), 0);
+    }
+
+    @Benchmark
+    public ParameterHandler<?> factories() {
+        for (ParameterHandler.Factory factory : factories) {
+            ParameterHandler<?> handler = factory.get(parameterType, parameterAnnotations, methodAnnotations);
+            if (handler != null) {
+                return handler;
+            }
+        }
+        throw new AssertionError(type);
+    }
+
+    @Benchmark
+    public ParameterHandler<?> cached() {
+        return builtInCache.get(parameterType, parameterAnnotations, methodAnnotations);
+    }
+
+    @Benchmark
+    public ParameterHandler<?> cachedWithCustomFactory() {
+        return customCache.get(parameterType, parameterAnnotations, methodAnnotations);
+    }
+
+    @Benchmark
+    @Threads(8)
+    public ParameterHandler<?> cachedContended() {
+        return builtInCache.get(parameterType, parameterAnnotations, methodAnnotations);
+    }
+}
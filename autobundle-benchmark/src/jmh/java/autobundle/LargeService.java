@@ -0,0 +1,511 @@
+package autobundle;
+
+import android.os.Bundle;
+
+import autobundle.annotation.Box;
+
+/**
+ * A service with 500 methods, to measure parsing all of them.
+ */
+public interface LargeService {
+    Bundle method000(@Box("name") String name, @Box("count0") int count);
+    Bundle method001(@Box("name") String name, @Box("count1") int count);
+    Bundle method002(@Box("name") String name, @Box("count2") int count);
+    Bundle method003(@Box("name") String name, @Box("count3") int count);
+    Bundle method004(@Box("name") String name, @Box("count4") int count);
+    Bundle method005(@Box("name") String name, @Box("count5") int count);
+    Bundle method006(@Box("name") String name, @Box("count6") int count);
+    Bundle method007(@Box("name") String name, @Box("count7") int count);
+    Bundle method008(@Box("name") String name, @Box("count8") int count);
+    Bundle method009(@Box("name") String name, @Box("count9") int count);
+    Bundle method010(@Box("name") String name, @Box("count10") int count);
+    Bundle method011(@Box("name") String name, @Box("count11") int count);
+    Bundle method012(@Box("name") String name, @Box("count12") int count);
+    Bundle method013(@Box("name") String name, @Box("count13") int count);
+    Bundle method014(@Box("name") String name, @Box("count14") int count);
+    Bundle method015(@Box("name") String name, @Box("count15") int count);
+    Bundle method016(@Box("name") String name, @Box("count16") int count);
+    Bundle method017(@Box("name") String name, @Box("count17") int count);
+    Bundle method018(@Box("name") String name, @Box("count18") int count);
+    Bundle method019(@Box("name") String name, @Box("count19") int count);
+    Bundle method020(@Box("name") String name, @Box("count20") int count);
+    Bundle method021(@Box("name") String name, @Box("count21") int count);
+    Bundle method022(@Box("name") String name, @Box("count22") int count);
+    Bundle method023(@Box("name") String name, @Box("count23") int count);
+    Bundle method024(@Box("name") String name, @Box("count24") int count);
+    Bundle method025(@Box("name") String name, @Box("count25") int count);
+    Bundle method026(@Box("name") String name, @Box("count26") int count);
+    Bundle method027(@Box("name") String name, @Box("count27") int count);
+    Bundle method028(@Box("name") String name, @Box("count28") int count);
+    Bundle method029(@Box("name") String name, @Box("count29") int count);
+    Bundle method030(@Box("name") String name, @Box("count30") int count);
+    Bundle method031(@Box("name") String name, @Box("count31") int count);
+    Bundle method032(@Box("name") String name, @Box("count32") int count);
+    Bundle method033(@Box("name") String name, @Box("count33") int count);
+    Bundle method034(@Box("name") String name, @Box("count34") int count);
+    Bundle method035(@Box("name") String name, @Box("count35") int count);
+    Bundle method036(@Box("name") String name, @Box("count36") int count);
+    Bundle method037(@Box("name") String name, @Box("count37") int count);
+    Bundle method038(@Box("name") String name, @Box("count38") int count);
+    Bundle method039(@Box("name") String name, @Box("count39") int count);
+    Bundle method040(@Box("name") String name, @Box("count40") int count);
+    Bundle method041(@Box("name") String name, @Box("count41") int count);
+    Bundle method042(@Box("name") String name, @Box("count42") int count);
+    Bundle method043(@Box("name") String name, @Box("count43") int count);
+    Bundle method044(@Box("name") String name, @Box("count44") int count);
+    Bundle method045(@Box("name") String name, @Box("count45") int count);
+    Bundle method046(@Box("name") String name, @Box("count46") int count);
+    Bundle method047(@Box("name") String name, @Box("count47") int count);
+    Bundle method048(@Box("name") String name, @Box("count48") int count);
+    Bundle method049(@Box("name") String name, @Box("count49") int count);
+    Bundle method050(@Box("name") String name, @Box("count50") int count);
+    Bundle method051(@Box("name") String name, @Box("count51") int count);
+    Bundle method052(@Box("name") String name, @Box("count52") int count);
+    Bundle method053(@Box("name") String name, @Box("count53") int count);
+    Bundle method054(@Box("name") String name, @Box("count54") int count);
+    Bundle method055(@Box("name") String name, @Box("count55") int count);
+    Bundle method056(@Box("name") String name, @Box("count56") int count);
+    Bundle method057(@Box("name") String name, @Box("count57") int count);
+    Bundle method058(@Box("name") String name, @Box("count58") int count);
+    Bundle method059(@Box("name") String name, @Box("count59") int count);
+    Bundle method060(@Box("name") String name, @Box("count60") int count);
+    Bundle method061(@Box("name") String name, @Box("count61") int count);
+    Bundle method062(@Box("name") String name, @Box("count62") int count);
+    Bundle method063(@Box("name") String name, @Box("count63") int count);
+    Bundle method064(@Box("name") String name, @Box("count64") int count);
+    Bundle method065(@Box("name") String name, @Box("count65") int count);
+    Bundle method066(@Box("name") String name, @Box("count66") int count);
+    Bundle method067(@Box("name") String name, @Box("count67") int count);
+    Bundle method068(@Box("name") String name, @Box("count68") int count);
+    Bundle method069(@Box("name") String name, @Box("count69") int count);
+    Bundle method070(@Box("name") String name, @Box("count70") int count);
+    Bundle method071(@Box("name") String name, @Box("count71") int count);
+    Bundle method072(@Box("name") String name, @Box("count72") int count);
+    Bundle method073(@Box("name") String name, @Box("count73") int count);
+    Bundle method074(@Box("name") String name, @Box("count74") int count);
+    Bundle method075(@Box("name") String name, @Box("count75") int count);
+    Bundle method076(@Box("name") String name, @Box("count76") int count);
+    Bundle method077(@Box("name") String name, @Box("count77") int count);
+    Bundle method078(@Box("name") String name, @Box("count78") int count);
+    Bundle method079(@Box("name") String name, @Box("count79") int count);
+    Bundle method080(@Box("name") String name, @Box("count80") int count);
+    Bundle method081(@Box("name") String name, @Box("count81") int count);
+    Bundle method082(@Box("name") String name, @Box("count82") int count);
+    Bundle method083(@Box("name") String name, @Box("count83") int count);
+    Bundle method084(@Box("name") String name, @Box("count84") int count);
+    Bundle method085(@Box("name") String name, @Box("count85") int count);
+    Bundle method086(@Box("name") String name, @Box("count86") int count);
+    Bundle method087(@Box("name") String name, @Box("count87") int count);
+    Bundle method088(@Box("name") String name, @Box("count88") int count);
+    Bundle method089(@Box("name") String name, @Box("count89") int count);
+    Bundle method090(@Box("name") String name, @Box("count90") int count);
+    Bundle method091(@Box("name") String name, @Box("count91") int count);
+    Bundle method092(@Box("name") String name, @Box("count92") int count);
+    Bundle method093(@Box("name") String name, @Box("count93") int count);
+    Bundle method094(@Box("name") String name, @Box("count94") int count);
+    Bundle method095(@Box("name") String name, @Box("count95") int count);
+    Bundle method096(@Box("name") String name, @Box("count96") int count);
+    Bundle method097(@Box("name") String name, @Box("count97") int count);
+    Bundle method098(@Box("name") String name, @Box("count98") int count);
+    Bundle method099(@Box("name") String name, @Box("count99") int count);
+    Bundle method100(@Box("name") String name, @Box("count100") int count);
+    Bundle method101(@Box("name") String name, @Box("count101") int count);
+    Bundle method102(@Box("name") String name, @Box("count102") int count);
+    Bundle method103(@Box("name") String name, @Box("count103") int count);
+    Bundle method104(@Box("name") String name, @Box("count104") int count);
+    Bundle method105(@Box("name") String name, @Box("count105") int count);
+    Bundle method106(@Box("name") String name, @Box("count106") int count);
+    Bundle method107(@Box("name") String name, @Box("count107") int count);
+    Bundle method108(@Box("name") String name, @Box("count108") int count);
+    Bundle method109(@Box("name") String name, @Box("count109") int count);
+    Bundle method110(@Box("name") String name, @Box("count110") int count);
+    Bundle method111(@Box("name") String name, @Box("count111") int count);
+    Bundle method112(@Box("name") String name, @Box("count112") int count);
+    Bundle method113(@Box("name") String name, @Box("count113") int count);
+    Bundle method114(@Box("name") String name, @Box("count114") int count);
+    Bundle method115(@Box("name") String name, @Box("count115") int count);
+    Bundle method116(@Box("name") String name, @Box("count116") int count);
+    Bundle method117(@Box("name") String name, @Box("count117") int count);
+    Bundle method118(@Box("name") String name, @Box("count118") int count);
+    Bundle method119(@Box("name") String name, @Box("count119") int count);
+    Bundle method120(@Box("name") String name, @Box("count120") int count);
+    Bundle method121(@Box("name") String name, @Box("count121") int count);
+    Bundle method122(@Box("name") String name, @Box("count122") int count);
+    Bundle method123(@Box("name") String name, @Box("count123") int count);
+    Bundle method124(@Box("name") String name, @Box("count124") int count);
+    Bundle method125(@Box("name") String name, @Box("count125") int count);
+    Bundle method126(@Box("name") String name, @Box("count126") int count);
+    Bundle method127(@Box("name") String name, @Box("count127") int count);
+    Bundle method128(@Box("name") String name, @Box("count128") int count);
+    Bundle method129(@Box("name") String name, @Box("count129") int count);
+    Bundle method130(@Box("name") String name, @Box("count130") int count);
+    Bundle method131(@Box("name") String name, @Box("count131") int count);
+    Bundle method132(@Box("name") String name, @Box("count132") int count);
+    Bundle method133(@Box("name") String name, @Box("count133") int count);
+    Bundle method134(@Box("name") String name, @Box("count134") int count);
+    Bundle method135(@Box("name") String name, @Box("count135") int count);
+    Bundle method136(@Box("name") String name, @Box("count136") int count);
+    Bundle method137(@Box("name") String name, @Box("count137") int count);
+    Bundle method138(@Box("name") String name, @Box("count138") int count);
+    Bundle method139(@Box("name") String name, @Box("count139") int count);
+    Bundle method140(@Box("name") String name, @Box("count140") int count);
+    Bundle method141(@Box("name") String name, @Box("count141") int count);
+    Bundle method142(@Box("name") String name, @Box("count142") int count);
+    Bundle method143(@Box("name") String name, @Box("count143") int count);
+    Bundle method144(@Box("name") String name, @Box("count144") int count);
+    Bundle method145(@Box("name") String name, @Box("count145") int count);
+    Bundle method146(@Box("name") String name, @Box("count146") int count);
+    Bundle method147(@Box("name") String name, @Box("count147") int count);
+    Bundle method148(@Box("name") String name, @Box("count148") int count);
+    Bundle method149(@Box("name") String name, @Box("count149") int count);
+    Bundle method150(@Box("name") String name, @Box("count150") int count);
+    Bundle method151(@Box("name") String name, @Box("count151") int count);
+    Bundle method152(@Box("name") String name, @Box("count152") int count);
+    Bundle method153(@Box("name") String name, @Box("count153") int count);
+    Bundle method154(@Box("name") String name, @Box("count154") int count);
+    Bundle method155(@Box("name") String name, @Box("count155") int count);
+    Bundle method156(@Box("name") String name, @Box("count156") int count);
+    Bundle method157(@Box("name") String name, @Box("count157") int count);
+    Bundle method158(@Box("name") String name, @Box("count158") int count);
+    Bundle method159(@Box("name") String name, @Box("count159") int count);
+    Bundle method160(@Box("name") String name, @Box("count160") int count);
+    Bundle method161(@Box("name") String name, @Box("count161") int count);
+    Bundle method162(@Box("name") String name, @Box("count162") int count);
+    Bundle method163(@Box("name") String name, @Box("count163") int count);
+    Bundle method164(@Box("name") String name, @Box("count164") int count);
+    Bundle method165(@Box("name") String name, @Box("count165") int count);
+    Bundle method166(@Box("name") String name, @Box("count166") int count);
+    Bundle method167(@Box("name") String name, @Box("count167") int count);
+    Bundle method168(@Box("name") String name, @Box("count168") int count);
+    Bundle method169(@Box("name") String name, @Box("count169") int count);
+    Bundle method170(@Box("name") String name, @Box("count170") int count);
+    Bundle method171(@Box("name") String name, @Box("count171") int count);
+    Bundle method172(@Box("name") String name, @Box("count172") int count);
+    Bundle method173(@Box("name") String name, @Box("count173") int count);
+    Bundle method174(@Box("name") String name, @Box("count174") int count);
+    Bundle method175(@Box("name") String name, @Box("count175") int count);
+    Bundle method176(@Box("name") String name, @Box("count176") int count);
+    Bundle method177(@Box("name") String name, @Box("count177") int count);
+    Bundle method178(@Box("name") String name, @Box("count178") int count);
+    Bundle method179(@Box("name") String name, @Box("count179") int count);
+    Bundle method180(@Box("name") String name, @Box("count180") int count);
+    Bundle method181(@Box("name") String name, @Box("count181") int count);
+    Bundle method182(@Box("name") String name, @Box("count182") int count);
+    Bundle method183(@Box("name") String name, @Box("count183") int count);
+    Bundle method184(@Box("name") String name, @Box("count184") int count);
+    Bundle method185(@Box("name") String name, @Box("count185") int count);
+    Bundle method186(@Box("name") String name, @Box("count186") int count);
+    Bundle method187(@Box("name") String name, @Box("count187") int count);
+    Bundle method188(@Box("name") String name, @Box("count188") int count);
+    Bundle method189(@Box("name") String name, @Box("count189") int count);
+    Bundle method190(@Box("name") String name, @Box("count190") int count);
+    Bundle method191(@Box("name") String name, @Box("count191") int count);
+    Bundle method192(@Box("name") String name, @Box("count192") int count);
+    Bundle method193(@Box("name") String name, @Box("count193") int count);
+    Bundle method194(@Box("name") String name, @Box("count194") int count);
+    Bundle method195(@Box("name") String name, @Box("count195") int count);
+    Bundle method196(@Box("name") String name, @Box("count196") int count);
+    Bundle method197(@Box("name") String name, @Box("count197") int count);
+    Bundle method198(@Box("name") String name, @Box("count198") int count);
+    Bundle method199(@Box("name") String name, @Box("count199") int count);
+    Bundle method200(@Box("name") String name, @Box("count200") int count);
+    Bundle method201(@Box("name") String name, @Box("count201") int count);
+    Bundle method202(@Box("name") String name, @Box("count202") int count);
+    Bundle method203(@Box("name") String name, @Box("count203") int count);
+    Bundle method204(@Box("name") String name, @Box("count204") int count);
+    Bundle method205(@Box("name") String name, @Box("count205") int count);
+    Bundle method206(@Box("name") String name, @Box("count206") int count);
+    Bundle method207(@Box("name") String name, @Box("count207") int count);
+    Bundle method208(@Box("name") String name, @Box("count208") int count);
+    Bundle method209(@Box("name") String name, @Box("count209") int count);
+    Bundle method210(@Box("name") String name, @Box("count210") int count);
+    Bundle method211(@Box("name") String name, @Box("count211") int count);
+    Bundle method212(@Box("name") String name, @Box("count212") int count);
+    Bundle method213(@Box("name") String name, @Box("count213") int count);
+    Bundle method214(@Box("name") String name, @Box("count214") int count);
+    Bundle method215(@Box("name") String name, @Box("count215") int count);
+    Bundle method216(@Box("name") String name, @Box("count216") int count);
+    Bundle method217(@Box("name") String name, @Box("count217") int count);
+    Bundle method218(@Box("name") String name, @Box("count218") int count);
+    Bundle method219(@Box("name") String name, @Box("count219") int count);
+    Bundle method220(@Box("name") String name, @Box("count220") int count);
+    Bundle method221(@Box("name") String name, @Box("count221") int count);
+    Bundle method222(@Box("name") String name, @Box("count222") int count);
+    Bundle method223(@Box("name") String name, @Box("count223") int count);
+    Bundle method224(@Box("name") String name, @Box("count224") int count);
+    Bundle method225(@Box("name") String name, @Box("count225") int count);
+    Bundle method226(@Box("name") String name, @Box("count226") int count);
+    Bundle method227(@Box("name") String name, @Box("count227") int count);
+    Bundle method228(@Box("name") String name, @Box("count228") int count);
+    Bundle method229(@Box("name") String name, @Box("count229") int count);
+    Bundle method230(@Box("name") String name, @Box("count230") int count);
+    Bundle method231(@Box("name") String name, @Box("count231") int count);
+    Bundle method232(@Box("name") String name, @Box("count232") int count);
+    Bundle method233(@Box("name") String name, @Box("count233") int count);
+    Bundle method234(@Box("name") String name, @Box("count234") int count);
+    Bundle method235(@Box("name") String name, @Box("count235") int count);
+    Bundle method236(@Box("name") String name, @Box("count236") int count);
+    Bundle method237(@Box("name") String name, @Box("count237") int count);
+    Bundle method238(@Box("name") String name, @Box("count238") int count);
+    Bundle method239(@Box("name") String name, @Box("count239") int count);
+    Bundle method240(@Box("name") String name, @Box("count240") int count);
+    Bundle method241(@Box("name") String name, @Box("count241") int count);
+    Bundle method242(@Box("name") String name, @Box("count242") int count);
+    Bundle method243(@Box("name") String name, @Box("count243") int count);
+    Bundle method244(@Box("name") String name, @Box("count244") int count);
+    Bundle method245(@Box("name") String name, @Box("count245") int count);
+    Bundle method246(@Box("name") String name, @Box("count246") int count);
+    Bundle method247(@Box("name") String name, @Box("count247") int count);
+    Bundle method248(@Box("name") String name, @Box("count248") int count);
+    Bundle method249(@Box("name") String name, @Box("count249") int count);
+    Bundle method250(@Box("name") String name, @Box("count250") int count);
+    Bundle method251(@Box("name") String name, @Box("count251") int count);
+    Bundle method252(@Box("name") String name, @Box("count252") int count);
+    Bundle method253(@Box("name") String name, @Box("count253") int count);
+    Bundle method254(@Box("name") String name, @Box("count254") int count);
+    Bundle method255(@Box("name") String name, @Box("count255") int count);
+    Bundle method256(@Box("name") String name, @Box("count256") int count);
+    Bundle method257(@Box("name") String name, @Box("count257") int count);
+    Bundle method258(@Box("name") String name, @Box("count258") int count);
+    Bundle method259(@Box("name") String name, @Box("count259") int count);
+    Bundle method260(@Box("name") String name, @Box("count260") int count);
+    Bundle method261(@Box("name") String name, @Box("count261") int count);
+    Bundle method262(@Box("name") String name, @Box("count262") int count);
+    Bundle method263(@Box("name") String name, @Box("count263") int count);
+    Bundle method264(@Box("name") String name, @Box("count264") int count);
+    Bundle method265(@Box("name") String name, @Box("count265") int count);
+    Bundle method266(@Box("name") String name, @Box("count266") int count);
+    Bundle method267(@Box("name") String name, @Box("count267") int count);
+    Bundle method268(@Box("name") String name, @Box("count268") int count);
+    Bundle method269(@Box("name") String name, @Box("count269") int count);
+    Bundle method270(@Box("name") String name, @Box("count270") int count);
+    Bundle method271(@Box("name") String name, @Box("count271") int count);
+    Bundle method272(@Box("name") String name, @Box("count272") int count);
+    Bundle method273(@Box("name") String name, @Box("count273") int count);
+    Bundle method274(@Box("name") String name, @Box("count274") int count);
+    Bundle method275(@Box("name") String name, @Box("count275") int count);
+    Bundle method276(@Box("name") String name, @Box("count276") int count);
+    Bundle method277(@Box("name") String name, @Box("count277") int count);
+    Bundle method278(@Box("name") String name, @Box("count278") int count);
+    Bundle method279(@Box("name") String name, @Box("count279") int count);
+    Bundle method280(@Box("name") String name, @Box("count280") int count);
+    Bundle method281(@Box("name") String name, @Box("count281") int count);
+    Bundle method282(@Box("name") String name, @Box("count282") int count);
+    Bundle method283(@Box("name") String name, @Box("count283") int count);
+    Bundle method284(@Box("name") String name, @Box("count284") int count);
+    Bundle method285(@Box("name") String name, @Box("count285") int count);
+    Bundle method286(@Box("name") String name, @Box("count286") int count);
+    Bundle method287(@Box("name") String name, @Box("count287") int count);
+    Bundle method288(@Box("name") String name, @Box("count288") int count);
+    Bundle method289(@Box("name") String name, @Box("count289") int count);
+    Bundle method290(@Box("name") String name, @Box("count290") int count);
+    Bundle method291(@Box("name") String name, @Box("count291") int count);
+    Bundle method292(@Box("name") String name, @Box("count292") int count);
+    Bundle method293(@Box("name") String name, @Box("count293") int count);
+    Bundle method294(@Box("name") String name, @Box("count294") int count);
+    Bundle method295(@Box("name") String name, @Box("count295") int count);
+    Bundle method296(@Box("name") String name, @Box("count296") int count);
+    Bundle method297(@Box("name") String name, @Box("count297") int count);
+    Bundle method298(@Box("name") String name, @Box("count298") int count);
+    Bundle method299(@Box("name") String name, @Box("count299") int count);
+    Bundle method300(@Box("name") String name, @Box("count300") int count);
+    Bundle method301(@Box("name") String name, @Box("count301") int count);
+    Bundle method302(@Box("name") String name, @Box("count302") int count);
+    Bundle method303(@Box("name") String name, @Box("count303") int count);
+    Bundle method304(@Box("name") String name, @Box("count304") int count);
+    Bundle method305(@Box("name") String name, @Box("count305") int count);
+    Bundle method306(@Box("name") String name, @Box("count306") int count);
+    Bundle method307(@Box("name") String name, @Box("count307") int count);
+    Bundle method308(@Box("name") String name, @Box("count308") int count);
+    Bundle method309(@Box("name") String name, @Box("count309") int count);
+    Bundle method310(@Box("name") String name, @Box("count310") int count);
+    Bundle method311(@Box("name") String name, @Box("count311") int count);
+    Bundle method312(@Box("name") String name, @Box("count312") int count);
+    Bundle method313(@Box("name") String name, @Box("count313") int count);
+    Bundle method314(@Box("name") String name, @Box("count314") int count);
+    Bundle method315(@Box("name") String name, @Box("count315") int count);
+    Bundle method316(@Box("name") String name, @Box("count316") int count);
+    Bundle method317(@Box("name") String name, @Box("count317") int count);
+    Bundle method318(@Box("name") String name, @Box("count318") int count);
+    Bundle method319(@Box("name") String name, @Box("count319") int count);
+    Bundle method320(@Box("name") String name, @Box("count320") int count);
+    Bundle method321(@Box("name") String name, @Box("count321") int count);
+    Bundle method322(@Box("name") String name, @Box("count322") int count);
+    Bundle method323(@Box("name") String name, @Box("count323") int count);
+    Bundle method324(@Box("name") String name, @Box("count324") int count);
+    Bundle method325(@Box("name") String name, @Box("count325") int count);
+    Bundle method326(@Box("name") String name, @Box("count326") int count);
+    Bundle method327(@Box("name") String name, @Box("count327") int count);
+    Bundle method328(@Box("name") String name, @Box("count328") int count);
+    Bundle method329(@Box("name") String name, @Box("count329") int count);
+    Bundle method330(@Box("name") String name, @Box("count330") int count);
+    Bundle method331(@Box("name") String name, @Box("count331") int count);
+    Bundle method332(@Box("name") String name, @Box("count332") int count);
+    Bundle method333(@Box("name") String name, @Box("count333") int count);
+    Bundle method334(@Box("name") String name, @Box("count334") int count);
+    Bundle method335(@Box("name") String name, @Box("count335") int count);
+    Bundle method336(@Box("name") String name, @Box("count336") int count);
+    Bundle method337(@Box("name") String name, @Box("count337") int count);
+    Bundle method338(@Box("name") String name, @Box("count338") int count);
+    Bundle method339(@Box("name") String name, @Box("count339") int count);
+    Bundle method340(@Box("name") String name, @Box("count340") int count);
+    Bundle method341(@Box("name") String name, @Box("count341") int count);
+    Bundle method342(@Box("name") String name, @Box("count342") int count);
+    Bundle method343(@Box("name") String name, @Box("count343") int count);
+    Bundle method344(@Box("name") String name, @Box("count344") int count);
+    Bundle method345(@Box("name") String name, @Box("count345") int count);
+    Bundle method346(@Box("name") String name, @Box("count346") int count);
+    Bundle method347(@Box("name") String name, @Box("count347") int count);
+    Bundle method348(@Box("name") String name, @Box("count348") int count);
+    Bundle method349(@Box("name") String name, @Box("count349") int count);
+    Bundle method350(@Box("name") String name, @Box("count350") int count);
+    Bundle method351(@Box("name") String name, @Box("count351") int count);
+    Bundle method352(@Box("name") String name, @Box("count352") int count);
+    Bundle method353(@Box("name") String name, @Box("count353") int count);
+    Bundle method354(@Box("name") String name, @Box("count354") int count);
+    Bundle method355(@Box("name") String name, @Box("count355") int count);
+    Bundle method356(@Box("name") String name, @Box("count356") int count);
+    Bundle method357(@Box("name") String name, @Box("count357") int count);
+    Bundle method358(@Box("name") String name, @Box("count358") int count);
+    Bundle method359(@Box("name") String name, @Box("count359") int count);
+    Bundle method360(@Box("name") String name, @Box("count360") int count);
+    Bundle method361(@Box("name") String name, @Box("count361") int count);
+    Bundle method362(@Box("name") String name, @Box("count362") int count);
+    Bundle method363(@Box("name") String name, @Box("count363") int count);
+    Bundle method364(@Box("name") String name, @Box("count364") int count);
+    Bundle method365(@Box("name") String name, @Box("count365") int count);
+    Bundle method366(@Box("name") String name, @Box("count366") int count);
+    Bundle method367(@Box("name") String name, @Box("count367") int count);
+    Bundle method368(@Box("name") String name, @Box("count368") int count);
+    Bundle method369(@Box("name") String name, @Box("count369") int count);
+    Bundle method370(@Box("name") String name, @Box("count370") int count);
+    Bundle method371(@Box("name") String name, @Box("count371") int count);
+    Bundle method372(@Box("name") String name, @Box("count372") int count);
+    Bundle method373(@Box("name") String name, @Box("count373") int count);
+    Bundle method374(@Box("name") String name, @Box("count374") int count);
+    Bundle method375(@Box("name") String name, @Box("count375") int count);
+    Bundle method376(@Box("name") String name, @Box("count376") int count);
+    Bundle method377(@Box("name") String name, @Box("count377") int count);
+    Bundle method378(@Box("name") String name, @Box("count378") int count);
+    Bundle method379(@Box("name") String name, @Box("count379") int count);
+    Bundle method380(@Box("name") String name, @Box("count380") int count);
+    Bundle method381(@Box("name") String name, @Box("count381") int count);
+    Bundle method382(@Box("name") String name, @Box("count382") int count);
+    Bundle method383(@Box("name") String name, @Box("count383") int count);
+    Bundle method384(@Box("name") String name, @Box("count384") int count);
+    Bundle method385(@Box("name") String name, @Box("count385") int count);
+    Bundle method386(@Box("name") String name, @Box("count386") int count);
+    Bundle method387(@Box("name") String name, @Box("count387") int count);
+    Bundle method388(@Box("name") String name, @Box("count388") int count);
+    Bundle method389(@Box("name") String name, @Box("count389") int count);
+    Bundle method390(@Box("name") String name, @Box("count390") int count);
+    Bundle method391(@Box("name") String name, @Box("count391") int count);
+    Bundle method392(@Box("name") String name, @Box("count392") int count);
+    Bundle method393(@Box("name") String name, @Box("count393") int count);
+    Bundle method394(@Box("name") String name, @Box("count394") int count);
+    Bundle method395(@Box("name") String name, @Box("count395") int count);
+    Bundle method396(@Box("name") String name, @Box("count396") int count);
+    Bundle method397(@Box("name") String name, @Box("count397") int count);
+    Bundle method398(@Box("name") String name, @Box("count398") int count);
+    Bundle method399(@Box("name") String name, @Box("count399") int count);
+    Bundle method400(@Box("name") String name, @Box("count400") int count);
+    Bundle method401(@Box("name") String name, @Box("count401") int count);
+    Bundle method402(@Box("name") String name, @Box("count402") int count);
+    Bundle method403(@Box("name") String name, @Box("count403") int count);
+    Bundle method404(@Box("name") String name, @Box("count404") int count);
+    Bundle method405(@Box("name") String name, @Box("count405") int count);
+    Bundle method406(@Box("name") String name, @Box("count406") int count);
+    Bundle method407(@Box("name") String name, @Box("count407") int count);
+    Bundle method408(@Box("name") String name, @Box("count408") int count);
+    Bundle method409(@Box("name") String name, @Box("count409") int count);
+    Bundle method410(@Box("name") String name, @Box("count410") int count);
+    Bundle method411(@Box("name") String name, @Box("count411") int count);
+    Bundle method412(@Box("name") String name, @Box("count412") int count);
+    Bundle method413(@Box("name") String name, @Box("count413") int count);
+    Bundle method414(@Box("name") String name, @Box("count414") int count);
+    Bundle method415(@Box("name") String name, @Box("count415") int count);
+    Bundle method416(@Box("name") String name, @Box("count416") int count);
+    Bundle method417(@Box("name") String name, @Box("count417") int count);
+    Bundle method418(@Box("name") String name, @Box("count418") int count);
+    Bundle method419(@Box("name") String name, @Box("count419") int count);
+    Bundle method420(@Box("name") String name, @Box("count420") int count);
+    Bundle method421(@Box("name") String name, @Box("count421") int count);
+    Bundle method422(@Box("name") String name, @Box("count422") int count);
+    Bundle method423(@Box("name") String name, @Box("count423") int count);
+    Bundle method424(@Box("name") String name, @Box("count424") int count);
+    Bundle method425(@Box("name") String name, @Box("count425") int count);
+    Bundle method426(@Box("name") String name, @Box("count426") int count);
+    Bundle method427(@Box("name") String name, @Box("count427") int count);
+    Bundle method428(@Box("name") String name, @Box("count428") int count);
+    Bundle method429(@Box("name") String name, @Box("count429") int count);
+    Bundle method430(@Box("name") String name, @Box("count430") int count);
+    Bundle method431(@Box("name") String name, @Box("count431") int count);
+    Bundle method432(@Box("name") String name, @Box("count432") int count);
+    Bundle method433(@Box("name") String name, @Box("count433") int count);
+    Bundle method434(@Box("name") String name, @Box("count434") int count);
+    Bundle method435(@Box("name") String name, @Box("count435") int count);
+    Bundle method436(@Box("name") String name, @Box("count436") int count);
+    Bundle method437(@Box("name") String name, @Box("count437") int count);
+    Bundle method438(@Box("name") String name, @Box("count438") int count);
+    Bundle method439(@Box("name") String name, @Box("count439") int count);
+    Bundle method440(@Box("name") String name, @Box("count440") int count);
+    Bundle method441(@Box("name") String name, @Box("count441") int count);
+    Bundle method442(@Box("name") String name, @Box("count442") int count);
+    Bundle method443(@Box("name") String name, @Box("count443") int count);
+    Bundle method444(@Box("name") String name, @Box("count444") int count);
+    Bundle method445(@Box("name") String name, @Box("count445") int count);
+    Bundle method446(@Box("name") String name, @Box("count446") int count);
+    Bundle method447(@Box("name") String name, @Box("count447") int count);
+    Bundle method448(@Box("name") String name, @Box("count448") int count);
+    Bundle method449(@Box("name") String name, @Box("count449") int count);
+    Bundle method450(@Box("name") String name, @Box("count450") int count);
+    Bundle method451(@Box("name") String name, @Box("count451") int count);
+    Bundle method452(@Box("name") String name, @Box("count452") int count);
+    Bundle method453(@Box("name") String name, @Box("count453") int count);
+    Bundle method454(@Box("name") String name, @Box("count454") int count);
+    Bundle method455(@Box("name") String name, @Box("count455") int count);
+    Bundle method456(@Box("name") String name, @Box("count456") int count);
+    Bundle method457(@Box("name") String name, @Box("count457") int count);
+    Bundle method458(@Box("name") String name, @Box("count458") int count);
+    Bundle method459(@Box("name") String name, @Box("count459") int count);
+    Bundle method460(@Box("name") String name, @Box("count460") int count);
+    Bundle method461(@Box("name") String name, @Box("count461") int count);
+    Bundle method462(@Box("name") String name, @Box("count462") int count);
+    Bundle method463(@Box("name") String name, @Box("count463") int count);
+    Bundle method464(@Box("name") String name, @Box("count464") int count);
+    Bundle method465(@Box("name") String name, @Box("count465") int count);
+    Bundle method466(@Box("name") String name, @Box("count466") int count);
+    Bundle method467(@Box("name") String name, @Box("count467") int count);
+    Bundle method468(@Box("name") String name, @Box("count468") int count);
+    Bundle method469(@Box("name") String name, @Box("count469") int count);
+    Bundle method470(@Box("name") String name, @Box("count470") int count);
+    Bundle method471(@Box("name") String name, @Box("count471") int count);
+    Bundle method472(@Box("name") String name, @Box("count472") int count);
+    Bundle method473(@Box("name") String name, @Box("count473") int count);
+    Bundle method474(@Box("name") String name, @Box("count474") int count);
+    Bundle method475(@Box("name") String name, @Box("count475") int count);
+    Bundle method476(@Box("name") String name, @Box("count476") int count);
+    Bundle method477(@Box("name") String name, @Box("count477") int count);
+    Bundle method478(@Box("name") String name, @Box("count478") int count);
+    Bundle method479(@Box("name") String name, @Box("count479") int count);
+    Bundle method480(@Box("name") String name, @Box("count480") int count);
+    Bundle method481(@Box("name") String name, @Box("count481") int count);
+    Bundle method482(@Box("name") String name, @Box("count482") int count);
+    Bundle method483(@Box("name") String name, @Box("count483") int count);
+    Bundle method484(@Box("name") String name, @Box("count484") int count);
+    Bundle method485(@Box("name") String name, @Box("count485") int count);
+    Bundle method486(@Box("name") String name, @Box("count486") int count);
+    Bundle method487(@Box("name") String name, @Box("count487") int count);
+    Bundle method488(@Box("name") String name, @Box("count488") int count);
+    Bundle method489(@Box("name") String name, @Box("count489") int count);
+    Bundle method490(@Box("name") String name, @Box("count490") int count);
+    Bundle method491(@Box("name") String name, @Box("count491") int count);
+    Bundle method492(@Box("name") String name, @Box("count492") int count);
+    Bundle method493(@Box("name") String name, @Box("count493") int count);
+    Bundle method494(@Box("name") String name, @Box("count494") int count);
+    Bundle method495(@Box("name") String name, @Box("count495") int count);
+    Bundle method496(@Box("name") String name, @Box("count496") int count);
+    Bundle method497(@Box("name") String name, @Box("count497") int count);
+    Bundle method498(@Box("name") String name, @Box("count498") int count);
+    Bundle method499(@Box("name") String name, @Box("count499") int count);
+}
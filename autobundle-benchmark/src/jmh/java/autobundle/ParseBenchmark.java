@@ -0,0 +1,71 @@
+package autobundle;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parses the 500 methods of {@link LargeService} with a new AutoBundle, on one thread and on a
+ * pool. Run with {@code -prof gc}, the normalized allocation rate is the memory allocated by
+ * parsing all methods.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class ParseBenchmark {
+    private final Method[] methods = LargeService.class.getDeclaredMethods();
+    private ExecutorService executor;
+    private AutoBundle autoBundle;
+
+    @Setup(Level.Trial)
+    public void startExecutor() {
+        executor = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors());
+    }
+
+    @TearDown(Level.Trial)
+    public void stopExecutor() {
+        executor.shutdown();
+    }
+
+    @Setup(Level.Invocation)
+    public void newAutoBundle() {
+        autoBundle = AutoBundle.builder().build();
+    }
+
+    @Benchmark
+    public AutoBundle parseAll() {
+        for (Method method : methods) {
+            autoBundle.loadBundleFactory(method);
+        }
+        return autoBundle;
+    }
+
+    @Benchmark
+    public AutoBundle parseAllInParallel() throws Exception {
+        List<Callable<BundleFactory>> tasks = new ArrayList<>(methods.length);
+        for (final Method method : methods) {
+            tasks.add(new Callable<BundleFactory>() {
+                @Override
+                public BundleFactory call() {
+                    return autoBundle.loadBundleFactory(method);
+                }
+            });
+        }
+        executor.invokeAll(tasks);
+        return autoBundle;
+    }
+}
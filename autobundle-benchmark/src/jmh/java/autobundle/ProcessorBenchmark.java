@@ -0,0 +1,116 @@
+package autobundle;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.SimpleJavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.StandardLocation;
+import javax.tools.ToolProvider;
+
+import autobundle.compiler.AutoBundleProcessor;
+
+/**
+ * Runs {@link AutoBundleProcessor} over synthetic sources with 1k, 5k and 20k {@code @Unbox}
+ * targets, each extending the previous one in hierarchies of {@code depth} classes like
+ * {@code TopActivity} and its subclasses. javac only processes annotations, nothing is compiled.
+ * Run with {@code -prof gc}, the normalized allocation rate is the memory allocated by a build.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class ProcessorBenchmark {
+    @Param({"1000", "5000", "20000"})
+    public int targets;
+
+    @Param({"1", "50"})
+    public int depth;
+
+    private final JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+    private List<JavaFileObject> sources;
+    private File generated;
+
+    @Setup(Level.Trial)
+    public void generateSources() throws IOException {
+        sources = new ArrayList<>(targets);
+        for (int i = 0; i < targets; i++) {
+            String superclass = i % depth == 0 ? "Object" : "Target" + (i - 1);
+            sources.add(new Source("Target" + i, "package bench;\n"
+                    + "import autobundle.annotation.Unbox;\n"
+                    + "public class Target" + i + " extends " + superclass + " {\n"
+                    + "  @Unbox(\"name" + i + "\") String name" + i + ";\n"
+                    + "  @Unbox(\"count" + i + "\") int count" + i + ";\n"
+                    + "}\n"));
+        }
+        generated = Files.createTempDirectory("autobundle-processor").toFile();
+    }
+
+    @TearDown(Level.Trial)
+    public void deleteGenerated() {
+        delete(generated);
+    }
+
+    @Benchmark
+    public boolean process() throws IOException {
+        DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+        StandardJavaFileManager fileManager = compiler.getStandardFileManager(diagnostics, null, null);
+        try {
+            fileManager.setLocation(StandardLocation.SOURCE_OUTPUT, Collections.singletonList(generated));
+            JavaCompiler.CompilationTask task = compiler.getTask(null, fileManager, diagnostics,
+                    Arrays.asList("-proc:only", "-classpath", System.getProperty("java.class.path")),
+                    null, sources);
+            task.setProcessors(Collections.singletonList(new AutoBundleProcessor()));
+            if (!task.call()) {
+                throw new IllegalStateException(diagnostics.getDiagnostics().toString());
+            }
+            return true;
+        } finally {
+            fileManager.close();
+        }
+    }
+
+    private static void delete(File file) {
+        File[] children = file.listFiles();
+        if (children != null) {
+            for (File child : children) {
+                delete(child);
+            }
+        }
+        file.delete();
+    }
+
+    private static final class Source extends SimpleJavaFileObject {
+        private final String content;
+
+        Source(String simpleName, String content) {
+            super(URI.create("string:///bench/" + simpleName + Kind.SOURCE.extension), Kind.SOURCE);
+            this.content = content;
+        }
+
+        @Override
+        public CharSequence getCharContent(boolean ignoreEncodingErrors) {
+            return content;
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package autobundle;
+
+import android.os.Bundle;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Future;
+
+/**
+ * Calls service methods with 5, 20 and 60 parameters through the proxy, the generated
+ * implementation and a {@link MapSink}. Run with {@code -prof gc} for the allocation per call.
+ */
+@State(Scope.Benchmark)
+public class ServiceInvokeBenchmark {
+    // Read from fields so the arguments are not constant folded.
+    int i = 42;
+    String s = "value";
+    long l = 42L;
+    boolean b = true;
+    double d = 4.2;
+
+    private AutoBundle autoBundle;
+    private WideService proxy;
+    private WideService generated;
+    private Method params20;
+    private Object[] params20Args;
+
+    @Setup
+    public void setUp() throws NoSuchMethodException {
+        autoBundle = AutoBundle.builder().build();
+        // The proxy that create() returns when the generated implementation can not be used.
+        proxy = (WideService) Proxy.newProxyInstance(WideService.class.getClassLoader(),
+                new Class<?>[]{WideService.class}, new ServiceInvocationHandler(autoBundle,
+                        WideService.class, Collections.<Method, Future<BundleFactory>>emptyMap()));
+        generated = autoBundle.create(WideService.class);
+        if (generated instanceof Proxy) {
+            throw new IllegalStateException("WideService_BundleCreator was not generated.");
+        }
+        for (Method method : WideService.class.getMethods()) {
+            if (method.getName().equals("params20")) {
+                params20 = method;
+            }
+        }
+        params20Args = new Object[]{i, s, l, b, d, i, s, l, b, d, i, s, l, b, d, i, s, l, b, d};
+    }
+
+    @Benchmark
+    public Bundle proxy5() {
+        return proxy.params5(i, s, l, b, d);
+    }
+
+    @Benchmark
+    public Bundle proxy20() {
+        return proxy.params20(i, s, l, b, d, i, s, l, b, d, i, s, l, b, d, i, s, l, b, d);
+    }
+
+    @Benchmark
+    public Bundle proxy60() {
+        return proxy.params60(i, s, l, b, d, i, s, l, b, d, i, s, l, b, d, i, s, l, b, d, i,
+                s, l, b, d, i, s, l, b, d, i, s, l, b, d, i, s, l, b, d, i, s, l, b, d, i, s, l, b,
+                d, i, s, l, b, d, i, s, l, b, d);
+    }
+
+    @Benchmark
+    @Threads(8)
+    public Bundle proxy20Contended() {
+        return proxy.params20(i, s, l, b, d, i, s, l, b, d, i, s, l, b, d, i, s, l, b, d);
+    }
+
+    @Benchmark
+    public Bundle generated5() {
+        return generated.params5(i, s, l, b, d);
+    }
+
+    @Benchmark
+    public Bundle generated20() {
+        return generated.params20(i, s, l, b, d, i, s, l, b, d, i, s, l, b, d, i, s, l, b, d);
+    }
+
+    @Benchmark
+    public Bundle generated60() {
+        return generated.params60(i, s, l, b, d, i, s, l, b, d, i, s, l, b, d, i, s, l, b,
+                d, i, s, l, b, d, i, s, l, b, d, i, s, l, b, d, i, s, l, b, d, i, s, l, b, d, i, s,
+                l, b, d, i, s, l, b, d, i, s, l, b, d);
+    }
+
+    @Benchmark
+    @Threads(8)
+    public Bundle generated20Contended() {
+        return generated.params20(i, s, l, b, d, i, s, l, b, d, i, s, l, b, d, i, s, l, b, d);
+    }
+
+    /**
+     * The handlers only, without creating a Bundle.
+     */
+    @Benchmark
+    public Map<String, Object> mapSink20() {
+        MapSink sink = new MapSink(new HashMap<String, Object>(32));
+        autoBundle.write(params20, params20Args, sink);
+        return sink.asMap();
+    }
+}
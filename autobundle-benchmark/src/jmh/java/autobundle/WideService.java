@@ -0,0 +1,98 @@
+package autobundle;
+
+import android.os.Bundle;
+
+import autobundle.annotation.Box;
+
+/**
+ * Service methods with 5, 20 and 60 parameters of mixed types.
+ */
+public interface WideService {
+    Bundle params5(@Box("key0") int p0,
+                   @Box("key1") String p1,
+                   @Box("key2") long p2,
+                   @Box("key3") boolean p3,
+                   @Box("key4") double p4);
+
+    Bundle params20(@Box("key0") int p0,
+                    @Box("key1") String p1,
+                    @Box("key2") long p2,
+                    @Box("key3") boolean p3,
+                    @Box("key4") double p4,
+                    @Box("key5") int p5,
+                    @Box("key6") String p6,
+                    @Box("key7") long p7,
+                    @Box("key8") boolean p8,
+                    @Box("key9") double p9,
+                    @Box("key10") int p10,
+                    @Box("key11") String p11,
+                    @Box("key12") long p12,
+                    @Box("key13") boolean p13,
+                    @Box("key14") double p14,
+                    @Box("key15") int p15,
+                    @Box("key16") String p16,
+                    @Box("key17") long p17,
+                    @Box("key18") boolean p18,
+                    @Box("key19") double p19);
+
+    Bundle params60(@Box("key0") int p0,
+                    @Box("key1") String p1,
+                    @Box("key2") long p2,
+                    @Box("key3") boolean p3,
+                    @Box("key4") double p4,
+                    @Box("key5") int p5,
+                    @Box("key6") String p6,
+                    @Box("key7") long p7,
+                    @Box("key8") boolean p8,
+                    @Box("key9") double p9,
+                    @Box("key10") int p10,
+                    @Box("key11") String p11,
+                    @Box("key12") long p12,
+                    @Box("key13") boolean p13,
+                    @Box("key14") double p14,
+                    @Box("key15") int p15,
+                    @Box("key16") String p16,
+                    @Box("key17") long p17,
+                    @Box("key18") boolean p18,
+                    @Box("key19") double p19,
+                    @Box("key20") int p20,
+                    @Box("key21") String p21,
+                    @Box("key22") long p22,
+                    @Box("key23") boolean p23,
+                    @Box("key24") double p24,
+                    @Box("key25") int p25,
+                    @Box("key26") String p26,
+                    @Box("key27") long p27,
+                    @Box("key28") boolean p28,
+                    @Box("key29") double p29,
+                    @Box("key30") int p30,
+                    @Box("key31") String p31,
+                    @Box("key32") long p32,
+                    @Box("key33") boolean p33,
+                    @Box("key34") double p34,
+                    @Box("key35") int p35,
+                    @Box("key36") String p36,
+                    @Box("key37") long p37,
+                    @Box("key38") boolean p38,
+                    @Box("key39") double p39,
+                    @Box("key40") int p40,
+                    @Box("key41") String p41,
+                    @Box("key42") long p42,
+                    @Box("key43") boolean p43,
+                    @Box("key44") double p44,
+                    @Box("key45") int p45,
+                    @Box("key46") String p46,
+                    @Box("key47") long p47,
+                    @Box("key48") boolean p48,
+                    @Box("key49") double p49,
+                    @Box("key50") int p50,
+                    @Box("key51") String p51,
+                    @Box("key52") long p52,
+                    @Box("key53") boolean p53,
+                    @Box("key54") double p54,
+                    @Box("key55") int p55,
+                    @Box("key56") String p56,
+                    @Box("key57") long p57,
+                    @Box("key58") boolean p58,
+                    @Box("key59") double p59);
+}
@@ -0,0 +1,210 @@
+package autobundle;
+
+import android.os.Bundle;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Properties;
+import java.util.concurrent.Future;
+
+import autobundle.AllocationScenarios.Item;
+import autobundle.AllocationScenarios.ParcelableService;
+import autobundle.AllocationScenarios.ParcelableTarget;
+import autobundle.AllocationScenarios.PrimitiveService;
+import autobundle.AllocationScenarios.PrimitiveTarget;
+import autobundle.AllocationScenarios.StringService;
+import autobundle.AllocationScenarios.StringTarget;
+
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Fails when a service method call or a bind allocates more bytes than its budget in
+ * {@code allocation-budgets.properties}. A budget is raised in the same change that adds the
+ * allocation, so the regression is reviewed. Counted with the allocation counter of the thread,
+ * so it needs a HotSpot JVM.
+ */
+public class AllocationBudgetTest {
+    private static final int WARMUP_CALLS = 20000;
+    private static final int MEASURED_CALLS = 1000;
+    private static final int ROUNDS = 5;
+
+    private static Properties budgets;
+
+    private final AutoBundle autoBundle = AutoBundle.builder().build();
+    private final String value = "value";
+    private final String[] array = {"a", "b"};
+    private final ArrayList<String> list = new ArrayList<>(Arrays.asList("a", "b"));
+    private final Item item = new Item();
+    private final ArrayList<Item> items = new ArrayList<>(Arrays.asList(new Item(), new Item()));
+
+    @BeforeClass
+    public static void loadBudgets() throws IOException {
+        InputStream in = AllocationBudgetTest.class.getResourceAsStream("/allocation-budgets.properties");
+        assertNotNull("allocation-budgets.properties not found", in);
+        budgets = new Properties();
+        try {
+            budgets.load(in);
+        } finally {
+            in.close();
+        }
+    }
+
+    @Test
+    public void proxyPrimitives() {
+        final PrimitiveService service = proxy(PrimitiveService.class);
+        assertWithinBudget("proxy.primitives", new Runnable() {
+            @Override
+            public void run() {
+                service.primitives(1, 2L, true, 3.0);
+            }
+        });
+    }
+
+    @Test
+    public void proxyStrings() {
+        final StringService service = proxy(StringService.class);
+        assertWithinBudget("proxy.strings", new Runnable() {
+            @Override
+            public void run() {
+                service.strings(value, value, value, value, array, list);
+            }
+        });
+    }
+
+    @Test
+    public void proxyParcelables() {
+        final ParcelableService service = proxy(ParcelableService.class);
+        assertWithinBudget("proxy.parcelables", new Runnable() {
+            @Override
+            public void run() {
+                service.parcelables(item, items);
+            }
+        });
+    }
+
+    @Test
+    public void generatedPrimitives() {
+        final PrimitiveService service = generated(PrimitiveService.class);
+        assertWithinBudget("generated.primitives", new Runnable() {
+            @Override
+            public void run() {
+                service.primitives(1, 2L, true, 3.0);
+            }
+        });
+    }
+
+    @Test
+    public void generatedStrings() {
+        final StringService service = generated(StringService.class);
+        assertWithinBudget("generated.strings", new Runnable() {
+            @Override
+            public void run() {
+                service.strings(value, value, value, value, array, list);
+            }
+        });
+    }
+
+    @Test
+    public void generatedParcelables() {
+        final ParcelableService service = generated(ParcelableService.class);
+        assertWithinBudget("generated.parcelables", new Runnable() {
+            @Override
+            public void run() {
+                service.parcelables(item, items);
+            }
+        });
+    }
+
+    @Test
+    public void bindPrimitives() {
+        final Bundle bundle = generated(PrimitiveService.class).primitives(1, 2L, true, 3.0);
+        final PrimitiveTarget target = new PrimitiveTarget();
+        assertWithinBudget("bind.primitives", new Runnable() {
+            @Override
+            public void run() {
+                autoBundle.bind(target, bundle);
+            }
+        });
+    }
+
+    @Test
+    public void bindStrings() {
+        final Bundle bundle = generated(StringService.class).strings(value, value, value, value, array, list);
+        final StringTarget target = new StringTarget();
+        assertWithinBudget("bind.strings", new Runnable() {
+            @Override
+            public void run() {
+                autoBundle.bind(target, bundle);
+            }
+        });
+    }
+
+    @Test
+    public void bindParcelables() {
+        final Bundle bundle = generated(ParcelableService.class).parcelables(item, items);
+        final ParcelableTarget target = new ParcelableTarget();
+        assertWithinBudget("bind.parcelables", new Runnable() {
+            @Override
+            public void run() {
+                autoBundle.bind(target, bundle);
+            }
+        });
+    }
+
+    /**
+     * The proxy that {@link AutoBundle#create} returns when the generated implementation can not
+     * be used.
+     */
+    @SuppressWarnings("unchecked")
+    private <T> T proxy(Class<T> service) {
+        return (T) Proxy.newProxyInstance(service.getClassLoader(), new Class<?>[]{service},
+                new ServiceInvocationHandler(autoBundle, service,
+                        Collections.<Method, Future<BundleFactory>>emptyMap()));
+    }
+
+    private <T> T generated(Class<T> service) {
+        T result = autoBundle.create(service);
+        assertTrue(service.getName() + "_BundleCreator was not generated", !(result instanceof Proxy));
+        return result;
+    }
+
+    private static void assertWithinBudget(String scenario, Runnable call) {
+        String budget = budgets.getProperty(scenario);
+        assertNotNull("No budget for " + scenario + " in allocation-budgets.properties", budget);
+        long bytesPerCall = bytesPerCall(call);
+        assertTrue(scenario + " allocates " + bytesPerCall + " bytes per call, over its budget of "
+                + budget, bytesPerCall <= Long.parseLong(budget.trim()));
+    }
+
+    /**
+     * Returns the fewest bytes allocated per call of any round, after the JIT warmed up the call.
+     */
+    private static long bytesPerCall(Runnable call) {
+        com.sun.management.ThreadMXBean threads =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+        for (int i = 0; i < WARMUP_CALLS; i++) {
+            call.run();
+        }
+        long fewest = Long.MAX_VALUE;
+        for (int round = 0; round < ROUNDS; round++) {
+            long start = threads.getThreadAllocatedBytes(threadId);
+            for (int i = 0; i < MEASURED_CALLS; i++) {
+                call.run();
+            }
+            long bytes = threads.getThreadAllocatedBytes(threadId) - start;
+            fewest = Math.min(fewest, bytes / MEASURED_CALLS);
+        }
+        return fewest;
+    }
+}
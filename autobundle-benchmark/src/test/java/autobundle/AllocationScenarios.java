@@ -0,0 +1,82 @@
+package autobundle;
+
+import android.os.Bundle;
+import android.os.Parcel;
+import android.os.Parcelable;
+
+import java.util.ArrayList;
+
+import autobundle.annotation.Box;
+import autobundle.annotation.Unbox;
+
+/**
+ * The services and targets measured by {@link AllocationBudgetTest}, one per scenario.
+ */
+public final class AllocationScenarios {
+
+    private AllocationScenarios() {
+        // No instances.
+    }
+
+    public interface PrimitiveService {
+        Bundle primitives(@Box("int") int intValue, @Box("long") long longValue,
+                          @Box("boolean") boolean booleanValue, @Box("double") double doubleValue);
+    }
+
+    public interface StringService {
+        Bundle strings(@Box("first") String first, @Box("second") String second,
+                       @Box("third") String third, @Box("fourth") String fourth,
+                       @Box("array") String[] array, @Box("list") ArrayList<String> list);
+    }
+
+    public interface ParcelableService {
+        Bundle parcelables(@Box("item") Item item, @Box("items") ArrayList<Item> items);
+    }
+
+    public static class PrimitiveTarget {
+        @Unbox("int")
+        int intValue;
+        @Unbox("long")
+        long longValue;
+        @Unbox("boolean")
+        boolean booleanValue;
+        @Unbox("double")
+        double doubleValue;
+    }
+
+    public static class StringTarget {
+        @Unbox("first")
+        String first;
+        @Unbox("second")
+        String second;
+        @Unbox("third")
+        String third;
+        @Unbox("fourth")
+        String fourth;
+        @Unbox("array")
+        String[] array;
+        @Unbox("list")
+        ArrayList<String> list;
+    }
+
+    public static class ParcelableTarget {
+        @Unbox("item")
+        Item item;
+        @Unbox("items")
+        ArrayList<Item> items;
+    }
+
+    /**
+     * Never written to a Parcel by the tests.
+     */
+    public static class Item implements Parcelable {
+        @Override
+        public int describeContents() {
+            return 0;
+        }
+
+        @Override
+        public void writeToParcel(Parcel dest, int flags) {
+        }
+    }
+}
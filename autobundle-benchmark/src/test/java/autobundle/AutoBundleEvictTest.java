@@ -0,0 +1,123 @@
+package autobundle;
+
+import android.os.Bundle;
+
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.ref.WeakReference;
+
+import autobundle.annotation.Box;
+
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Checks that {@link AutoBundle#evict(ClassLoader)} releases the classes of a discarded class
+ * loader, e.g. of an unloaded plugin or dynamic feature module.
+ */
+public class AutoBundleEvictTest {
+
+    /**
+     * Loaded again by every {@link IsolatedClassLoader}, so each loader has its own service class.
+     */
+    public interface PluginService {
+        Bundle getName(@Box("name") String name);
+
+        Bundle getCount(@Box("count") int count);
+    }
+
+    @Test
+    public void evictReleasesClassLoader() throws Exception {
+        AutoBundle autoBundle = AutoBundle.builder().validateEagerly(true).build();
+        WeakReference<ClassLoader> loader = createPluginService(autoBundle);
+
+        // The parsed service methods keep the class loader reachable.
+        assertNotNull(awaitCollection(loader));
+
+        autoBundle.evict(loader.get());
+        assertTrue(awaitCollection(loader) == null);
+    }
+
+    @Test
+    public void evictKeepsOtherClassLoaders() throws Exception {
+        AutoBundle autoBundle = AutoBundle.builder().validateEagerly(true).build();
+        WeakReference<ClassLoader> evicted = createPluginService(autoBundle);
+        WeakReference<ClassLoader> kept = createPluginService(autoBundle);
+
+        autoBundle.evict(evicted.get());
+        assertTrue(awaitCollection(evicted) == null);
+        assertNotNull(awaitCollection(kept));
+    }
+
+    /**
+     * Creates the service from a new class loader and drops every reference to it but the cache.
+     */
+    private static WeakReference<ClassLoader> createPluginService(AutoBundle autoBundle) throws Exception {
+        ClassLoader loader = new IsolatedClassLoader(PluginService.class.getName(),
+                AutoBundleEvictTest.class.getClassLoader());
+        Class<?> service = loader.loadClass(PluginService.class.getName());
+        assertTrue(service != PluginService.class);
+        assertNotNull(autoBundle.create(service));
+        return new WeakReference<>(loader);
+    }
+
+    private static ClassLoader awaitCollection(WeakReference<ClassLoader> reference) throws InterruptedException {
+        for (int i = 0; i < 10 && reference.get() != null; i++) {
+            System.gc();
+            Thread.sleep(50);
+        }
+        return reference.get();
+    }
+
+    /**
+     * Defines its own copy of one class instead of delegating to the parent.
+     */
+    private static final class IsolatedClassLoader extends ClassLoader {
+        private final String isolatedName;
+
+        IsolatedClassLoader(String isolatedName, ClassLoader parent) {
+            super(parent);
+            this.isolatedName = isolatedName;
+        }
+
+        @Override
+        protected Class<?> loadClass(String name, boolean resolve) throws ClassNotFoundException {
+            if (!name.equals(isolatedName)) {
+                return super.loadClass(name, resolve);
+            }
+            synchronized (this) {
+                Class<?> result = findLoadedClass(name);
+                if (result == null) {
+                    byte[] bytes = readClass(name);
+                    result = defineClass(name, bytes, 0, bytes.length);
+                }
+                return result;
+            }
+        }
+
+        private byte[] readClass(String name) throws ClassNotFoundException {
+            InputStream in = getParent().getResourceAsStream(name.replace('.', '/') + ".class");
+            if (in == null) {
+                throw new ClassNotFoundException(name);
+            }
+            try {
+                ByteArrayOutputStream out = new ByteArrayOutputStream();
+                byte[] buffer = new byte[4096];
+                for (int count; (count = in.read(buffer)) != -1; ) {
+                    out.write(buffer, 0, count);
+                }
+                return out.toByteArray();
+            } catch (IOException e) {
+                throw new ClassNotFoundException(name, e);
+            } finally {
+                try {
+                    in.close();
+                } catch (IOException ignored) {
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package autobundle;
+
+import android.os.Bundle;
+
+import org.junit.Test;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Map;
+
+import autobundle.annotation.Box;
+import autobundle.annotation.Required;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.fail;
+
+/**
+ * Runs service methods against a {@link MapSink}, which needs no Android runtime.
+ */
+public class AutoBundleWriteTest {
+
+    interface Service {
+        Bundle primitives(@Box("int") int i, @Box("long") long l, @Box("boolean") boolean b,
+                          @Box("char") char c, @Box("double") double d);
+
+        Bundle objects(@Box("string") String string, @Box("list") ArrayList<String> list,
+                       @Box("serializable") Long serializable);
+
+        Bundle required(@Required @Box("name") String name);
+
+        Bundle duplicate(@Box("key") String first, @Box("key") String second);
+    }
+
+    private final AutoBundle autoBundle = AutoBundle.builder().build();
+
+    @Test
+    public void writesPrimitives() throws Exception {
+        Map<String, Object> values = write("primitives", 1, 2L, true, 'c', 3.0);
+        assertEquals(5, values.size());
+        assertEquals(1, values.get("int"));
+        assertEquals(2L, values.get("long"));
+        assertEquals(true, values.get("boolean"));
+        assertEquals('c', values.get("char"));
+        assertEquals(3.0, values.get("double"));
+    }
+
+    @Test
+    public void writesObjects() throws Exception {
+        ArrayList<String> list = new ArrayList<>(Arrays.asList("a", "b"));
+        Map<String, Object> values = write("objects", "value", list, null);
+        assertEquals("value", values.get("string"));
+        assertEquals(list, values.get("list"));
+        assertNull(values.get("serializable"));
+    }
+
+    @Test
+    public void lastDuplicateKeyWins() throws Exception {
+        assertEquals("second", write("duplicate", "first", "second").get("key"));
+    }
+
+    @Test
+    public void requiredNullThrows() throws Exception {
+        try {
+            write("required", (Object) null);
+            fail();
+        } catch (NullPointerException expected) {
+        }
+    }
+
+    @Test
+    public void argumentCountMismatchThrows() throws Exception {
+        try {
+            write("primitives", 1);
+            fail();
+        } catch (IllegalArgumentException expected) {
+        }
+    }
+
+    private Map<String, Object> write(String methodName, Object... args) {
+        Method method = null;
+        for (Method candidate : Service.class.getDeclaredMethods()) {
+            if (candidate.getName().equals(methodName)) {
+                method = candidate;
+            }
+        }
+        MapSink sink = new MapSink();
+        autoBundle.write(method, args, sink);
+        return sink.asMap();
+    }
+}
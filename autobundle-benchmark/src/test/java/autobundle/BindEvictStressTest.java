@@ -0,0 +1,201 @@
+package autobundle;
+
+import android.content.Intent;
+import android.os.Bundle;
+import android.support.annotation.Nullable;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Races the first binds of the same and of different target classes on many threads, alone and
+ * against {@link AutoBundle#evict(ClassLoader)}. The bindings below stand in for generated ones and
+ * are found by name like them; each records the binder instances that bound its targets.
+ */
+public class BindEvictStressTest {
+    private static final int THREADS = 8;
+    private static final int BINDS_PER_THREAD = 2000;
+
+    // The binders that bound a target, by target class.
+    static final Map<Class<?>, Set<IBinder>> USED_BINDERS = new ConcurrentHashMap<>();
+
+    public static class First {
+        int value;
+    }
+
+    public static class Second {
+        int value;
+    }
+
+    public static class Third {
+        int value;
+    }
+
+    // No binding of its own, bound by the binding of First.
+    public static class FirstChild extends First {
+    }
+
+    public static class First_BundleBinding extends RecordingBinding {
+    }
+
+    public static class Second_BundleBinding extends RecordingBinding {
+    }
+
+    public static class Third_BundleBinding extends RecordingBinding {
+    }
+
+    @Before
+    public void clearUsedBinders() {
+        USED_BINDERS.clear();
+    }
+
+    @Test
+    public void racingFirstBindsShareOneBinderPerClass() throws InterruptedException {
+        AutoBundle autoBundle = AutoBundle.builder().build();
+
+        assertNull(race(autoBundle, false));
+
+        assertEquals(1, USED_BINDERS.get(First.class).size());
+        assertEquals(1, USED_BINDERS.get(Second.class).size());
+        assertEquals(1, USED_BINDERS.get(Third.class).size());
+        // The subclass is bound by the binder cached for its superclass.
+        assertEquals(USED_BINDERS.get(First.class), USED_BINDERS.get(FirstChild.class));
+    }
+
+    @Test
+    public void bindsRacingEvictAreNotLost() throws InterruptedException {
+        AutoBundle autoBundle = AutoBundle.builder().build();
+
+        Integer evictions = race(autoBundle, true);
+        assertTrue(evictions > 0);
+
+        // A binder is only loaded again after its class was evicted, and one instance is shared
+        // in between.
+        for (Class<?> targetClass : new Class<?>[]{First.class, Second.class, Third.class}) {
+            int binders = USED_BINDERS.get(targetClass).size();
+            assertTrue(targetClass + " bound by " + binders + " binders with " + evictions + " evictions",
+                    binders >= 1 && binders <= evictions + 1);
+        }
+    }
+
+    /**
+     * Binds targets of every class on {@link #THREADS} threads started at once, and checks each
+     * bind. Returns the number of evictions of the test class loader while they run, or null
+     * without {@code evict}.
+     */
+    @Nullable
+    private static Integer race(final AutoBundle autoBundle, boolean evict) throws InterruptedException {
+        final CountDownLatch start = new CountDownLatch(1);
+        final CountDownLatch done = new CountDownLatch(THREADS);
+        final AtomicInteger binds = new AtomicInteger();
+        final AtomicReference<Throwable> failure = new AtomicReference<>();
+        for (int i = 0; i < THREADS; i++) {
+            final int thread = i;
+            new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        start.await();
+                        for (int j = 0; j < BINDS_PER_THREAD; j++) {
+                            // Threads start on different classes, so some first binds race on the
+                            // same class and some on different ones.
+                            int value = thread * BINDS_PER_THREAD + j;
+                            First first = (thread + j) % 2 == 0 ? new First() : new FirstChild();
+                            Second second = new Second();
+                            Third third = new Third();
+                            autoBundle.bind(first, bundle(value));
+                            autoBundle.bind(second, bundle(value));
+                            autoBundle.bind(third, bundle(value));
+                            if (first.value != value || second.value != value || third.value != value) {
+                                throw new AssertionError("Lost bind of " + value);
+                            }
+                            binds.incrementAndGet();
+                        }
+                    } catch (Throwable e) {
+                        failure.compareAndSet(null, e);
+                    } finally {
+                        done.countDown();
+                    }
+                }
+            }).start();
+        }
+
+        start.countDown();
+        int evictions = 0;
+        if (evict) {
+            ClassLoader classLoader = BindEvictStressTest.class.getClassLoader();
+            while (!done.await(1, TimeUnit.MILLISECONDS)) {
+                autoBundle.evict(classLoader);
+                evictions++;
+            }
+        }
+        done.await();
+
+        if (failure.get() != null) {
+            throw new AssertionError(failure.get());
+        }
+        assertEquals(THREADS * BINDS_PER_THREAD, binds.get());
+        return evict ? evictions : null;
+    }
+
+    private static Bundle bundle(int value) {
+        Bundle bundle = new Bundle();
+        bundle.putInt("value", value);
+        return bundle;
+    }
+
+    public abstract static class RecordingBinding implements IBinder {
+        protected RecordingBinding() {
+            // Widens the race of first lookups, which would otherwise mostly be won by one thread.
+            try {
+                Thread.sleep(1);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        @Override
+        public void bind(Object object, Bundle bundle) {
+            Set<IBinder> binders = USED_BINDERS.get(object.getClass());
+            if (binders == null) {
+                Set<IBinder> created = Collections.newSetFromMap(new ConcurrentHashMap<IBinder, Boolean>());
+                binders = USED_BINDERS.putIfAbsent(object.getClass(), created);
+                if (binders == null) {
+                    binders = created;
+                }
+            }
+            binders.add(this);
+            // First, Second and Third have no common superclass.
+            int value = bundle.getInt("value");
+            if (object instanceof First) {
+                ((First) object).value = value;
+            } else if (object instanceof Second) {
+                ((Second) object).value = value;
+            } else {
+                ((Third) object).value = value;
+            }
+        }
+
+        @Override
+        public void bind(Object object, Intent intent) {
+            bind(object, intent.getExtras());
+        }
+
+        @Override
+        public void save(Object object, Bundle bundle, @Nullable Bundle bound) {
+        }
+    }
+}
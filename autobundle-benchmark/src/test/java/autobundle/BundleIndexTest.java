@@ -0,0 +1,135 @@
+package autobundle;
+
+import android.content.Intent;
+import android.os.Bundle;
+import android.support.annotation.Nullable;
+
+import org.junit.Test;
+
+import java.lang.reflect.Proxy;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import autobundle.annotation.Box;
+import autobundle.annotation.Unbox;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Looks up binders in an added {@link BundleIndex}, and by name for classes missing from it. The
+ * processor also writes {@code TestBundleIndex} with every target and service of the tests.
+ */
+public class BundleIndexTest {
+
+    // Only bound through PartialIndex.
+    public static class Indexed {
+        int value;
+    }
+
+    // Bound by its generated binding, PartialIndex misses it.
+    public static class NotIndexed {
+        @Unbox("value")
+        int value;
+    }
+
+    // Its creator is generic too, the index creates it with a diamond.
+    public interface GenericService<T extends CharSequence> {
+        Bundle value(@Box("value") String value);
+    }
+
+    @Test
+    public void indexedBinderIsCreatedOnce() {
+        PartialIndex index = new PartialIndex();
+        AutoBundle autoBundle = AutoBundle.builder().addBundleIndex(index).build();
+
+        Indexed first = new Indexed();
+        autoBundle.bind(first, bundle(1));
+        Indexed second = new Indexed();
+        autoBundle.bind(second, bundle(2));
+
+        assertEquals(1, first.value);
+        assertEquals(2, second.value);
+        assertEquals(1, index.created.get());
+    }
+
+    @Test
+    public void classMissingFromIndexIsBoundByName() {
+        AutoBundle autoBundle = AutoBundle.builder().addBundleIndex(new PartialIndex()).build();
+
+        NotIndexed target = new NotIndexed();
+        autoBundle.bind(target, bundle(3));
+
+        assertEquals(3, target.value);
+    }
+
+    @Test
+    public void generatedIndexHasEveryTargetAndService() {
+        Map<Class<?>, IBinder.Factory> binders = new HashMap<>();
+        new TestBundleIndex().loadInto(binders);
+        Map<Class<?>, BundleIndex.ServiceFactory> services = new HashMap<>();
+        new TestBundleIndex().loadServicesInto(services);
+
+        assertFalse(binders.containsKey(Indexed.class));
+        assertEquals(NotIndexed.class.getName() + "_BundleBinding",
+                binders.get(NotIndexed.class).create().getClass().getName());
+        assertTrue(binders.containsKey(SaveStateTest.Screen.class));
+        assertEquals(GeneratedCreatorTest.MixedService.class.getName() + "_BundleCreator",
+                services.get(GeneratedCreatorTest.MixedService.class).create(null).getClass().getName());
+        assertEquals(GenericService.class.getName() + "_BundleCreator",
+                services.get(GenericService.class).create(null).getClass().getName());
+    }
+
+    @Test
+    public void generatedIndexBindsAndCreates() {
+        AutoBundle autoBundle = AutoBundle.builder().addBundleIndex(new TestBundleIndex()).build();
+
+        NotIndexed target = new NotIndexed();
+        autoBundle.bind(target, bundle(4));
+        GeneratedCreatorTest.MixedService service = autoBundle.create(GeneratedCreatorTest.MixedService.class);
+
+        assertEquals(4, target.value);
+        assertFalse(Proxy.isProxyClass(service.getClass()));
+        assertEquals("name", service.optional("name", 1).getString("name"));
+    }
+
+    private static Bundle bundle(int value) {
+        Bundle bundle = new Bundle();
+        bundle.putInt("value", value);
+        return bundle;
+    }
+
+    static final class PartialIndex extends BundleIndex {
+        final AtomicInteger created = new AtomicInteger();
+
+        @Override
+        public void loadInto(Map<Class<?>, IBinder.Factory> binders) {
+            binders.put(Indexed.class, new IBinder.Factory() {
+                @Override
+                public IBinder create() {
+                    created.incrementAndGet();
+                    return new IndexedBinding();
+                }
+            });
+        }
+    }
+
+    static final class IndexedBinding implements IBinder {
+        @Override
+        public void bind(Object object, Bundle bundle) {
+            ((Indexed) object).value = bundle.getInt("value");
+        }
+
+        @Override
+        public void bind(Object object, Intent intent) {
+            ((Indexed) object).value = intent.getIntExtra("value", 0);
+        }
+
+        @Override
+        public void save(Object object, Bundle bundle, @Nullable Bundle bound) {
+            bundle.putInt("value", ((Indexed) object).value);
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package autobundle;
+
+import android.os.Bundle;
+import android.support.annotation.Nullable;
+
+import org.junit.Test;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Type;
+
+import autobundle.annotation.Box;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+/**
+ * Runs a custom handler written for a Bundle, through {@link BundleParameterHandler}.
+ */
+public class BundleParameterHandlerTest {
+
+    public static final class Point {
+        final int x;
+        final int y;
+
+        Point(int x, int y) {
+            this.x = x;
+            this.y = y;
+        }
+    }
+
+    public interface PointService {
+        Bundle point(@Box("point") Point point, @Box("name") String name);
+    }
+
+    /**
+     * Puts a point as two ints, and the name of a nested service call made while putting it.
+     */
+    static final class PointHandlerFactory extends ParameterHandler.Factory {
+        @Nullable
+        @Override
+        public ParameterHandler<?> get(Type type, Annotation[] parameterAnnotations,
+                                       Annotation[] methodAnnotations) {
+            if (type != Point.class) {
+                return null;
+            }
+            return new BundleParameterHandler<Point>() {
+                @Override
+                public void apply(Bundle bundle, String key, @Nullable Point value, boolean required) {
+                    if (value != null) {
+                        bundle.putInt(key + ".x", value.x);
+                        bundle.putInt(key + ".y", value.y);
+                    }
+                    if (value != null && value.x < 0) {
+                        Bundle nested = service.point(new Point(-value.x, value.y), "nested");
+                        bundle.putString(key + ".nested", nested.getString("name"));
+                    }
+                }
+            };
+        }
+
+        PointService service;
+    }
+
+    @Test
+    public void bundleHandlerPutsIntoServiceBundle() {
+        PointService service = create();
+
+        Bundle bundle = service.point(new Point(1, 2), "name");
+
+        assertEquals(1, bundle.getInt("point.x"));
+        assertEquals(2, bundle.getInt("point.y"));
+        assertEquals("name", bundle.getString("name"));
+    }
+
+    @Test
+    public void nestedCallPutsIntoItsOwnBundle() {
+        PointService service = create();
+
+        Bundle bundle = service.point(new Point(-1, 2), "outer");
+
+        assertEquals(-1, bundle.getInt("point.x"));
+        assertEquals("nested", bundle.getString("point.nested"));
+        assertEquals("outer", bundle.getString("name"));
+    }
+
+    @Test
+    public void otherSinksAreUnsupported() throws NoSuchMethodException {
+        PointHandlerFactory factory = new PointHandlerFactory();
+        AutoBundle autoBundle = AutoBundle.builder().addParameterHandlerFactory(factory).build();
+        try {
+            autoBundle.write(PointService.class.getMethod("point", Point.class, String.class),
+                    new Object[]{new Point(1, 2), "name"}, new MapSink());
+            fail();
+        } catch (UnsupportedOperationException expected) {
+        }
+    }
+
+    private static PointService create() {
+        PointHandlerFactory factory = new PointHandlerFactory();
+        PointService service = AutoBundle.builder().addParameterHandlerFactory(factory).build()
+                .create(PointService.class);
+        factory.service = service;
+        return service;
+    }
+}
@@ -0,0 +1,88 @@
+package autobundle;
+
+import android.os.Bundle;
+
+import org.junit.Test;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import autobundle.annotation.Unbox;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Checks which binders and parameter handlers a cache bounded by
+ * {@link AutoBundle.Builder#maxCacheSize(int)} keeps.
+ */
+public class CacheTrimTest {
+
+    public static class First {
+        @Unbox("value")
+        int value;
+    }
+
+    public static class Second {
+        @Unbox("value")
+        int value;
+    }
+
+    public static class Third {
+        @Unbox("value")
+        int value;
+    }
+
+    @Test
+    public void oldestBinderIsTrimmedFirst() {
+        AutoBundle autoBundle = AutoBundle.builder().maxCacheSize(2).collectStats(true).build();
+        autoBundle.bind(new First(), Bundle.EMPTY);
+        autoBundle.bind(new Second(), Bundle.EMPTY);
+        autoBundle.bind(new Third(), Bundle.EMPTY);
+        assertEquals(3, autoBundle.stats().getBindingCacheMisses());
+
+        autoBundle.bind(new Second(), Bundle.EMPTY);
+        autoBundle.bind(new Third(), Bundle.EMPTY);
+        assertEquals(2, autoBundle.stats().getBindingCacheHits());
+
+        autoBundle.bind(new First(), Bundle.EMPTY);
+        assertEquals(4, autoBundle.stats().getBindingCacheMisses());
+    }
+
+    @Test
+    public void insertedBinderIsKept() {
+        AutoBundle autoBundle = AutoBundle.builder().maxCacheSize(1).collectStats(true).build();
+        autoBundle.bind(new First(), Bundle.EMPTY);
+        autoBundle.bind(new Second(), Bundle.EMPTY);
+
+        autoBundle.bind(new Second(), Bundle.EMPTY);
+        assertEquals(1, autoBundle.stats().getBindingCacheHits());
+        assertEquals(2, autoBundle.stats().getBindingCacheMisses());
+    }
+
+    @Test
+    public void oldestHandlerIsTrimmedFirst() {
+        final List<Type> resolved = new ArrayList<>();
+        ParameterHandlerCache cache = new ParameterHandlerCache(Arrays.<ParameterHandler.Factory>asList(
+                new ParameterHandler.Factory() {
+                    @Override
+                    public ParameterHandler<?> get(Type type, Annotation[] parameterAnnotations,
+                                                   Annotation[] methodAnnotations) {
+                        resolved.add(type);
+                        return null;
+                    }
+                }, BuiltInHandlerFactory.INSTANCE), 2);
+        Annotation[] annotations = new Annotation[0];
+
+        cache.get(int.class, annotations, annotations);
+        cache.get(String.class, annotations, annotations);
+        cache.get(long.class, annotations, annotations);
+        cache.get(String.class, annotations, annotations);
+        cache.get(long.class, annotations, annotations);
+        cache.get(int.class, annotations, annotations);
+
+        assertEquals(Arrays.<Type>asList(int.class, String.class, long.class, int.class), resolved);
+    }
+}
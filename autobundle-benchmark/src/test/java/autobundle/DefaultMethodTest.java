@@ -0,0 +1,40 @@
+package autobundle;
+
+import android.os.Bundle;
+
+import org.junit.Test;
+
+import java.lang.reflect.Proxy;
+
+import autobundle.annotation.Box;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Calls a default method of a service through the {@link Proxy} on the JVM, where the trusted
+ * {@link java.lang.invoke.MethodHandles.Lookup} Android uses can't be made accessible.
+ */
+public class DefaultMethodTest {
+
+    public interface GreetingService {
+        Bundle greeting(@Box("name") String name, @Box("count") int count);
+
+        default Bundle hello(String name) {
+            return greeting("Hello " + name, 1);
+        }
+    }
+
+    @Test
+    public void defaultMethodCallsServiceMethod() {
+        // Collecting stats turns the generated implementation off, so the proxy is called.
+        GreetingService service = AutoBundle.builder().collectStats(true).build()
+                .create(GreetingService.class);
+        assertTrue(Proxy.isProxyClass(service.getClass()));
+
+        Bundle bundle = service.hello("you");
+
+        assertEquals("Hello you", bundle.getString("name"));
+        assertEquals(1, bundle.getInt("count"));
+    }
+}
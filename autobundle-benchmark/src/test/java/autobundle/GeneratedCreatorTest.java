@@ -0,0 +1,145 @@
+package autobundle;
+
+import android.os.Bundle;
+import android.support.annotation.Nullable;
+
+import org.junit.Test;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.TreeSet;
+
+import autobundle.annotation.Box;
+import autobundle.annotation.BundleFlag;
+import autobundle.annotation.Required;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Calls a service through its generated implementation and through the {@link Proxy}, and
+ * compares the Bundles and the listener callbacks of both.
+ */
+public class GeneratedCreatorTest {
+
+    public interface MixedService {
+        @BundleFlag(7)
+        Bundle all(@Required @Box("count") int count, @Required @Box("name") String name,
+                   @Box("id") long id, @Box("enabled") boolean enabled,
+                   @Box("title") CharSequence title, @Box("names") String[] names,
+                   @Box("tags") ArrayList<String> tags, @Box("extra") Bundle extra);
+
+        Bundle optional(@Box("name") String name, @Box("count") int count);
+    }
+
+    @Test
+    public void generatedImplementationMatchesProxy() {
+        Bundle extra = new Bundle();
+        extra.putString("nested", "value");
+        ArrayList<String> tags = new ArrayList<>(Arrays.asList("a", "b"));
+        String[] names = {"first", "second"};
+
+        Recorder generated = new Recorder();
+        Bundle generatedBundle = service(generated, false)
+                .all(1, "name", 2L, true, "title", names, tags, extra);
+        Recorder proxy = new Recorder();
+        Bundle proxyBundle = service(proxy, true)
+                .all(1, "name", 2L, true, "title", names, tags, extra);
+
+        assertBundleEquals(proxyBundle, generatedBundle);
+        assertEquals(proxy.calls, generated.calls);
+    }
+
+    @Test
+    public void generatedImplementationMatchesProxyWithNulls() {
+        Recorder generated = new Recorder();
+        Bundle generatedBundle = service(generated, false).optional(null, 0);
+        Recorder proxy = new Recorder();
+        Bundle proxyBundle = service(proxy, true).optional(null, 0);
+
+        assertBundleEquals(proxyBundle, generatedBundle);
+        assertEquals(proxy.calls, generated.calls);
+    }
+
+    @Test
+    public void primitivesAreNeverRequired() {
+        Recorder generated = new Recorder();
+        service(generated, false).all(1, "name", 2L, true, null, null, null, null);
+        Recorder proxy = new Recorder();
+        service(proxy, true).all(1, "name", 2L, true, null, null, null, null);
+
+        assertTrue(generated.calls.contains("onBundling 7 count 1 false"));
+        assertTrue(generated.calls.contains("onBundling 7 name name true"));
+        assertEquals(proxy.calls, generated.calls);
+    }
+
+    @Test
+    public void requiredNullThrowsInBoth() {
+        for (boolean useProxy : new boolean[]{false, true}) {
+            try {
+                service(new Recorder(), useProxy).all(1, null, 2L, true, null, null, null, null);
+                fail("No exception with proxy " + useProxy);
+            } catch (NullPointerException expected) {
+                assertTrue(expected.getMessage(), expected.getMessage().contains("name"));
+            }
+        }
+    }
+
+    /**
+     * Creates the service with {@code recorder} as listener. Collecting stats turns the generated
+     * implementation off, like any instrumentation.
+     */
+    private static MixedService service(Recorder recorder, boolean useProxy) {
+        MixedService service = AutoBundle.builder()
+                .addOnBundleListener(recorder)
+                .addOnBundleBatchListener(recorder)
+                .collectStats(useProxy)
+                .build()
+                .create(MixedService.class);
+        assertEquals(useProxy, Proxy.isProxyClass(service.getClass()));
+        assertFalse(service == null);
+        return service;
+    }
+
+    private static void assertBundleEquals(Bundle expected, Bundle actual) {
+        assertEquals(new TreeSet<>(expected.keySet()), new TreeSet<>(actual.keySet()));
+        for (String key : expected.keySet()) {
+            assertTrue(key, Arrays.deepEquals(new Object[]{expected.get(key)}, new Object[]{actual.get(key)}));
+        }
+    }
+
+    /**
+     * Records every callback as a String, values and Bundles by their contents.
+     */
+    static final class Recorder implements OnBundleListener, OnBundleBatchListener {
+        final List<String> calls = new ArrayList<>();
+
+        @Override
+        public void onBundling(int flag, String key, @Nullable Object value, boolean required) {
+            calls.add("onBundling " + flag + " " + key + " " + string(value) + " " + required);
+        }
+
+        @Override
+        public void onCompleted(int flag, Bundle bundle) {
+            calls.add("onCompleted " + flag + " " + new TreeSet<>(bundle.keySet()));
+        }
+
+        @Override
+        public void onBundled(int flag, String[] keys, Object[] values, Bundle bundle) {
+            List<String> strings = new ArrayList<>();
+            for (Object value : values) {
+                strings.add(string(value));
+            }
+            calls.add("onBundled " + flag + " " + Arrays.toString(keys) + " " + strings
+                    + " " + new TreeSet<>(bundle.keySet()));
+        }
+
+        private static String string(@Nullable Object value) {
+            return value instanceof Object[] ? Arrays.toString((Object[]) value) : String.valueOf(value);
+        }
+    }
+}
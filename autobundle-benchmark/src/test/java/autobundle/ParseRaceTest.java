@@ -0,0 +1,179 @@
+package autobundle;
+
+import android.os.Bundle;
+import android.support.annotation.Nullable;
+
+import org.junit.Test;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Method;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import autobundle.annotation.Box;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Parses one method on many threads while the first parse fails. The threads waiting on the lock
+ * of the failed parse must retry, also when they wake up to the lock of another parsing thread.
+ */
+public class ParseRaceTest {
+    private static final int THREADS = 8;
+
+    public static final class Slow {
+    }
+
+    public interface SlowService {
+        Bundle slow(@Box("slow") Slow slow);
+    }
+
+    /**
+     * Takes a while to resolve the handler of {@link Slow}, so the other callers wait, and fails
+     * the first time.
+     */
+    static class FailingOnceFactory extends ParameterHandler.Factory {
+        final AtomicInteger calls = new AtomicInteger();
+
+        @Nullable
+        @Override
+        public ParameterHandler<?> get(Type type, Annotation[] parameterAnnotations,
+                                       Annotation[] methodAnnotations) {
+            if (type != Slow.class) {
+                return null;
+            }
+            int call = calls.incrementAndGet();
+            sleep(50);
+            if (call == 1) {
+                beforeFailing();
+                throw new IllegalStateException("First parse fails");
+            }
+            return new BundleParameterHandler<Slow>() {
+                @Override
+                public void apply(Bundle bundle, String key, @Nullable Slow value, boolean required) {
+                    bundle.putBoolean(key, value != null);
+                }
+            };
+        }
+
+        void beforeFailing() {
+        }
+    }
+
+    @Test
+    public void waitingThreadsRetryAfterFailedParse() throws Exception {
+        FailingOnceFactory factory = new FailingOnceFactory();
+        AutoBundle autoBundle = AutoBundle.builder().addParameterHandlerFactory(factory).build();
+
+        assertParsedOnceAfterFailure(race(autoBundle, THREADS));
+        assertEquals(2, factory.calls.get());
+    }
+
+    @Test
+    public void waitingThreadsRetryOnLockOfNextParse() throws Exception {
+        final AutoBundle[] autoBundle = new AutoBundle[1];
+        // Evicts the method being parsed and starts parsing it again before the first parse fails,
+        // so its waiting threads find the lock of the second parse.
+        FailingOnceFactory factory = new FailingOnceFactory() {
+            @Override
+            void beforeFailing() {
+                autoBundle[0].evict(ParseRaceTest.class.getClassLoader());
+                new Thread(new Runnable() {
+                    @Override
+                    public void run() {
+                        autoBundle[0].loadBundleFactory(slowMethod());
+                    }
+                }).start();
+                while (calls.get() < 2) {
+                    sleep(1);
+                }
+            }
+        };
+        autoBundle[0] = AutoBundle.builder().addParameterHandlerFactory(factory).build();
+
+        BundleFactory parsed = assertParsedOnceAfterFailure(race(autoBundle[0], THREADS));
+
+        assertSame(parsed, autoBundle[0].loadBundleFactory(slowMethod()));
+        assertEquals(2, factory.calls.get());
+    }
+
+    /**
+     * Loads the parsed method on {@code threads} threads started at once, and returns what each
+     * returned or threw.
+     */
+    private static List<Object> race(final AutoBundle autoBundle, int threads) throws Exception {
+        final CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        List<Future<BundleFactory>> futures = new ArrayList<>();
+        for (int i = 0; i < threads; i++) {
+            futures.add(executor.submit(new Callable<BundleFactory>() {
+                @Override
+                public BundleFactory call() throws Exception {
+                    start.await();
+                    return autoBundle.loadBundleFactory(slowMethod());
+                }
+            }));
+        }
+        start.countDown();
+
+        List<Object> results = new ArrayList<>();
+        for (Future<BundleFactory> future : futures) {
+            try {
+                results.add(future.get(10, TimeUnit.SECONDS));
+            } catch (ExecutionException e) {
+                results.add(e.getCause());
+            }
+        }
+        executor.shutdown();
+        return results;
+    }
+
+    /**
+     * Checks that one thread got the error of the first parse and all others the same factory,
+     * and returns that factory.
+     */
+    private static BundleFactory assertParsedOnceAfterFailure(List<Object> results) {
+        BundleFactory parsed = null;
+        int failures = 0;
+        for (Object result : results) {
+            if (result instanceof IllegalStateException) {
+                failures++;
+            } else {
+                assertTrue(String.valueOf(result), result instanceof BundleFactory);
+                if (parsed == null) {
+                    parsed = (BundleFactory) result;
+                }
+                assertSame(parsed, result);
+            }
+        }
+        assertEquals(results.toString(), 1, failures);
+        return parsed;
+    }
+
+    private static Method slowMethod() {
+        try {
+            return SlowService.class.getMethod("slow", Slow.class);
+        } catch (NoSuchMethodException e) {
+            throw new AssertionError(e);
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            throw new AssertionError(e);
+        }
+    }
+}
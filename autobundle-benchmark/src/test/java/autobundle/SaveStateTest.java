@@ -0,0 +1,139 @@
+package autobundle;
+
+import android.content.Intent;
+import android.os.Bundle;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import autobundle.annotation.Required;
+import autobundle.annotation.Unbox;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Saves the fields of a target with its generated binder and binds them back, as in
+ * {@code onSaveInstanceState} and {@code onCreate}.
+ */
+public class SaveStateTest {
+
+    public static class Screen {
+        @Required
+        @Unbox("name")
+        String name;
+        @Unbox("count")
+        int count;
+        @Unbox("tags")
+        List<String> tags;
+    }
+
+    // Optional extras, kept at their initial value when missing.
+    public static class Options {
+        @Unbox("limit")
+        int limit = 10;
+        @Unbox("enabled")
+        boolean enabled = true;
+    }
+
+    @Test
+    public void saveWritesAllFields() {
+        AutoBundle autoBundle = AutoBundle.builder().build();
+        Screen screen = bound(autoBundle);
+        screen.tags = Arrays.asList("a", "b");
+
+        Bundle outState = new Bundle();
+        autoBundle.save(screen, outState);
+
+        assertEquals("name", outState.getString("name"));
+        assertEquals(1, outState.getInt("count"));
+        // Lists that are no ArrayList are copied for the typed put.
+        assertEquals(new ArrayList<>(Arrays.asList("a", "b")), outState.getStringArrayList("tags"));
+    }
+
+    @Test
+    public void saveChangedFieldsOnly() {
+        AutoBundle autoBundle = AutoBundle.builder().saveChangedFieldsOnly(true).build();
+        Screen screen = bound(autoBundle);
+        screen.count = 2;
+
+        Bundle outState = new Bundle();
+        autoBundle.save(screen, outState);
+
+        assertFalse(outState.containsKey("name"));
+        assertEquals(2, outState.getInt("count"));
+        // Lists may be modified in place, so they are always saved.
+        assertTrue(outState.containsKey("tags"));
+    }
+
+    @Test
+    public void saveChangedFieldsOnlyAfterIntentBind() {
+        AutoBundle autoBundle = AutoBundle.builder().saveChangedFieldsOnly(true).build();
+        Intent intent = new Intent();
+        intent.putExtra("name", "name");
+        intent.putExtra("count", 1);
+        Screen screen = new Screen();
+        autoBundle.bind(screen, intent);
+        screen.name = "changed";
+
+        Bundle outState = new Bundle();
+        autoBundle.save(screen, outState);
+
+        // Compared with the extras when saving, the bind copied nothing.
+        assertEquals("changed", outState.getString("name"));
+        assertFalse(outState.containsKey("count"));
+    }
+
+    @Test
+    public void restoreKeepsFieldsMissingFromState() {
+        AutoBundle autoBundle = AutoBundle.builder().saveChangedFieldsOnly(true).build();
+        Screen screen = bound(autoBundle);
+        screen.count = 2;
+        Bundle outState = new Bundle();
+        autoBundle.save(screen, outState);
+
+        // Recreated: bound from the original arguments first, then restored.
+        Screen recreated = bound(autoBundle);
+        autoBundle.restore(recreated, outState);
+
+        assertEquals("name", recreated.name);
+        assertEquals(2, recreated.count);
+
+        // Still saved against the original arguments, not against the restored state.
+        Bundle nextState = new Bundle();
+        autoBundle.save(recreated, nextState);
+        assertEquals(2, nextState.getInt("count"));
+    }
+
+    @Test
+    public void saveChangedFieldsOnlyPutsFieldsMissingFromBoundBundle() {
+        AutoBundle autoBundle = AutoBundle.builder().saveChangedFieldsOnly(true).build();
+        Options options = new Options();
+        autoBundle.bind(options, new Bundle());
+        // Equal to the defaults of the missing keys, but not to the initial values.
+        options.limit = 0;
+        options.enabled = false;
+
+        Bundle outState = new Bundle();
+        autoBundle.save(options, outState);
+        Options recreated = new Options();
+        autoBundle.bind(recreated, new Bundle());
+        autoBundle.restore(recreated, outState);
+
+        assertEquals(0, recreated.limit);
+        assertFalse(recreated.enabled);
+    }
+
+    private static Screen bound(AutoBundle autoBundle) {
+        Bundle arguments = new Bundle();
+        arguments.putString("name", "name");
+        arguments.putInt("count", 1);
+        Screen screen = new Screen();
+        autoBundle.bind(screen, arguments);
+        return screen;
+    }
+}
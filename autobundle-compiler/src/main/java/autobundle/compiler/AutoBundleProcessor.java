@@ -1,15 +1,21 @@
 package autobundle.compiler;
 
 import com.google.auto.service.AutoService;
+import com.google.common.collect.ImmutableList;
+import com.squareup.javapoet.ClassName;
 import com.squareup.javapoet.JavaFile;
+import com.squareup.javapoet.MethodSpec;
 import com.squareup.javapoet.TypeName;
 
 import java.io.IOException;
 import java.io.PrintWriter;
 import java.io.StringWriter;
 import java.lang.annotation.Annotation;
+import java.util.AbstractMap;
 import java.util.ArrayDeque;
+import java.util.Collection;
 import java.util.Deque;
+import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
@@ -28,18 +34,24 @@ import javax.lang.model.element.ExecutableElement;
 import javax.lang.model.element.Modifier;
 import javax.lang.model.element.Name;
 import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
 import javax.lang.model.type.DeclaredType;
 import javax.lang.model.type.TypeKind;
 import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
 import javax.lang.model.util.Elements;
 import javax.lang.model.util.Types;
 import javax.tools.Diagnostic.Kind;
 
+import autobundle.annotation.Box;
+import autobundle.annotation.BundleFlag;
 import autobundle.annotation.Required;
 import autobundle.annotation.Unbox;
 
 import static javax.lang.model.element.ElementKind.CLASS;
+import static javax.lang.model.element.ElementKind.INTERFACE;
 import static javax.lang.model.element.Modifier.PRIVATE;
+import static javax.lang.model.element.Modifier.PUBLIC;
 import static javax.lang.model.element.Modifier.STATIC;
 
 /**
@@ -49,9 +61,21 @@ import static javax.lang.model.element.Modifier.STATIC;
  */
 @AutoService(Processor.class)
 public class AutoBundleProcessor extends AbstractProcessor {
+    /**
+     * Fully qualified name of the {@code autobundle.BundleIndex} to generate for this module.
+     */
+    static final String OPTION_INDEX = "autoBundleIndex";
+    static final String OPTION_GRADLE_ISOLATING = "org.gradle.annotation.processing.isolating";
+    static final String OPTION_GRADLE_AGGREGATING = "org.gradle.annotation.processing.aggregating";
+    private static final String BUNDLE_TYPE = "android.os.Bundle";
+
     private Types typeUtils;
     private Filer filer;
     private Elements elementUtils;
+    private BundleTypes bundleTypes;
+    private @Nullable
+    String indexClassName;
+    private boolean indexWritten;
 
     @Override
     public synchronized void init(ProcessingEnvironment env) {
@@ -59,6 +83,8 @@ public class AutoBundleProcessor extends AbstractProcessor {
         typeUtils = env.getTypeUtils();
         filer = env.getFiler();
         elementUtils = env.getElementUtils();
+        bundleTypes = new BundleTypes(typeUtils, elementUtils);
+        indexClassName = env.getOptions().get(OPTION_INDEX);
     }
 
     @Override
@@ -74,9 +100,79 @@ public class AutoBundleProcessor extends AbstractProcessor {
                 error(typeElement, "Unable to write binding for type %s: %s", typeElement, e.getMessage());
             }
         }
+        Map<TypeElement, ServiceSet> serviceMap = findAndParseServices(roundEnv);
+        for (Map.Entry<TypeElement, ServiceSet> entry : serviceMap.entrySet()) {
+            TypeElement typeElement = entry.getKey();
+            try {
+                entry.getValue().brewJava().writeTo(filer);
+            } catch (IOException e) {
+                error(typeElement, "Unable to write implementation for type %s: %s", typeElement, e.getMessage());
+            }
+        }
+        if (indexClassName != null && (!bindingMap.isEmpty() || !serviceMap.isEmpty())) {
+            writeIndex(bindingMap, serviceMap);
+        }
         return false;
     }
 
+    private void writeIndex(Map<TypeElement, BundleSet> bindingMap, Map<TypeElement, ServiceSet> serviceMap) {
+        if (indexWritten) {
+            // Like EventBus, the index is written in the first round that finds targets.
+            for (TypeElement typeElement : bindingMap.keySet()) {
+                error(typeElement, "@%s target found after index %s was written in an earlier round.",
+                        Unbox.class.getSimpleName(), indexClassName);
+            }
+            return;
+        }
+        indexWritten = true;
+        // Classes missing from the index are still found by name at runtime.
+        ImmutableList.Builder<BundleSet> bindings = ImmutableList.builder();
+        for (Map.Entry<TypeElement, BundleSet> entry : bindingMap.entrySet()) {
+            if (isAccessibleFromIndex(entry.getKey())) {
+                bindings.add(entry.getValue());
+            } else {
+                note(entry.getKey(), "@%s-annotated class is not public, so it is left out of index %s"
+                                + " and its binding is loaded by name. (%s)",
+                        Unbox.class.getSimpleName(), indexClassName, entry.getKey().getQualifiedName());
+            }
+        }
+        ImmutableList.Builder<ServiceSet> services = ImmutableList.builder();
+        for (Map.Entry<TypeElement, ServiceSet> entry : serviceMap.entrySet()) {
+            if (isAccessibleFromIndex(entry.getKey())) {
+                services.add(entry.getValue());
+            } else {
+                note(entry.getKey(), "Service is not public, so it is left out of index %s"
+                                + " and its implementation is loaded by name. (%s)",
+                        indexClassName, entry.getKey().getQualifiedName());
+            }
+        }
+        int period = indexClassName.lastIndexOf('.');
+        ClassName className = ClassName.get(period > 0 ? indexClassName.substring(0, period) : "",
+                indexClassName.substring(period + 1));
+        BundleIndexSet index = new BundleIndexSet(className, bindings.build(), services.build());
+        try {
+            index.brewJava().writeTo(filer);
+        } catch (IOException e) {
+            processingEnv.getMessager().printMessage(Kind.ERROR,
+                    "Unable to write index " + indexClassName + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * The index references every target by its class literal, so it only has targets that are
+     * public, like all of their enclosing classes.
+     */
+    private static boolean isAccessibleFromIndex(TypeElement typeElement) {
+        Element element = typeElement;
+        while (element instanceof TypeElement) {
+            if (!element.getModifiers().contains(PUBLIC)) {
+                return false;
+            }
+            element = element.getEnclosingElement();
+        }
+        return true;
+    }
+
 
     private Map<TypeElement, BundleSet> findAndParseTargets(RoundEnvironment env) {
         Map<TypeElement, BundleSet.Builder> builderMap = new LinkedHashMap<>();
@@ -99,32 +195,124 @@ public class AutoBundleProcessor extends AbstractProcessor {
                 logParsingError(element, Unbox.class, e);
             }
         }
-        // Associate superclass binders with their subclass binders. This is a queue-based tree walk
-        // which starts at the roots (superclasses) and walks to the leafs (subclasses).
-        Deque<Map.Entry<TypeElement, BundleSet.Builder>> entries =
-                new ArrayDeque<>(builderMap.entrySet());
+        // Associate superclass binders with their subclass binders in a single pass. Every target is
+        // built after the targets it extends, and whether a type has a binding is looked up once,
+        // however many targets extend it.
+        Map<TypeElement, TypeElement> boundTypes = new HashMap<>();
         Map<TypeElement, BundleSet> bindingMap = new LinkedHashMap<>();
-        while (!entries.isEmpty()) {
-            Map.Entry<TypeElement, BundleSet.Builder> entry = entries.removeFirst();
+        Deque<Map.Entry<TypeElement, TypeElement>> pending = new ArrayDeque<>();
+        for (TypeElement target : builderMap.keySet()) {
+            // Walks up to the first target that is built already, then builds back down.
+            TypeElement type = target;
+            while (type != null && builderMap.containsKey(type) && !bindingMap.containsKey(type)) {
+                TypeElement parentType = findBoundSuperclass(type, erasedTargetNames, boundTypes);
+                pending.push(new AbstractMap.SimpleEntry<>(type, parentType));
+                type = parentType;
+            }
+            while (!pending.isEmpty()) {
+                Map.Entry<TypeElement, TypeElement> entry = pending.pop();
+                BundleSet.Builder builder = builderMap.get(entry.getKey());
+                if (entry.getValue() != null) {
+                    builder.setParent(BundleSet.bindingClassName(entry.getValue()));
+                }
+                bindingMap.put(entry.getKey(), builder.build());
+            }
+        }
+        return bindingMap;
+    }
 
-            TypeElement type = entry.getKey();
-            BundleSet.Builder builder = entry.getValue();
+    private Map<TypeElement, ServiceSet> findAndParseServices(RoundEnvironment env) {
+        Set<TypeElement> serviceElements = new LinkedHashSet<>();
+        // Parameter annotations are not reported by getElementsAnnotatedWith on every javac.
+        findServiceInterfaces(env.getRootElements(), serviceElements);
+        Map<TypeElement, ServiceSet> serviceMap = new LinkedHashMap<>();
+        for (TypeElement serviceElement : serviceElements) {
+            try {
+                ServiceSet service = parseService(serviceElement);
+                if (service != null) {
+                    serviceMap.put(serviceElement, service);
+                }
+            } catch (Exception e) {
+                logParsingError(serviceElement, Box.class, e);
+            }
+        }
+        return serviceMap;
+    }
 
-            TypeElement parentType = findParentType(type, erasedTargetNames);
-            if (parentType == null) {
-                bindingMap.put(type, builder.build());
-            } else {
-                BundleSet parentBinding = bindingMap.get(parentType);
-                if (parentBinding != null) {
-                    builder.setParent(parentBinding);
-                    bindingMap.put(type, builder.build());
-                } else {
-                    // Has a superclass binding but we haven't built it yet. Re-enqueue for later.
-                    entries.addLast(entry);
+    private static void findServiceInterfaces(Collection<? extends Element> elements, Set<TypeElement> serviceElements) {
+        for (Element element : elements) {
+            if (!(element instanceof TypeElement)) {
+                continue;
+            }
+            TypeElement typeElement = (TypeElement) element;
+            if (typeElement.getKind() == INTERFACE && hasBoxParameter(typeElement)) {
+                serviceElements.add(typeElement);
+            }
+            findServiceInterfaces(typeElement.getEnclosedElements(), serviceElements);
+        }
+    }
+
+    private static boolean hasBoxParameter(TypeElement typeElement) {
+        for (ExecutableElement method : ElementFilter.methodsIn(typeElement.getEnclosedElements())) {
+            for (VariableElement parameter : method.getParameters()) {
+                if (parameter.getAnnotation(Box.class) != null) {
+                    return true;
                 }
             }
         }
-        return bindingMap;
+        return false;
+    }
+
+    /**
+     * Returns null if the interface can't be implemented at compile time, {@code AutoBundle.create}
+     * then falls back to a Proxy which reports the problem at runtime.
+     */
+    private @Nullable
+    ServiceSet parseService(TypeElement serviceElement) {
+        // Same restrictions as Utils.validateServiceInterface.
+        if (!serviceElement.getInterfaces().isEmpty() || !isAccessibleFromPackage(serviceElement)) {
+            return null;
+        }
+        DeclaredType serviceType = (DeclaredType) serviceElement.asType();
+        ServiceSet.Builder builder = ServiceSet.newBuilder(serviceElement);
+        for (ExecutableElement method : ElementFilter.methodsIn(serviceElement.getEnclosedElements())) {
+            Set<Modifier> modifiers = method.getModifiers();
+            if (modifiers.contains(STATIC) || modifiers.contains(Modifier.DEFAULT)) {
+                continue;
+            }
+            if (!method.getTypeParameters().isEmpty() || !isTypeEqual(method.getReturnType(), BUNDLE_TYPE)) {
+                return null;
+            }
+            ImmutableList.Builder<ParameterBundleBinding> parameters = ImmutableList.builder();
+            for (VariableElement parameter : method.getParameters()) {
+                Box box = parameter.getAnnotation(Box.class);
+                TypeMirror type = parameter.asType();
+                BundleType bundleType = box != null ? bundleTypes.forParameter(type) : null;
+                if (bundleType == null) {
+                    return null;
+                }
+                boolean needsCast = bundleType.isInvariantList() && !bundleTypes.isExactList(type, bundleType);
+                parameters.add(new ParameterBundleBinding(parameter.getSimpleName().toString(), box.value(),
+                        TypeName.get(type), parameter.getAnnotation(Required.class) != null, bundleType, needsCast));
+            }
+            BundleFlag bundleFlag = method.getAnnotation(BundleFlag.class);
+            builder.addMethod(new ServiceSet.MethodBinding(
+                    MethodSpec.overriding(method, serviceType, typeUtils).build(),
+                    bundleFlag != null ? bundleFlag.value() : Integer.MIN_VALUE,
+                    parameters.build()));
+        }
+        return builder.build();
+    }
+
+    private static boolean isAccessibleFromPackage(TypeElement typeElement) {
+        Element element = typeElement;
+        while (element instanceof TypeElement) {
+            if (element.getModifiers().contains(PRIVATE)) {
+                return false;
+            }
+            element = element.getEnclosingElement();
+        }
+        return true;
     }
 
     private void parseUnBoxAnnotation(Element element, Map<TypeElement, BundleSet.Builder> builderMap,
@@ -165,27 +353,62 @@ public class AutoBundleProcessor extends AbstractProcessor {
         }
 
         TypeName type = TypeName.get(elementType);
-        builder.addField(new FieldBundleBinding(name, value, type, required));
+        BundleType bundleType = bundleTypes.forField(elementType);
+        if (bundleType == null) {
+            // Still bound with Bundle.get, only the generated save method can't put it.
+            warning(element, "@%s field type '%s' has no typed Bundle put method, so save() skips it."
+                            + " Use a type a Bundle can put, e.g. a Parcelable or Serializable, to save it. (%s.%s)",
+                    Unbox.class.getSimpleName(), elementType, enclosingElement.getQualifiedName(), simpleName);
+        }
+        boolean needsCast = bundleType != null && bundleTypes.needsArrayListCast(elementType, bundleType);
+        boolean needsCopy = bundleType != null && bundleTypes.needsArrayListCopy(elementType, bundleType);
+        builder.addField(new FieldBundleBinding(name, value, type, required, bundleType, needsCast, needsCopy));
         // Add the type-erased version to the valid binding targets set.
         erasedTargetNames.add(enclosingElement);
     }
 
     /**
-     * Finds the parent binder type in the supplied set, if any.
+     * Finds the nearest superclass that is a target of this round or whose binding was compiled
+     * before, e.g. by an incremental build or in another module.
      */
     private @Nullable
-    TypeElement findParentType(TypeElement typeElement, Set<TypeElement> parents) {
-        TypeMirror type;
-        while (true) {
-            type = typeElement.getSuperclass();
-            if (type.getKind() == TypeKind.NONE) {
-                return null;
-            }
-            typeElement = (TypeElement) ((DeclaredType) type).asElement();
-            if (parents.contains(typeElement)) {
-                return typeElement;
-            }
+    TypeElement findBoundSuperclass(TypeElement typeElement, Set<TypeElement> parents,
+                                    Map<TypeElement, TypeElement> boundTypes) {
+        TypeMirror type = typeElement.getSuperclass();
+        if (type.getKind() == TypeKind.NONE) {
+            return null;
+        }
+        return findBoundType((TypeElement) ((DeclaredType) type).asElement(), parents, boundTypes);
+    }
+
+    /**
+     * Returns {@code typeElement} if it has a binding, or else its nearest superclass with one.
+     * Results are memoized in {@code boundTypes}, so every type is looked up once per round.
+     */
+    private @Nullable
+    TypeElement findBoundType(TypeElement typeElement, Set<TypeElement> parents,
+                              Map<TypeElement, TypeElement> boundTypes) {
+        if (boundTypes.containsKey(typeElement)) {
+            return boundTypes.get(typeElement);
         }
+        TypeElement result;
+        if (parents.contains(typeElement) || hasCompiledBinding(typeElement)) {
+            result = typeElement;
+        } else {
+            result = findBoundSuperclass(typeElement, parents, boundTypes);
+        }
+        boundTypes.put(typeElement, result);
+        return result;
+    }
+
+    private boolean hasCompiledBinding(TypeElement typeElement) {
+        // Framework classes are never targets, see isBindingInWrongPackage.
+        String qualifiedName = typeElement.getQualifiedName().toString();
+        if (qualifiedName.startsWith("android.") || qualifiedName.startsWith("java.")) {
+            return false;
+        }
+        String bindingClassName = BundleSet.bindingClassName(typeElement).reflectionName();
+        return elementUtils.getTypeElement(bindingClassName) != null;
     }
 
     private boolean isInaccessibleViaGeneratedCode(Class<? extends Annotation> annotationClass,
@@ -244,9 +467,21 @@ public class AutoBundleProcessor extends AbstractProcessor {
     public Set<String> getSupportedAnnotationTypes() {
         Set<String> types = new LinkedHashSet<>();
         types.add(Unbox.class.getCanonicalName());
+        types.add(Box.class.getCanonicalName());
+        types.add(BundleFlag.class.getCanonicalName());
         return types;
     }
 
+    @Override
+    public Set<String> getSupportedOptions() {
+        Set<String> options = new LinkedHashSet<>();
+        options.add(OPTION_INDEX);
+        // Gradle compiles incrementally as long as every generated file has its own target. The
+        // index depends on all of them.
+        options.add(indexClassName != null ? OPTION_GRADLE_AGGREGATING : OPTION_GRADLE_ISOLATING);
+        return options;
+    }
+
     @Override
     public SourceVersion getSupportedSourceVersion() {
         return SourceVersion.latestSupported();
@@ -264,6 +499,10 @@ public class AutoBundleProcessor extends AbstractProcessor {
         printMessage(Kind.ERROR, element, message, args);
     }
 
+    private void warning(Element element, String message, Object... args) {
+        printMessage(Kind.WARNING, element, message, args);
+    }
+
     private void note(Element element, String message, Object... args) {
         printMessage(Kind.NOTE, element, message, args);
     }
@@ -0,0 +1,136 @@
+package autobundle.compiler;
+
+import com.google.common.collect.ImmutableList;
+import com.squareup.javapoet.ClassName;
+import com.squareup.javapoet.JavaFile;
+import com.squareup.javapoet.MethodSpec;
+import com.squareup.javapoet.ParameterizedTypeName;
+import com.squareup.javapoet.TypeName;
+import com.squareup.javapoet.TypeSpec;
+import com.squareup.javapoet.WildcardTypeName;
+
+import java.util.Map;
+
+import static javax.lang.model.element.Modifier.FINAL;
+import static javax.lang.model.element.Modifier.PRIVATE;
+import static javax.lang.model.element.Modifier.PUBLIC;
+import static javax.lang.model.element.Modifier.STATIC;
+
+/**
+ * Generates the {@code autobundle.BundleIndex} of a module, which maps every target class to a
+ * factory of its binding so that no binding class has to be loaded by name at runtime.
+ */
+final class BundleIndexSet {
+    private static final ClassName BUNDLE_INDEX = ClassName.get("autobundle", "BundleIndex");
+    private static final ClassName IBINDER = ClassName.get("autobundle", "IBinder");
+    private static final ClassName IBINDER_FACTORY = IBINDER.nestedClass("Factory");
+    private static final ClassName SERVICE_FACTORY = BUNDLE_INDEX.nestedClass("ServiceFactory");
+    private static final ClassName BUNDLE_LISTENERS = ClassName.get("autobundle", "BundleListeners");
+    private static final String FACTORY_NAME = "BinderFactory";
+    private static final String SERVICE_FACTORY_NAME = "CreatorFactory";
+
+    private final ClassName indexClassName;
+    private final ImmutableList<BundleSet> bindings;
+    private final ImmutableList<ServiceSet> services;
+
+    BundleIndexSet(ClassName indexClassName, ImmutableList<BundleSet> bindings,
+                   ImmutableList<ServiceSet> services) {
+        this.indexClassName = indexClassName;
+        this.bindings = bindings;
+        this.services = services;
+    }
+
+    JavaFile brewJava() {
+        return JavaFile.builder(indexClassName.packageName(), createType())
+                .addFileComment("Generated code from AutoBundle. Do not modify!")
+                .build();
+    }
+
+    private TypeSpec createType() {
+        TypeSpec.Builder result = TypeSpec.classBuilder(indexClassName.simpleName())
+                .addModifiers(PUBLIC, FINAL)
+                .superclass(BUNDLE_INDEX);
+        // Aggregating for Gradle: the index is generated again from all of its targets.
+        for (BundleSet binding : bindings) {
+            result.addOriginatingElement(binding.getTargetElement());
+        }
+        for (ServiceSet service : services) {
+            result.addOriginatingElement(service.getServiceElement());
+        }
+        addBinders(result);
+        if (!services.isEmpty()) {
+            addServices(result);
+        }
+        return result.build();
+    }
+
+    private void addBinders(TypeSpec.Builder result) {
+        ClassName factoryClassName = indexClassName.nestedClass(FACTORY_NAME);
+        MethodSpec.Builder loadInto = MethodSpec.methodBuilder("loadInto")
+                .addAnnotation(Override.class)
+                .addModifiers(PUBLIC)
+                .addParameter(classMapOf(IBINDER_FACTORY), "binders");
+        // One factory class switching on an id keeps the index at two classes however many
+        // targets the module has.
+        MethodSpec.Builder create = MethodSpec.methodBuilder("create")
+                .addAnnotation(Override.class)
+                .addModifiers(PUBLIC)
+                .returns(IBINDER)
+                .beginControlFlow("switch (id)");
+        for (int id = 0; id < bindings.size(); id++) {
+            BundleSet binding = bindings.get(id);
+            loadInto.addStatement("binders.put($T.class, new $T($L))",
+                    binding.getTargetTypeName(), factoryClassName, id);
+            create.addStatement("case $L: return new $T()", id, binding.getBindingClassName());
+        }
+        create.addStatement("default: throw new $T(id)", AssertionError.class)
+                .endControlFlow();
+        result.addMethod(loadInto.build())
+                .addType(factoryType(FACTORY_NAME, IBINDER_FACTORY, create.build()));
+    }
+
+    private void addServices(TypeSpec.Builder result) {
+        ClassName factoryClassName = indexClassName.nestedClass(SERVICE_FACTORY_NAME);
+        MethodSpec.Builder loadServicesInto = MethodSpec.methodBuilder("loadServicesInto")
+                .addAnnotation(Override.class)
+                .addModifiers(PUBLIC)
+                .addParameter(classMapOf(SERVICE_FACTORY), "services");
+        MethodSpec.Builder create = MethodSpec.methodBuilder("create")
+                .addAnnotation(Override.class)
+                .addModifiers(PUBLIC)
+                .returns(Object.class)
+                .addParameter(BUNDLE_LISTENERS, "listeners")
+                .beginControlFlow("switch (id)");
+        for (int id = 0; id < services.size(); id++) {
+            ServiceSet service = services.get(id);
+            loadServicesInto.addStatement("services.put($T.class, new $T($L))",
+                    service.getServiceTypeName(), factoryClassName, id);
+            // The diamond keeps the creator of a generic service from being a raw type.
+            create.addStatement("case $L: return new $T$L(listeners)", id, service.getCreatorClassName(),
+                    service.isGeneric() ? "<>" : "");
+        }
+        create.addStatement("default: throw new $T(id)", AssertionError.class)
+                .endControlFlow();
+        result.addMethod(loadServicesInto.build())
+                .addType(factoryType(SERVICE_FACTORY_NAME, SERVICE_FACTORY, create.build()));
+    }
+
+    private static TypeName classMapOf(TypeName valueType) {
+        return ParameterizedTypeName.get(ClassName.get(Map.class),
+                ParameterizedTypeName.get(ClassName.get(Class.class), WildcardTypeName.subtypeOf(Object.class)),
+                valueType);
+    }
+
+    private static TypeSpec factoryType(String name, ClassName superinterface, MethodSpec create) {
+        return TypeSpec.classBuilder(name)
+                .addModifiers(PRIVATE, STATIC, FINAL)
+                .addSuperinterface(superinterface)
+                .addField(int.class, "id", PRIVATE, FINAL)
+                .addMethod(MethodSpec.constructorBuilder()
+                        .addParameter(int.class, "id")
+                        .addStatement("this.id = id")
+                        .build())
+                .addMethod(create)
+                .build();
+    }
+}
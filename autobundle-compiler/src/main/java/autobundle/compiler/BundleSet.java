@@ -20,7 +20,9 @@ import javax.lang.model.type.TypeMirror;
 
 import static com.google.auto.common.MoreElements.getPackage;
 import static javax.lang.model.element.Modifier.FINAL;
+import static javax.lang.model.element.Modifier.PRIVATE;
 import static javax.lang.model.element.Modifier.PUBLIC;
+import static javax.lang.model.element.Modifier.STATIC;
 
 /**
  * 创建时间：2019/4/4
@@ -29,7 +31,9 @@ import static javax.lang.model.element.Modifier.PUBLIC;
  */
 class BundleSet {
     private static final ClassName BUNDLE = ClassName.get("android.os", "Bundle");
+    private static final ClassName INTENT = ClassName.get("android.content", "Intent");
     private static final ClassName NULLPOINTEREXCEPTION = ClassName.get("java.lang", "NullPointerException");
+    private static final ClassName ARRAY_LIST = ClassName.get("java.util", "ArrayList");
 
     private static final ClassName UI_THREAD =
             ClassName.get("android.support.annotation", "UiThread");
@@ -39,18 +43,21 @@ class BundleSet {
             ClassName.get("android.annotation", "SuppressLint");
     private static final ClassName IBINDER = ClassName.get("autobundle", "IBinder");
 
+    private final TypeElement targetElement;
     private final TypeName targetTypeName;
     private final ClassName bindingClassName;
     private final ImmutableList<FieldBundleBinding> bundleBindings;
     private final @Nullable
-    BundleSet parentBinding;
+    ClassName parentBinding;
     private boolean isFinal;
 
-    private BundleSet(TypeName targetTypeName,
+    private BundleSet(TypeElement targetElement,
+                      TypeName targetTypeName,
                       ClassName bindingClassName,
                       boolean isFinal,
                       ImmutableList<FieldBundleBinding> bundleBindings,
-                      @Nullable BundleSet parentBinding) {
+                      @Nullable ClassName parentBinding) {
+        this.targetElement = targetElement;
         this.targetTypeName = targetTypeName;
         this.bindingClassName = bindingClassName;
         this.bundleBindings = bundleBindings;
@@ -66,19 +73,50 @@ class BundleSet {
                 .build();
     }
 
+    TypeElement getTargetElement() {
+        return targetElement;
+    }
+
+    TypeName getTargetTypeName() {
+        return targetTypeName;
+    }
+
+    ClassName getBindingClassName() {
+        return bindingClassName;
+    }
+
     private TypeSpec createType() {
+        // Isolating for Gradle: the binding only depends on its target. A change of a superclass
+        // recompiles the target, which generates the binding again.
         TypeSpec.Builder result = TypeSpec.classBuilder(bindingClassName.simpleName())
-                .addModifiers(PUBLIC);
+                .addModifiers(PUBLIC)
+                .addOriginatingElement(targetElement);
         if (isFinal) {
             result.addModifiers(FINAL);
         }
 
         if (parentBinding != null) {
-            result.superclass(parentBinding.bindingClassName);
+            result.superclass(parentBinding);
         } else {
             result.addSuperinterface(IBINDER);
         }
 
+        result.addMethod(createBindMethod(BUNDLE, "bundle"));
+        result.addMethod(createBindMethod(INTENT, "intent"));
+        result.addMethod(createSaveMethod());
+        if (comparesStrings()) {
+            result.addMethod(createEqualMethod());
+        }
+        return result.build();
+    }
+
+    /**
+     * Creates {@code bind(Object, Bundle)} or {@code bind(Object, Intent)}. The Intent variant reads
+     * the extras with the typed Intent getters, so the extras are not copied by
+     * {@code Intent.getExtras()} unless a field has no Intent getter.
+     */
+    private MethodSpec createBindMethod(ClassName sourceType, String source) {
+        boolean fromIntent = sourceType == INTENT;
         MethodSpec.Builder methodBuilder = MethodSpec.methodBuilder("bind")
                 //.addAnnotation(UI_THREAD)
                 //Unchecked cast
@@ -86,37 +124,38 @@ class BundleSet {
                 .addAnnotation(Override.class)
                 .addModifiers(PUBLIC)
                 .addParameter(TypeName.OBJECT, "object")
-                .addParameter(BUNDLE, "bundle");
+                .addParameter(sourceType, source);
 
         if (!isFinal && parentBinding == null) {
             methodBuilder.addAnnotation(CALL_SUPER);
         }
         if (parentBinding != null) {
-            methodBuilder.addStatement("super.bind(object, bundle)");
+            methodBuilder.addStatement("super.bind(object, $L)", source);
         }
         methodBuilder.addStatement("$T target = ($T)object", targetTypeName, targetTypeName);
+        if (fromIntent && needsExtras()) {
+            methodBuilder.addStatement("$T extras = intent.getExtras()", BUNDLE);
+            methodBuilder.beginControlFlow("if (extras == null)")
+                    .addStatement("extras = $T.EMPTY", BUNDLE)
+                    .endControlFlow();
+        }
         methodBuilder.addCode("\n");
 
         for (FieldBundleBinding bundleBinding : bundleBindings) {
-
-            if (bundleBinding.type == TypeName.INT) {
-                addPrimitiveStatement(methodBuilder, bundleBinding, "getInt");
-            } else if (bundleBinding.type == TypeName.LONG) {
-                addPrimitiveStatement(methodBuilder, bundleBinding, "getLong");
-            } else if (bundleBinding.type == TypeName.BYTE) {
-                addPrimitiveStatement(methodBuilder, bundleBinding, "getByte");
-            } else if (bundleBinding.type == TypeName.SHORT) {
-                addPrimitiveStatement(methodBuilder, bundleBinding, "getShort");
-            } else if (bundleBinding.type == TypeName.DOUBLE) {
-                addPrimitiveStatement(methodBuilder, bundleBinding, "getDouble");
-            } else if (bundleBinding.type == TypeName.BOOLEAN) {
-                addPrimitiveStatement(methodBuilder, bundleBinding, "getBoolean");
-            } else if (bundleBinding.type == TypeName.FLOAT) {
-                addPrimitiveStatement(methodBuilder, bundleBinding, "getFloat");
-            } else if (bundleBinding.type == TypeName.CHAR) {
-                addPrimitiveStatement(methodBuilder, bundleBinding, "getChar");
+            BundleType bundleType = bundleBinding.bundleType;
+            // Types without Intent getter are read from the copied extras.
+            boolean fromExtras = fromIntent && (bundleType == null || bundleType.getExtraMethod == null);
+            String receiver = fromExtras ? "extras" : source;
+            String getter = bundleType == null ? "get"
+                    : fromIntent && !fromExtras ? bundleType.getExtraMethod : bundleType.getMethod;
+            if (bundleType != null && bundleType.isPrimitive()) {
+                addPrimitiveStatement(methodBuilder, bundleBinding, receiver, getter);
             } else {
-                methodBuilder.addStatement("target.$L =($T) bundle.get($S)", bundleBinding.name, bundleBinding.type, bundleBinding.key);
+                if (bundleType == null || bundleType.needsCastTo(bundleBinding.type)) {
+                    methodBuilder.addStatement("target.$L = ($T) $L.$L($S)", bundleBinding.name, bundleBinding.type, receiver, getter, bundleBinding.key);
+                } else {
+                    methodBuilder.addStatement("target.$L = $L.$L($S)", bundleBinding.name, receiver, getter, bundleBinding.key);
+                }
                 if (bundleBinding.required) {
                     methodBuilder.beginControlFlow("if (target." + bundleBinding.name + " == null)");
                     methodBuilder.addStatement(
@@ -129,15 +168,115 @@ class BundleSet {
                 }
             }
         }
-        result.addMethod(methodBuilder.build());
-        return result.build();
+        return methodBuilder.build();
     }
 
+    /**
+     * Creates {@code save(Object, Bundle, Bundle)}, which puts the fields back with the typed put
+     * methods. If {@code bound} is not null, primitive and String fields equal to their value in
+     * {@code bound} are skipped, fields whose key is missing from {@code bound} are always put. Other values may have been modified in place and are always put.
+     * Fields without a typed put are skipped, the processor warns about them.
+     */
+    private MethodSpec createSaveMethod() {
+        MethodSpec.Builder methodBuilder = MethodSpec.methodBuilder("save")
+                .addAnnotation(Override.class)
+                .addModifiers(PUBLIC)
+                .addParameter(TypeName.OBJECT, "object")
+                .addParameter(BUNDLE, "bundle")
+                .addParameter(BUNDLE, "bound");
+        if (needsArrayListConversion()) {
+            methodBuilder.addAnnotation(AnnotationSpec.builder(SuppressWarnings.class)
+                    .addMember("value", "$S", "unchecked")
+                    .addMember("value", "$S", "rawtypes")
+                    .build());
+        }
+        if (!isFinal && parentBinding == null) {
+            methodBuilder.addAnnotation(CALL_SUPER);
+        }
+        if (parentBinding != null) {
+            methodBuilder.addStatement("super.save(object, bundle, bound)");
+        }
+        methodBuilder.addStatement("$T target = ($T)object", targetTypeName, targetTypeName);
+        methodBuilder.addCode("\n");
 
-    private void addPrimitiveStatement(MethodSpec.Builder methodBuilder, FieldBundleBinding bundleBinding, String getMethodName) {
+        for (FieldBundleBinding bundleBinding : bundleBindings) {
+            BundleType bundleType = bundleBinding.bundleType;
+            if (bundleType == null) {
+                continue;
+            }
+            CodeBlock value;
+            if (bundleBinding.needsCopy) {
+                value = CodeBlock.of("target.$L == null || target.$L instanceof $T ? ($T) target.$L : new $T(target.$L)",
+                        bundleBinding.name, bundleBinding.name, ARRAY_LIST, ARRAY_LIST, bundleBinding.name,
+                        ARRAY_LIST, bundleBinding.name);
+            } else if (bundleBinding.needsCast) {
+                value = CodeBlock.of("($T) target.$L", ARRAY_LIST, bundleBinding.name);
+            } else {
+                value = CodeBlock.of("target.$L", bundleBinding.name);
+            }
+            // A key missing from bound reads as 0, false or null, which a field with an initial
+            // value may equal after a change.
+            if (bundleType.isPrimitive()) {
+                methodBuilder.beginControlFlow("if (bound == null || !bound.containsKey($S) || target.$L != bound.$L($S))",
+                        bundleBinding.key, bundleBinding.name, bundleType.getMethod, bundleBinding.key);
+            } else if (bundleType == BundleType.STRING) {
+                methodBuilder.beginControlFlow("if (bound == null || !bound.containsKey($S) || !equal(target.$L, bound.$L($S)))",
+                        bundleBinding.key, bundleBinding.name, bundleType.getMethod, bundleBinding.key);
+            }
+            methodBuilder.addStatement("bundle.$L($S, $L)", bundleType.putMethod, bundleBinding.key, value);
+            if (bundleType.isPrimitive() || bundleType == BundleType.STRING) {
+                methodBuilder.endControlFlow();
+            }
+        }
+        return methodBuilder.build();
+    }
+
+    private static MethodSpec createEqualMethod() {
+        return MethodSpec.methodBuilder("equal")
+                .addModifiers(PRIVATE, STATIC)
+                .returns(TypeName.BOOLEAN)
+                .addParameter(TypeName.OBJECT, "a")
+                .addParameter(TypeName.OBJECT, "b")
+                .addStatement("return a == b || (a != null && a.equals(b))")
+                .build();
+    }
+
+    private boolean comparesStrings() {
+        for (FieldBundleBinding bundleBinding : bundleBindings) {
+            if (bundleBinding.bundleType == BundleType.STRING) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean needsArrayListConversion() {
+        for (FieldBundleBinding bundleBinding : bundleBindings) {
+            if (bundleBinding.needsCast) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns true if a field has to be read from the Bundle of an Intent.
+     */
+    private boolean needsExtras() {
+        for (FieldBundleBinding bundleBinding : bundleBindings) {
+            if (bundleBinding.bundleType == null || bundleBinding.bundleType.getExtraMethod == null) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+
+    private void addPrimitiveStatement(MethodSpec.Builder methodBuilder, FieldBundleBinding bundleBinding,
+                                       String receiver, String getMethodName) {
         CodeBlock.Builder builder = CodeBlock.builder()
                 .add("target.$L = ", bundleBinding.name)
-                .add("bundle.");
+                .add(receiver + ".");
         builder.add(getMethodName + "($S," + getDefaultValue(bundleBinding) + ")", bundleBinding.key);
         //这样子会换行 自动加 结束符;哈哈
         methodBuilder.addStatement("$L", builder.build());
@@ -155,28 +294,33 @@ class BundleSet {
             targetType = ((ParameterizedTypeName) targetType).rawType;
         }
 
-        String packageName = getPackage(enclosingElement).getQualifiedName().toString();
-        String className = enclosingElement.getQualifiedName().toString().substring(
-                packageName.length() + 1).replace('.', '$');//处理内部类的情况
-        ClassName bindingClassName = ClassName.get(packageName, className + "_BundleBinding");
-
         boolean isFinal = enclosingElement.getModifiers().contains(Modifier.FINAL);
-        return new Builder(targetType, bindingClassName, isFinal);
+        return new Builder(enclosingElement, targetType, bindingClassName(enclosingElement), isFinal);
+    }
+
+    static ClassName bindingClassName(TypeElement typeElement) {
+        String packageName = getPackage(typeElement).getQualifiedName().toString();
+        String className = typeElement.getQualifiedName().toString().substring(
+                packageName.length() + 1).replace('.', '$');//处理内部类的情况
+        return ClassName.get(packageName, className + "_BundleBinding");
     }
 
     static final class Builder {
+        private final TypeElement targetElement;
         private final TypeName targetTypeName;
         private final ClassName bindingClassName;
         private final boolean isFinal;
 
         private @Nullable
-        BundleSet parentBinding;
+        ClassName parentBinding;
         //对应某个类中注解的value不能重复
         private final Map<String, FieldBundleBinding> valueFieldMap = new LinkedHashMap<>();
         //对应某个类中field不能有多个注解
         private final Map<String, FieldBundleBinding> nameFieldMap = new LinkedHashMap<>();
 
-        private Builder(TypeName targetTypeName, ClassName bindingClassName, boolean isFinal) {
+        private Builder(TypeElement targetElement, TypeName targetTypeName, ClassName bindingClassName,
+                        boolean isFinal) {
+            this.targetElement = targetElement;
             this.targetTypeName = targetTypeName;
             this.bindingClassName = bindingClassName;
             this.isFinal = isFinal;
@@ -187,8 +331,8 @@ class BundleSet {
             nameFieldMap.put(binding.name, binding);
         }
 
-        void setParent(BundleSet parent) {
-            this.parentBinding = parent;
+        void setParent(ClassName parentBinding) {
+            this.parentBinding = parentBinding;
         }
 
         @Nullable
@@ -206,7 +350,8 @@ class BundleSet {
             for (FieldBundleBinding builder : valueFieldMap.values()) {
                 viewBindings.add(builder);
             }
-            return new BundleSet(targetTypeName, bindingClassName, isFinal, viewBindings.build(), parentBinding);
+            return new BundleSet(targetElement, targetTypeName, bindingClassName, isFinal, viewBindings.build(),
+                    parentBinding);
         }
     }
 }
@@ -0,0 +1,101 @@
+package autobundle.compiler;
+
+import com.squareup.javapoet.ArrayTypeName;
+import com.squareup.javapoet.ClassName;
+import com.squareup.javapoet.ParameterizedTypeName;
+import com.squareup.javapoet.TypeName;
+
+import java.util.ArrayList;
+
+import javax.annotation.Nullable;
+
+/**
+ * The typed {@code android.os.Bundle} accessors of a value, the compile time counterpart of the
+ * runtime {@code BuiltInHandlerFactory} and {@code BestGuessHandlerFactory}.
+ */
+enum BundleType {
+    BOOLEAN("putBoolean", "getBoolean", "getBooleanExtra", TypeName.BOOLEAN),
+    BYTE("putByte", "getByte", "getByteExtra", TypeName.BYTE),
+    CHAR("putChar", "getChar", "getCharExtra", TypeName.CHAR),
+    SHORT("putShort", "getShort", "getShortExtra", TypeName.SHORT),
+    INT("putInt", "getInt", "getIntExtra", TypeName.INT),
+    LONG("putLong", "getLong", "getLongExtra", TypeName.LONG),
+    FLOAT("putFloat", "getFloat", "getFloatExtra", TypeName.FLOAT),
+    DOUBLE("putDouble", "getDouble", "getDoubleExtra", TypeName.DOUBLE),
+    BOOLEAN_ARRAY("putBooleanArray", "getBooleanArray", "getBooleanArrayExtra", ArrayTypeName.of(TypeName.BOOLEAN)),
+    BYTE_ARRAY("putByteArray", "getByteArray", "getByteArrayExtra", ArrayTypeName.of(TypeName.BYTE)),
+    CHAR_ARRAY("putCharArray", "getCharArray", "getCharArrayExtra", ArrayTypeName.of(TypeName.CHAR)),
+    SHORT_ARRAY("putShortArray", "getShortArray", "getShortArrayExtra", ArrayTypeName.of(TypeName.SHORT)),
+    INT_ARRAY("putIntArray", "getIntArray", "getIntArrayExtra", ArrayTypeName.of(TypeName.INT)),
+    LONG_ARRAY("putLongArray", "getLongArray", "getLongArrayExtra", ArrayTypeName.of(TypeName.LONG)),
+    FLOAT_ARRAY("putFloatArray", "getFloatArray", "getFloatArrayExtra", ArrayTypeName.of(TypeName.FLOAT)),
+    DOUBLE_ARRAY("putDoubleArray", "getDoubleArray", "getDoubleArrayExtra", ArrayTypeName.of(TypeName.DOUBLE)),
+    STRING("putString", "getString", "getStringExtra", Names.STRING),
+    STRING_ARRAY("putStringArray", "getStringArray", "getStringArrayExtra", ArrayTypeName.of(Names.STRING)),
+    STRING_ARRAY_LIST("putStringArrayList", "getStringArrayList", "getStringArrayListExtra", Names.arrayListOf(Names.STRING)),
+    INTEGER_ARRAY_LIST("putIntegerArrayList", "getIntegerArrayList", "getIntegerArrayListExtra", Names.arrayListOf(ClassName.get(Integer.class))),
+    CHAR_SEQUENCE("putCharSequence", "getCharSequence", "getCharSequenceExtra", Names.CHAR_SEQUENCE),
+    CHAR_SEQUENCE_ARRAY("putCharSequenceArray", "getCharSequenceArray", "getCharSequenceArrayExtra", ArrayTypeName.of(Names.CHAR_SEQUENCE)),
+    CHAR_SEQUENCE_ARRAY_LIST("putCharSequenceArrayList", "getCharSequenceArrayList", "getCharSequenceArrayListExtra", Names.arrayListOf(Names.CHAR_SEQUENCE)),
+    PARCELABLE("putParcelable", "getParcelable", "getParcelableExtra", null),
+    PARCELABLE_ARRAY("putParcelableArray", "getParcelableArray", "getParcelableArrayExtra", ArrayTypeName.of(Names.PARCELABLE)),
+    PARCELABLE_ARRAY_LIST("putParcelableArrayList", "getParcelableArrayList", "getParcelableArrayListExtra", null),
+    SPARSE_PARCELABLE_ARRAY("putSparseParcelableArray", "getSparseParcelableArray", null, null),
+    SERIALIZABLE("putSerializable", "getSerializable", "getSerializableExtra", ClassName.get("java.io", "Serializable"));
+
+    //Bundle.putXXX
+    final String putMethod;
+    //Bundle.getXXX
+    final String getMethod;
+    //Intent.getXXXExtra, null if Intent has no getter for this type
+    @Nullable
+    final String getExtraMethod;
+    // What getMethod and getExtraMethod return, null for the generic getters assignable to any subtype.
+    @Nullable
+    final TypeName getReturnType;
+
+    BundleType(String putMethod, String getMethod, @Nullable String getExtraMethod,
+               @Nullable TypeName getReturnType) {
+        this.putMethod = putMethod;
+        this.getMethod = getMethod;
+        this.getExtraMethod = getExtraMethod;
+        this.getReturnType = getReturnType;
+    }
+
+    boolean isPrimitive() {
+        return ordinal() <= DOUBLE.ordinal();
+    }
+
+    /**
+     * The put methods of these types take an exact {@code ArrayList<E>}.
+     */
+    boolean isInvariantList() {
+        return this == STRING_ARRAY_LIST || this == INTEGER_ARRAY_LIST || this == CHAR_SEQUENCE_ARRAY_LIST;
+    }
+
+    /**
+     * The put methods of these types take an {@code ArrayList}.
+     */
+    boolean isArrayList() {
+        return isInvariantList() || this == PARCELABLE_ARRAY_LIST;
+    }
+
+    /**
+     * Returns true if the value of {@link #getMethod} has to be cast to be assigned to {@code type}.
+     */
+    boolean needsCastTo(TypeName type) {
+        // Lists are only resolved for element types the returned ArrayList is assignable to.
+        return getReturnType != null && !isInvariantList() && !getReturnType.equals(type);
+    }
+
+    // Enum constants cannot refer to the static fields of their own enum.
+    private static final class Names {
+        static final ClassName STRING = ClassName.get(String.class);
+        static final ClassName CHAR_SEQUENCE = ClassName.get(CharSequence.class);
+        static final ClassName PARCELABLE = ClassName.get("android.os", "Parcelable");
+
+        static TypeName arrayListOf(ClassName elementType) {
+            return ParameterizedTypeName.get(ClassName.get(ArrayList.class), elementType);
+        }
+    }
+}
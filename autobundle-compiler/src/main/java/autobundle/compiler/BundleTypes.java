@@ -0,0 +1,259 @@
+package autobundle.compiler;
+
+import java.util.List;
+
+import javax.annotation.Nullable;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.type.ArrayType;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.type.WildcardType;
+import javax.lang.model.util.Elements;
+import javax.lang.model.util.Types;
+
+/**
+ * Resolves the {@link BundleType} of parameters and fields at compile time.
+ */
+final class BundleTypes {
+    private static final String STRING = "java.lang.String";
+    private static final String INTEGER = "java.lang.Integer";
+    private static final String CHAR_SEQUENCE = "java.lang.CharSequence";
+    private static final String SERIALIZABLE = "java.io.Serializable";
+    private static final String PARCELABLE = "android.os.Parcelable";
+    private static final String ARRAY_LIST = "java.util.ArrayList";
+    private static final String COLLECTION = "java.util.Collection";
+    private static final String SPARSE_ARRAY = "android.util.SparseArray";
+
+    private final Types typeUtils;
+    private final Elements elementUtils;
+
+    BundleTypes(Types typeUtils, Elements elementUtils) {
+        this.typeUtils = typeUtils;
+        this.elementUtils = elementUtils;
+    }
+
+    /**
+     * Returns the type used to put a {@link autobundle.annotation.Box @Box} parameter, or null if
+     * the runtime factories would not support it either. Follows the same checks in the same order
+     * as {@code BuiltInHandlerFactory} and {@code BestGuessHandlerFactory}.
+     */
+    @Nullable
+    BundleType forParameter(TypeMirror type) {
+        BundleType primitive = primitiveType(type.getKind());
+        if (primitive != null) {
+            return primitive;
+        }
+        if (type.getKind() == TypeKind.ARRAY) {
+            TypeMirror componentType = ((ArrayType) type).getComponentType();
+            BundleType primitiveArray = primitiveArrayType(componentType.getKind());
+            if (primitiveArray != null) {
+                return primitiveArray;
+            }
+            if (isType(componentType, STRING)) {
+                return BundleType.STRING_ARRAY;
+            }
+            // Generic component types are GenericArrayType at runtime, which only checks Serializable.
+            if (!isParameterized(componentType)) {
+                if (isSubtype(componentType, PARCELABLE)) {
+                    return BundleType.PARCELABLE_ARRAY;
+                } else if (isSubtype(componentType, CHAR_SEQUENCE)) {
+                    return BundleType.CHAR_SEQUENCE_ARRAY;
+                }
+            }
+            TypeMirror outComponentType = getOutComponentType(type);
+            if (outComponentType.getKind().isPrimitive() || isSubtype(outComponentType, SERIALIZABLE)) {
+                return BundleType.SERIALIZABLE;
+            }
+            return null;
+        }
+        if (type.getKind() != TypeKind.DECLARED) {
+            return null;
+        }
+        if (isType(type, STRING)) {
+            return BundleType.STRING;
+        }
+        if (isParameterized(type)) {
+            TypeMirror elementType = getUpperBound(((DeclaredType) type).getTypeArguments().get(0));
+            if (isRawType(type, ARRAY_LIST)) {
+                BundleType listType = arrayListType(elementType);
+                if (listType != null) {
+                    return listType;
+                }
+            } else if (isRawType(type, SPARSE_ARRAY) && isSubtype(elementType, PARCELABLE)) {
+                return BundleType.SPARSE_PARCELABLE_ARRAY;
+            }
+        } else if (isSubtype(type, CHAR_SEQUENCE)) {
+            return BundleType.CHAR_SEQUENCE;
+        } else if (isSubtype(type, PARCELABLE)) {
+            return BundleType.PARCELABLE;
+        }
+        if (isSubtype(type, SERIALIZABLE)) {
+            return BundleType.SERIALIZABLE;
+        }
+        return null;
+    }
+
+    /**
+     * Returns the type used to get and put an {@link autobundle.annotation.Unbox @Unbox} field, or
+     * null if a Bundle can't put it. Such a field is read with the untyped {@code Bundle.get} and
+     * not saved. A field is read with the getter that
+     * matches the put method of a parameter of the same type.
+     */
+    @Nullable
+    BundleType forField(TypeMirror type) {
+        // The list getters return ArrayList, which is also assignable to List, Collection, ...
+        if (isParameterized(type) && !isRawType(type, ARRAY_LIST) && isSupertypeOfArrayList(type)) {
+            return arrayListType(getUpperBound(((DeclaredType) type).getTypeArguments().get(0)));
+        }
+        return forParameter(type);
+    }
+
+    @Nullable
+    private BundleType arrayListType(TypeMirror elementType) {
+        if (isType(elementType, STRING)) {
+            return BundleType.STRING_ARRAY_LIST;
+        } else if (isType(elementType, INTEGER)) {
+            return BundleType.INTEGER_ARRAY_LIST;
+        } else if (isSubtype(elementType, PARCELABLE)) {
+            return BundleType.PARCELABLE_ARRAY_LIST;
+        } else if (isSubtype(elementType, CHAR_SEQUENCE)) {
+            return BundleType.CHAR_SEQUENCE_ARRAY_LIST;
+        }
+        return null;
+    }
+
+    private boolean isSupertypeOfArrayList(TypeMirror type) {
+        TypeElement arrayList = elementUtils.getTypeElement(ARRAY_LIST);
+        return typeUtils.isSubtype(typeUtils.erasure(arrayList.asType()), typeUtils.erasure(type));
+    }
+
+    @Nullable
+    private static BundleType primitiveType(TypeKind kind) {
+        switch (kind) {
+            case BOOLEAN:
+                return BundleType.BOOLEAN;
+            case BYTE:
+                return BundleType.BYTE;
+            case CHAR:
+                return BundleType.CHAR;
+            case SHORT:
+                return BundleType.SHORT;
+            case INT:
+                return BundleType.INT;
+            case LONG:
+                return BundleType.LONG;
+            case FLOAT:
+                return BundleType.FLOAT;
+            case DOUBLE:
+                return BundleType.DOUBLE;
+            default:
+                return null;
+        }
+    }
+
+    @Nullable
+    private static BundleType primitiveArrayType(TypeKind componentKind) {
+        switch (componentKind) {
+            case BOOLEAN:
+                return BundleType.BOOLEAN_ARRAY;
+            case BYTE:
+                return BundleType.BYTE_ARRAY;
+            case CHAR:
+                return BundleType.CHAR_ARRAY;
+            case SHORT:
+                return BundleType.SHORT_ARRAY;
+            case INT:
+                return BundleType.INT_ARRAY;
+            case LONG:
+                return BundleType.LONG_ARRAY;
+            case FLOAT:
+                return BundleType.FLOAT_ARRAY;
+            case DOUBLE:
+                return BundleType.DOUBLE_ARRAY;
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * Returns true if {@code type} has exactly the element type of the invariant list put methods.
+     */
+    boolean isExactList(TypeMirror type, BundleType bundleType) {
+        List<? extends TypeMirror> typeArguments = ((DeclaredType) type).getTypeArguments();
+        TypeMirror elementType = typeArguments.get(0);
+        switch (bundleType) {
+            case STRING_ARRAY_LIST:
+                return isType(elementType, STRING);
+            case INTEGER_ARRAY_LIST:
+                return isType(elementType, INTEGER);
+            case CHAR_SEQUENCE_ARRAY_LIST:
+                return isType(elementType, CHAR_SEQUENCE);
+            default:
+                return true;
+        }
+    }
+
+    /**
+     * Returns true if a field of {@code type} can't be passed to the put method of
+     * {@code bundleType} as is.
+     */
+    boolean needsArrayListCast(TypeMirror type, BundleType bundleType) {
+        if (!bundleType.isArrayList()) {
+            return false;
+        }
+        return !isRawType(type, ARRAY_LIST) || !isExactList(type, bundleType);
+    }
+
+    /**
+     * Returns true if a field of {@code type} may hold a list that is no {@code ArrayList}, e.g. a
+     * {@code List<String>}, which is copied to be put with {@code bundleType}.
+     */
+    boolean needsArrayListCopy(TypeMirror type, BundleType bundleType) {
+        return bundleType.isArrayList() && !isRawType(type, ARRAY_LIST) && isSubtype(type, COLLECTION);
+    }
+
+    private boolean isSubtype(TypeMirror type, String otherType) {
+        TypeElement otherElement = elementUtils.getTypeElement(otherType);
+        if (type.getKind() != TypeKind.DECLARED || otherElement == null) {
+            return false;
+        }
+        return typeUtils.isSubtype(typeUtils.erasure(type), typeUtils.erasure(otherElement.asType()));
+    }
+
+    private static boolean isType(TypeMirror type, String otherType) {
+        return type.getKind() == TypeKind.DECLARED && !isParameterized(type)
+                && ((DeclaredType) type).asElement().toString().equals(otherType);
+    }
+
+    private static boolean isRawType(TypeMirror type, String otherType) {
+        return ((DeclaredType) type).asElement().toString().equals(otherType);
+    }
+
+    private static boolean isParameterized(TypeMirror type) {
+        return type.getKind() == TypeKind.DECLARED && !((DeclaredType) type).getTypeArguments().isEmpty();
+    }
+
+    /**
+     * Same as {@code Utils.getParameterUpperBound}, {@code ? extends Foo} becomes {@code Foo}.
+     */
+    private static TypeMirror getUpperBound(TypeMirror type) {
+        if (type.getKind() == TypeKind.WILDCARD) {
+            TypeMirror extendsBound = ((WildcardType) type).getExtendsBound();
+            if (extendsBound != null) {
+                return extendsBound;
+            }
+        }
+        return type;
+    }
+
+    /**
+     * 获取最外层数组类型 如 String[][] 获取String
+     */
+    private static TypeMirror getOutComponentType(TypeMirror type) {
+        while (type.getKind() == TypeKind.ARRAY) {
+            type = ((ArrayType) type).getComponentType();
+        }
+        return type;
+    }
+}
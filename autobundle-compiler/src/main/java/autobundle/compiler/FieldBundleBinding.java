@@ -4,6 +4,8 @@ import com.squareup.javapoet.ClassName;
 import com.squareup.javapoet.ParameterizedTypeName;
 import com.squareup.javapoet.TypeName;
 
+import javax.annotation.Nullable;
+
 final class FieldBundleBinding {
     //属性名称
     final String name;
@@ -13,12 +15,23 @@ final class FieldBundleBinding {
     final boolean required;
     //对应的key值
     final String key;
+    //对应的Bundle.getXXX 和 putXXX, null时使用Bundle.get且不保存
+    final @Nullable
+    BundleType bundleType;
+    // The field is no ArrayList of the element type the put method takes, e.g. a List<String>.
+    final boolean needsCast;
+    // The field may hold a list that is no ArrayList, it is then copied to be put.
+    final boolean needsCopy;
 
-    FieldBundleBinding(String name, String key, TypeName type, boolean required) {
+    FieldBundleBinding(String name, String key, TypeName type, boolean required,
+                       @Nullable BundleType bundleType, boolean needsCast, boolean needsCopy) {
         this.name = name;
         this.type = type;
         this.required = required;
         this.key = key;
+        this.bundleType = bundleType;
+        this.needsCast = needsCast;
+        this.needsCopy = needsCopy;
     }
 
     public ClassName getRawType() {
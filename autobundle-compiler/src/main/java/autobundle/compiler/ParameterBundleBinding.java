@@ -0,0 +1,28 @@
+package autobundle.compiler;
+
+import com.squareup.javapoet.TypeName;
+
+final class ParameterBundleBinding {
+    //参数名称
+    final String name;
+    //参数类型
+    final TypeName type;
+    //是否必须  对复合数据类型有效, 与运行时 BundleFactory 的规则一致: 基本类型永不 required
+    final boolean required;
+    //对应的key值
+    final String key;
+    //Bundle.putXXX
+    final BundleType bundleType;
+    //ArrayList<? extends String> 等需要强转才能调用 put 方法
+    final boolean needsCast;
+
+    ParameterBundleBinding(String name, String key, TypeName type, boolean required,
+                           BundleType bundleType, boolean needsCast) {
+        this.name = name;
+        this.key = key;
+        this.type = type;
+        this.required = required && !bundleType.isPrimitive();
+        this.bundleType = bundleType;
+        this.needsCast = needsCast;
+    }
+}
@@ -0,0 +1,245 @@
+package autobundle.compiler;
+
+import com.google.common.base.CaseFormat;
+import com.google.common.collect.ImmutableList;
+import com.squareup.javapoet.AnnotationSpec;
+import com.squareup.javapoet.ClassName;
+import com.squareup.javapoet.CodeBlock;
+import com.squareup.javapoet.FieldSpec;
+import com.squareup.javapoet.JavaFile;
+import com.squareup.javapoet.MethodSpec;
+import com.squareup.javapoet.NameAllocator;
+import com.squareup.javapoet.ParameterizedTypeName;
+import com.squareup.javapoet.TypeName;
+import com.squareup.javapoet.TypeSpec;
+import com.squareup.javapoet.TypeVariableName;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.TypeParameterElement;
+
+import static com.google.auto.common.MoreElements.getPackage;
+import static javax.lang.model.element.Modifier.FINAL;
+import static javax.lang.model.element.Modifier.PRIVATE;
+import static javax.lang.model.element.Modifier.PUBLIC;
+import static javax.lang.model.element.Modifier.STATIC;
+
+/**
+ * Generates the implementation of a service interface whose methods put their
+ * {@link autobundle.annotation.Box @Box} parameters with the typed Bundle methods, so that
+ * {@code AutoBundle.create} needs no {@link java.lang.reflect.Proxy}.
+ */
+final class ServiceSet {
+    private static final ClassName BUNDLE = ClassName.get("android.os", "Bundle");
+    private static final ClassName NULLPOINTEREXCEPTION = ClassName.get("java.lang", "NullPointerException");
+    private static final ClassName ARRAY_LIST = ClassName.get("java.util", "ArrayList");
+    private static final ClassName BUNDLE_LISTENERS = ClassName.get("autobundle", "BundleListeners");
+    private static final AnnotationSpec UNCHECKED = AnnotationSpec.builder(SuppressWarnings.class)
+            .addMember("value", "$S", "unchecked").build();
+    // Same as BundleFactory.Builder#bundleFlag
+    private static final int NO_FLAG = Integer.MIN_VALUE;
+
+    private final TypeElement serviceElement;
+    private final TypeName serviceTypeName;
+    private final ClassName creatorClassName;
+    private final List<TypeVariableName> typeVariables;
+    private final ImmutableList<MethodBinding> methods;
+
+    private ServiceSet(TypeElement serviceElement, TypeName serviceTypeName, ClassName creatorClassName,
+                       List<TypeVariableName> typeVariables, ImmutableList<MethodBinding> methods) {
+        this.serviceElement = serviceElement;
+        this.serviceTypeName = serviceTypeName;
+        this.creatorClassName = creatorClassName;
+        this.typeVariables = typeVariables;
+        this.methods = methods;
+    }
+
+    TypeElement getServiceElement() {
+        return serviceElement;
+    }
+
+    TypeName getServiceTypeName() {
+        return serviceTypeName;
+    }
+
+    ClassName getCreatorClassName() {
+        return creatorClassName;
+    }
+
+    // The creator then has the type variables of the service.
+    boolean isGeneric() {
+        return !typeVariables.isEmpty();
+    }
+
+    JavaFile brewJava() {
+        return JavaFile.builder(creatorClassName.packageName(), createType())
+                .addFileComment("Generated code from AutoBundle. Do not modify!")
+                .build();
+    }
+
+    private TypeSpec createType() {
+        TypeName superinterface = serviceTypeName;
+        if (!typeVariables.isEmpty()) {
+            superinterface = ParameterizedTypeName.get((ClassName) serviceTypeName,
+                    typeVariables.toArray(new TypeName[typeVariables.size()]));
+        }
+        // Isolating for Gradle: services have no superinterfaces, the creator only depends on them.
+        TypeSpec.Builder result = TypeSpec.classBuilder(creatorClassName.simpleName())
+                .addOriginatingElement(serviceElement)
+                .addModifiers(PUBLIC, FINAL)
+                .addTypeVariables(typeVariables)
+                .addSuperinterface(superinterface)
+                .addField(BUNDLE_LISTENERS, "listeners", PRIVATE, FINAL)
+                .addMethod(MethodSpec.constructorBuilder()
+                        .addModifiers(PUBLIC)
+                        .addParameter(BUNDLE_LISTENERS, "listeners")
+                        .addStatement("this.listeners = listeners")
+                        .build());
+        // The keys and required flags handed to the listeners, shared by every call.
+        NameAllocator fieldNames = new NameAllocator();
+        for (MethodBinding method : methods) {
+            String prefix = CaseFormat.LOWER_CAMEL.to(CaseFormat.UPPER_UNDERSCORE, method.signature.name);
+            String keys = fieldNames.newName(prefix + "_KEYS");
+            String required = fieldNames.newName(prefix + "_REQUIRED");
+            CodeBlock.Builder keysInitializer = CodeBlock.builder().add("{");
+            CodeBlock.Builder requiredInitializer = CodeBlock.builder().add("{");
+            for (int p = 0; p < method.parameters.size(); p++) {
+                ParameterBundleBinding parameter = method.parameters.get(p);
+                keysInitializer.add(p == 0 ? "$S" : ", $S", parameter.key);
+                requiredInitializer.add(p == 0 ? "$L" : ", $L", parameter.required);
+            }
+            result.addField(FieldSpec.builder(String[].class, keys, PRIVATE, STATIC, FINAL)
+                    .initializer(keysInitializer.add("}").build())
+                    .build());
+            result.addField(FieldSpec.builder(boolean[].class, required, PRIVATE, STATIC, FINAL)
+                    .initializer(requiredInitializer.add("}").build())
+                    .build());
+            result.addMethod(createMethod(method, keys, required));
+        }
+        return result.build();
+    }
+
+    private MethodSpec createMethod(MethodBinding method, String keys, String required) {
+        MethodSpec.Builder methodBuilder = method.signature.toBuilder();
+        NameAllocator nameAllocator = new NameAllocator();
+        for (ParameterBundleBinding parameter : method.parameters) {
+            nameAllocator.newName(parameter.name, parameter);
+        }
+        String bundle = nameAllocator.newName("bundle");
+        CodeBlock flag = method.flag == NO_FLAG
+                ? CodeBlock.of("$T.MIN_VALUE", Integer.class) : CodeBlock.of("$L", method.flag);
+
+        for (ParameterBundleBinding parameter : method.parameters) {
+            if (parameter.required) {
+                methodBuilder.beginControlFlow("if ($N == null)", parameter.name)
+                        .addStatement("throw new $T($S)", NULLPOINTEREXCEPTION, "key with " + parameter.key
+                                + " is null, If this parameter is optional remove '@Required' annotation. ")
+                        .endControlFlow();
+            }
+        }
+        // Sized for the parameters and put in key hash order, the backing ArrayMap only appends.
+        methodBuilder.addStatement("$T $N = new $T($L)", BUNDLE, bundle, BUNDLE, method.parameters.size());
+        for (ParameterBundleBinding parameter : inPutOrder(method.parameters)) {
+            if (parameter.needsCast) {
+                methodBuilder.addStatement("$N.$N($S, ($T) $N)", bundle, parameter.bundleType.putMethod,
+                        parameter.key, ARRAY_LIST, parameter.name);
+            } else {
+                methodBuilder.addStatement("$N.$N($S, $N)", bundle, parameter.bundleType.putMethod,
+                        parameter.key, parameter.name);
+            }
+        }
+        CodeBlock.Builder values = CodeBlock.builder().add("new $T[] {", Object.class);
+        for (int p = 0; p < method.parameters.size(); p++) {
+            values.add(p == 0 ? "$N" : ", $N", method.parameters.get(p).name);
+        }
+        values.add("}");
+        // Values are only boxed into an array if a listener reads them.
+        methodBuilder.beginControlFlow("if (this.listeners != null)")
+                .addStatement("this.listeners.dispatch($L, $N, $N, this.listeners.needsValues() ? $L : null, $N)",
+                        flag, keys, required, values.build(), bundle)
+                .endControlFlow()
+                .addStatement("return $N", bundle);
+        if (hasCast(method)) {
+            methodBuilder.addAnnotation(UNCHECKED);
+        }
+        return methodBuilder.build();
+    }
+
+    /**
+     * Sorts the parameters by the hash of their key, the order of the keys in
+     * {@code android.util.ArrayMap}. The sort is stable, so the last of duplicate keys still wins.
+     */
+    private static List<ParameterBundleBinding> inPutOrder(List<ParameterBundleBinding> parameters) {
+        List<ParameterBundleBinding> result = new ArrayList<>(parameters);
+        Collections.sort(result, new Comparator<ParameterBundleBinding>() {
+            @Override
+            public int compare(ParameterBundleBinding o1, ParameterBundleBinding o2) {
+                return Integer.compare(o1.key.hashCode(), o2.key.hashCode());
+            }
+        });
+        return result;
+    }
+
+    private static boolean hasCast(MethodBinding method) {
+        for (ParameterBundleBinding parameter : method.parameters) {
+            if (parameter.needsCast) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    static Builder newBuilder(TypeElement serviceElement) {
+        String packageName = getPackage(serviceElement).getQualifiedName().toString();
+        String className = serviceElement.getQualifiedName().toString().substring(
+                packageName.length() + 1).replace('.', '$');//处理内部类的情况
+        ClassName creatorClassName = ClassName.get(packageName, className + "_BundleCreator");
+        List<TypeVariableName> typeVariables = new ArrayList<>();
+        for (TypeParameterElement typeParameter : serviceElement.getTypeParameters()) {
+            typeVariables.add(TypeVariableName.get(typeParameter));
+        }
+        return new Builder(serviceElement, ClassName.get(serviceElement), creatorClassName, typeVariables);
+    }
+
+    static final class MethodBinding {
+        // @Override public Bundle method(...) 签名
+        final MethodSpec signature;
+        final int flag;
+        final ImmutableList<ParameterBundleBinding> parameters;
+
+        MethodBinding(MethodSpec signature, int flag, ImmutableList<ParameterBundleBinding> parameters) {
+            this.signature = signature;
+            this.flag = flag;
+            this.parameters = parameters;
+        }
+    }
+
+    static final class Builder {
+        private final TypeElement serviceElement;
+        private final TypeName serviceTypeName;
+        private final ClassName creatorClassName;
+        private final List<TypeVariableName> typeVariables;
+        private final ImmutableList.Builder<MethodBinding> methods = ImmutableList.builder();
+
+        private Builder(TypeElement serviceElement, TypeName serviceTypeName, ClassName creatorClassName,
+                        List<TypeVariableName> typeVariables) {
+            this.serviceElement = serviceElement;
+            this.serviceTypeName = serviceTypeName;
+            this.creatorClassName = creatorClassName;
+            this.typeVariables = typeVariables;
+        }
+
+        void addMethod(MethodBinding method) {
+            methods.add(method);
+        }
+
+        ServiceSet build() {
+            return new ServiceSet(serviceElement, serviceTypeName, creatorClassName, typeVariables,
+                    methods.build());
+        }
+    }
+}
@@ -0,0 +1,263 @@
+package autobundle.compiler;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Scanner;
+
+import javax.annotation.processing.Filer;
+import javax.annotation.processing.ProcessingEnvironment;
+import javax.annotation.processing.Processor;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.TypeElement;
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Compiles targets the way Gradle's incremental compilation does: first all of them, then only
+ * the changed ones against the classes of the first build.
+ */
+public class IncrementalProcessingTest {
+    private static final String[][] STUBS = {
+            {"android/os/Bundle.java", "package android.os;\n"
+                    + "public class Bundle {\n"
+                    + "  public static final Bundle EMPTY = new Bundle();\n"
+                    + "  public boolean containsKey(String key) { return false; }\n"
+                    + "  public String getString(String key) { return null; }\n"
+                    + "  public void putString(String key, String value) {}\n"
+                    + "}\n"},
+            {"android/content/Intent.java", "package android.content;\n"
+                    + "public class Intent {\n"
+                    + "  public String getStringExtra(String name) { return null; }\n"
+                    + "  public android.os.Bundle getExtras() { return null; }\n"
+                    + "}\n"},
+            {"android/support/annotation/CallSuper.java", "package android.support.annotation;\n"
+                    + "public @interface CallSuper {}\n"},
+            {"autobundle/IBinder.java", "package autobundle;\n"
+                    + "public interface IBinder {\n"
+                    + "  void bind(Object object, android.os.Bundle bundle);\n"
+                    + "  void bind(Object object, android.content.Intent intent);\n"
+                    + "  void save(Object object, android.os.Bundle bundle, android.os.Bundle bound);\n"
+                    + "  interface Factory { IBinder create(); }\n"
+                    + "}\n"},
+            {"autobundle/BundleIndex.java", "package autobundle;\n"
+                    + "public abstract class BundleIndex {\n"
+                    + "  public abstract void loadInto(java.util.Map<Class<?>, IBinder.Factory> binders);\n"
+                    + "}\n"},
+    };
+    private static final String PARENT = "package test;\n"
+            + "import autobundle.annotation.Unbox;\n"
+            + "public class Parent {\n"
+            + "  @Unbox(\"name\") String name;\n"
+            + "}\n";
+    private static final String CHILD = "package test;\n"
+            + "import autobundle.annotation.Unbox;\n"
+            + "public class Child extends Parent {\n"
+            + "  @Unbox(\"age\") String age;\n"
+            + "}\n";
+    private static final String CHILD_CHANGED = "package test;\n"
+            + "import autobundle.annotation.Unbox;\n"
+            + "public class Child extends Parent {\n"
+            + "  @Unbox(\"age\") String age;\n"
+            + "  @Unbox(\"city\") String city;\n"
+            + "}\n";
+
+    @Rule
+    public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void bindingOriginatesFromItsTargetOnly() throws IOException {
+        Compilation full = compile(Collections.<String>emptyList(), null,
+                source("test/Parent.java", PARENT), source("test/Child.java", CHILD));
+
+        assertEquals(Arrays.asList("test.Parent"), full.origins.get("test.Parent_BundleBinding"));
+        assertEquals(Arrays.asList("test.Child"), full.origins.get("test.Child_BundleBinding"));
+        assertTrue(full.processor.getSupportedOptions()
+                .contains(AutoBundleProcessor.OPTION_GRADLE_ISOLATING));
+    }
+
+    @Test
+    public void recompiledSubclassExtendsSuperclassBindingFromClasspath() throws IOException {
+        Compilation full = compile(Collections.<String>emptyList(), null,
+                source("test/Parent.java", PARENT), source("test/Child.java", CHILD));
+
+        // Only the changed subclass is recompiled, its superclass and binding are classes now.
+        Compilation incremental = compile(Collections.<String>emptyList(), full.classes,
+                source("test/Child.java", CHILD_CHANGED));
+
+        assertEquals(Collections.singleton("test.Child_BundleBinding"), incremental.origins.keySet());
+        String binding = incremental.generated("test/Child_BundleBinding.java");
+        assertTrue(binding, binding.contains("extends Parent_BundleBinding"));
+        assertTrue(binding, binding.contains("super.bind(object, bundle);"));
+        assertTrue(binding, binding.contains("bundle.getString(\"city\")"));
+    }
+
+    @Test
+    public void indexAggregatesAllTargets() throws IOException {
+        Compilation full = compile(
+                Collections.singletonList("-A" + AutoBundleProcessor.OPTION_INDEX + "=test.TestIndex"),
+                null, source("test/Parent.java", PARENT), source("test/Child.java", CHILD));
+
+        assertEquals(Arrays.asList("test.Parent", "test.Child"), full.origins.get("test.TestIndex"));
+        assertTrue(full.processor.getSupportedOptions()
+                .contains(AutoBundleProcessor.OPTION_GRADLE_AGGREGATING));
+        assertFalse(full.processor.getSupportedOptions()
+                .contains(AutoBundleProcessor.OPTION_GRADLE_ISOLATING));
+    }
+
+    @Test
+    public void indexLeavesOutClassesThatAreNotPublic() throws IOException {
+        Compilation full = compile(
+                Collections.singletonList("-A" + AutoBundleProcessor.OPTION_INDEX + "=test.TestIndex"),
+                null, source("test/Parent.java", PARENT), source("test/Hidden.java", "package test;\n"
+                        + "import autobundle.annotation.Unbox;\n"
+                        + "class Hidden {\n"
+                        + "  @Unbox(\"name\") String name;\n"
+                        + "}\n"));
+
+        // Still bound, by name instead of through the index.
+        assertEquals(Arrays.asList("test.Hidden"), full.origins.get("test.Hidden_BundleBinding"));
+        String index = full.generated("test/TestIndex.java");
+        assertTrue(index, index.contains("Parent.class"));
+        assertFalse(index, index.contains("Hidden"));
+    }
+
+    @Test
+    public void processorIsRegisteredForGradle() throws IOException {
+        InputStream in = AutoBundleProcessor.class.getClassLoader()
+                .getResourceAsStream("META-INF/gradle/incremental.annotation.processors");
+        assertNotNull(in);
+        try (Scanner scanner = new Scanner(in, "UTF-8")) {
+            assertEquals(AutoBundleProcessor.class.getName() + ",dynamic", scanner.nextLine());
+        }
+    }
+
+    private File source(String path, String content) throws IOException {
+        File file = new File(temporaryFolder.getRoot(), "src-" + System.nanoTime() + "/" + path);
+        write(file, content);
+        return file;
+    }
+
+    /**
+     * Compiles {@code sources} with the stubs of the Android classes, or against {@code classes}
+     * of an earlier compilation.
+     */
+    private Compilation compile(List<String> options, File classes, File... sources) throws IOException {
+        List<File> files = new ArrayList<>(Arrays.asList(sources));
+        String classpath = System.getProperty("java.class.path");
+        if (classes == null) {
+            File stubs = temporaryFolder.newFolder();
+            for (String[] stub : STUBS) {
+                File file = new File(stubs, stub[0]);
+                write(file, stub[1]);
+                files.add(file);
+            }
+        } else {
+            classpath = classes + File.pathSeparator + classpath;
+        }
+        Compilation compilation = new Compilation(temporaryFolder.newFolder(), temporaryFolder.newFolder());
+
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+        List<String> arguments = new ArrayList<>(options);
+        arguments.addAll(Arrays.asList("-d", compilation.classes.getPath(),
+                "-s", compilation.sources.getPath(), "-classpath", classpath));
+        try (StandardJavaFileManager fileManager = compiler.getStandardFileManager(diagnostics, null, null)) {
+            JavaCompiler.CompilationTask task = compiler.getTask(null, fileManager, diagnostics, arguments,
+                    null, fileManager.getJavaFileObjectsFromFiles(files));
+            task.setProcessors(Collections.singletonList(compilation.recordingProcessor()));
+            assertTrue(diagnostics.getDiagnostics().toString(), task.call());
+        }
+        return compilation;
+    }
+
+    private static void write(File file, String content) throws IOException {
+        assertTrue(file.getParentFile().isDirectory() || file.getParentFile().mkdirs());
+        Files.write(file.toPath(), content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Records the originating elements of every generated source, as Gradle does to decide what
+     * to delete and generate again.
+     */
+    private static final class Compilation {
+        final File classes;
+        final File sources;
+        final AutoBundleProcessor processor = new AutoBundleProcessor();
+        final Map<String, List<String>> origins = new LinkedHashMap<>();
+
+        Compilation(File classes, File sources) {
+            this.classes = classes;
+            this.sources = sources;
+        }
+
+        String generated(String path) throws IOException {
+            return new String(Files.readAllBytes(new File(sources, path).toPath()), StandardCharsets.UTF_8);
+        }
+
+        Processor recordingProcessor() {
+            return (Processor) Proxy.newProxyInstance(getClass().getClassLoader(),
+                    new Class<?>[]{Processor.class}, new InvocationHandler() {
+                        @Override
+                        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+                            if (method.getName().equals("init")) {
+                                args = new Object[]{delegate(ProcessingEnvironment.class, args[0])};
+                            }
+                            return call(method, processor, args);
+                        }
+                    });
+        }
+
+        private <T> T delegate(final Class<T> type, final Object target) {
+            return type.cast(Proxy.newProxyInstance(getClass().getClassLoader(),
+                    new Class<?>[]{type}, new InvocationHandler() {
+                        @Override
+                        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+                            if (method.getName().equals("getFiler")) {
+                                return delegate(Filer.class, call(method, target, args));
+                            }
+                            if (method.getName().equals("createSourceFile")) {
+                                List<String> names = new ArrayList<>();
+                                for (Element element : (Element[]) args[1]) {
+                                    names.add(((TypeElement) element).getQualifiedName().toString());
+                                }
+                                origins.put(args[0].toString(), names);
+                            }
+                            return call(method, target, args);
+                        }
+                    }));
+        }
+
+        private static Object call(Method method, Object target, Object[] args) throws Throwable {
+            try {
+                return method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+}
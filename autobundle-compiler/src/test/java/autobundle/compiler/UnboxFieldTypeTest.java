@@ -0,0 +1,139 @@
+package autobundle.compiler;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Generated binders put every {@code @Unbox} field back with a typed put method. Fields of other
+ * types are still bound, but not saved, with a warning.
+ */
+public class UnboxFieldTypeTest {
+    private static final String[][] STUBS = {
+            {"android/os/Bundle.java", "package android.os;\n"
+                    + "public class Bundle {\n"
+                    + "  public Object get(String key) { return null; }\n"
+                    + "  public static final Bundle EMPTY = new Bundle();\n"
+                    + "  public boolean containsKey(String key) { return false; }\n"
+                    + "  public java.io.Serializable getSerializable(String key) { return null; }\n"
+                    + "  public void putSerializable(String key, java.io.Serializable value) {}\n"
+                    + "}\n"},
+            {"android/os/Parcelable.java", "package android.os;\n"
+                    + "public interface Parcelable {}\n"},
+            {"android/content/Intent.java", "package android.content;\n"
+                    + "public class Intent {\n"
+                    + "  public java.io.Serializable getSerializableExtra(String name) { return null; }\n"
+                    + "  public android.os.Bundle getExtras() { return null; }\n"
+                    + "}\n"},
+            {"android/support/annotation/CallSuper.java", "package android.support.annotation;\n"
+                    + "public @interface CallSuper {}\n"},
+            {"autobundle/IBinder.java", "package autobundle;\n"
+                    + "public interface IBinder {\n"
+                    + "  void bind(Object object, android.os.Bundle bundle);\n"
+                    + "  void bind(Object object, android.content.Intent intent);\n"
+                    + "  void save(Object object, android.os.Bundle bundle, android.os.Bundle bound);\n"
+                    + "}\n"},
+    };
+
+    @Rule
+    public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private File generated;
+
+    @Test
+    public void serializableFieldIsSaved() throws IOException {
+        List<Diagnostic<? extends JavaFileObject>> warnings = compile("package test;\n"
+                + "import autobundle.annotation.Unbox;\n"
+                + "public class Target {\n"
+                + "  @Unbox(\"values\") java.util.HashMap<String, String> values;\n"
+                + "}\n");
+
+        assertEquals(Collections.emptyList(), warnings);
+        assertTrue(binding().contains("bundle.putSerializable(\"values\", target.values);"));
+    }
+
+    @Test
+    public void fieldsWithoutTypedPutAreBoundButNotSaved() throws IOException {
+        List<Diagnostic<? extends JavaFileObject>> warnings = compile("package test;\n"
+                + "import autobundle.annotation.Unbox;\n"
+                + "public class Target {\n"
+                + "  @Unbox(\"value\") Object value;\n"
+                + "  @Unbox(\"ids\") java.util.List<Long> ids;\n"
+                + "}\n");
+
+        assertEquals(2, warnings.size());
+        String message = warnings.get(0).getMessage(Locale.ROOT);
+        assertTrue(message, message.contains("'java.lang.Object' has no typed Bundle put method, so save() skips it"));
+        assertTrue(message, message.contains("(test.Target.value)"));
+        String binding = binding();
+        assertTrue(binding, binding.contains("target.value = (Object) bundle.get(\"value\");"));
+        assertTrue(binding, binding.contains("target.ids = (List<Long>) extras.get(\"ids\");"));
+        assertFalse(binding, binding.contains("bundle.put"));
+    }
+
+    /**
+     * Compiles {@code target} with the stubs of the Android classes, checks that it compiles and
+     * returns the warnings.
+     */
+    private List<Diagnostic<? extends JavaFileObject>> compile(String target) throws IOException {
+        File sources = temporaryFolder.newFolder();
+        List<File> files = new ArrayList<>();
+        for (String[] stub : STUBS) {
+            files.add(write(new File(sources, stub[0]), stub[1]));
+        }
+        files.add(write(new File(sources, "test/Target.java"), target));
+
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+        generated = temporaryFolder.newFolder();
+        List<String> arguments = Arrays.asList("-d", temporaryFolder.newFolder().getPath(),
+                "-s", generated.getPath(),
+                "-classpath", System.getProperty("java.class.path"));
+        try (StandardJavaFileManager fileManager = compiler.getStandardFileManager(diagnostics, null, null)) {
+            JavaCompiler.CompilationTask task = compiler.getTask(null, fileManager, diagnostics, arguments,
+                    null, fileManager.getJavaFileObjectsFromFiles(files));
+            task.setProcessors(Collections.singletonList(new AutoBundleProcessor()));
+            assertTrue(diagnostics.getDiagnostics().toString(), task.call());
+        }
+        List<Diagnostic<? extends JavaFileObject>> warnings = new ArrayList<>();
+        for (Diagnostic<? extends JavaFileObject> diagnostic : diagnostics.getDiagnostics()) {
+            if (diagnostic.getKind() == Diagnostic.Kind.WARNING) {
+                warnings.add(diagnostic);
+            }
+        }
+        return warnings;
+    }
+
+    private String binding() throws IOException {
+        return new String(Files.readAllBytes(new File(generated, "test/Target_BundleBinding.java").toPath()),
+                StandardCharsets.UTF_8);
+    }
+
+    private static File write(File file, String content) throws IOException {
+        assertFalse(file.exists());
+        assertTrue(file.getParentFile().isDirectory() || file.getParentFile().mkdirs());
+        Files.write(file.toPath(), content.getBytes(StandardCharsets.UTF_8));
+        return file;
+    }
+}